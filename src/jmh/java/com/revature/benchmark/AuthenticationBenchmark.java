@@ -0,0 +1,74 @@
+package com.revature.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.revature.dao.ChefDAO;
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+
+/**
+ * Benchmarks chef lookups by username, with and without the chef cache, and the session
+ * checks made by login and by every authenticated request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Sessions {
+
+        /** The number of live sessions validated against. */
+        private static final int TOKENS = 1024;
+
+        ChefDAO uncachedChefDAO;
+        String[] tokens;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkDatabase db) {
+            uncachedChefDAO = new ChefDAO(db.context.getConnectionUtil());
+            AuthenticationService authService = db.context.getAuthService();
+            tokens = new String[TOKENS];
+            for (int i = 0; i < TOKENS; i++) {
+                tokens[i] = authService.login(new Chef(BenchmarkData.username(i % 10), BenchmarkData.PASSWORD));
+            }
+        }
+    }
+
+    @Benchmark
+    public Chef getChefByUsername(BenchmarkDatabase db, Sessions sessions) {
+        return sessions.uncachedChefDAO.getChefByUsername(db.randomUsername(ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    public Chef getChefByUsernameCached(BenchmarkDatabase db) {
+        return db.context.getChefDAO().getChefByUsername(db.randomUsername(ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    public String login(BenchmarkDatabase db) {
+        return db.context.getAuthService().login(
+                new Chef(db.randomUsername(ThreadLocalRandom.current()), BenchmarkData.PASSWORD));
+    }
+
+    @Benchmark
+    public boolean isTokenValid(BenchmarkDatabase db, Sessions sessions) {
+        String[] tokens = sessions.tokens;
+        return db.context.getAuthService().isTokenValid(tokens[ThreadLocalRandom.current().nextInt(tokens.length)]);
+    }
+}
@@ -0,0 +1,76 @@
+package com.revature.benchmark;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import com.revature.DataGenerator;
+import com.revature.util.ConnectionUtil;
+
+/**
+ * The BenchmarkData class seeds a migrated database with a catalog from {@link DataGenerator}
+ * for the benchmarks: one chef per 50 recipes and 2000 ingredients, with recipe ids running
+ * from 1 to the requested count. Seeding is skipped when the database already holds that many
+ * recipes, so each scale is generated once and reused across forks and runs.
+ */
+final class BenchmarkData {
+
+    /** The seed every benchmark catalog is generated from. */
+    private static final long SEED = 42;
+
+    /** The number of ingredients in every catalog. */
+    static final int INGREDIENTS = 2000;
+
+    /** The password given to every generated chef. */
+    static final String PASSWORD = "benchmark";
+
+    /** Words that occur in generated instructions, used as search terms. */
+    static final String[] WORDS = DataGenerator.TECHNIQUES;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * @param recipes the number of recipes in the catalog
+     * @return the number of chefs generated for that many recipes
+     */
+    static int chefsFor(int recipes) {
+        return Math.max(10, recipes / 50);
+    }
+
+    /**
+     * @param index a zero-based chef index
+     * @return the username of the generated chef
+     */
+    static String username(int index) {
+        return DataGenerator.username(index);
+    }
+
+    /**
+     * Seeds the catalog unless it is already in place.
+     *
+     * @param connectionUtil the database to seed, already migrated
+     * @param recipes        the number of recipes wanted
+     */
+    static void seed(ConnectionUtil connectionUtil, int recipes) {
+        try {
+            if (countRecipes(connectionUtil) == recipes) {
+                return;
+            }
+            DataGenerator generator = new DataGenerator(connectionUtil, SEED, 5_000);
+            generator.reset();
+            generator.generate(chefsFor(recipes), INGREDIENTS, recipes, PASSWORD);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not seed the benchmark database", e);
+        }
+    }
+
+    private static int countRecipes(ConnectionUtil connectionUtil) throws SQLException {
+        try (Connection conn = connectionUtil.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM recipe")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.revature.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.revature.util.AppContext;
+import com.revature.util.Config;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.MigrationRunner;
+
+/**
+ * The BenchmarkDatabase state opens a seeded catalog of the requested size and wires the
+ * application on top of it. Every scale has its own H2 file under "recipe.bench.dataDir"
+ * (target/jmh-db by default), which JMH picks before the connection pool is first used;
+ * each trial runs in a fresh fork, so the pool always points at the right file.
+ *
+ * Choose scales with "-p recipes=1000,100000".
+ */
+@State(Scope.Benchmark)
+public class BenchmarkDatabase {
+
+    @Param({"1000", "100000", "1000000"})
+    public int recipes;
+
+    AppContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String dataDir = Config.getString("recipe.bench.dataDir", "target/jmh-db");
+        System.setProperty("recipe.db.url", "jdbc:h2:./" + dataDir + "/recipes-" + recipes + ";");
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        new MigrationRunner(connectionUtil).migrate();
+        BenchmarkData.seed(connectionUtil, recipes);
+        context = new AppContext(connectionUtil);
+    }
+
+    /**
+     * @param random a source of randomness
+     * @return the id of a random recipe
+     */
+    int randomRecipeId(ThreadLocalRandom random) {
+        return 1 + random.nextInt(recipes);
+    }
+
+    /**
+     * @param random a source of randomness
+     * @return the username of a random chef
+     */
+    String randomUsername(ThreadLocalRandom random) {
+        return BenchmarkData.username(random.nextInt(BenchmarkData.chefsFor(recipes)));
+    }
+
+    /**
+     * @param random a source of randomness
+     * @return a word that occurs in some recipe names and instructions
+     */
+    String randomTerm(ThreadLocalRandom random) {
+        return BenchmarkData.WORDS[random.nextInt(BenchmarkData.WORDS.length)];
+    }
+}
@@ -0,0 +1,78 @@
+package com.revature.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.javalin.Javalin;
+
+/**
+ * Benchmarks whole requests against the Javalin app on a local port, from the socket through
+ * routing, the service and the DAO to the serialized body.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Server {
+
+        Javalin app;
+        HttpClient client;
+        String baseUrl;
+
+        @Setup(Level.Trial)
+        public void start(BenchmarkDatabase db) {
+            app = db.context.getJavalinAppUtil().getApp().start(0);
+            client = HttpClient.newHttpClient();
+            baseUrl = "http://localhost:" + app.port();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            app.stop();
+        }
+
+        int get(String path) throws IOException, InterruptedException {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() + response.body().length;
+        }
+    }
+
+    @Benchmark
+    public int getRecipePage(BenchmarkDatabase db, Server server) throws IOException, InterruptedException {
+        int pages = Math.max(1, db.recipes / 20);
+        return server.get("/recipes?page=" + (1 + ThreadLocalRandom.current().nextInt(pages)) + "&pageSize=20");
+    }
+
+    @Benchmark
+    public int searchRecipes(BenchmarkDatabase db, Server server) throws IOException, InterruptedException {
+        return server.get("/recipes?term=" + db.randomTerm(ThreadLocalRandom.current()) + "&page=1&pageSize=20");
+    }
+
+    @Benchmark
+    public int getRecipeById(BenchmarkDatabase db, Server server) throws IOException, InterruptedException {
+        return server.get("/recipes/" + db.randomRecipeId(ThreadLocalRandom.current()));
+    }
+}
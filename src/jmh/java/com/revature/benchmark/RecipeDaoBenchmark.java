@@ -0,0 +1,57 @@
+package com.revature.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.revature.model.Recipe;
+import com.revature.util.Page;
+import com.revature.util.PageOptions;
+
+/**
+ * Benchmarks the paged recipe reads behind GET /recipes. Pages are picked at random across
+ * the whole catalog, so deep OFFSETs are included in the averages.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeDaoBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Benchmark
+    public Page<Recipe> getAllRecipesById(BenchmarkDatabase db) {
+        return db.context.getRecipeDAO().getAllRecipes(randomPage(db, "id"));
+    }
+
+    @Benchmark
+    public Page<Recipe> getAllRecipesByName(BenchmarkDatabase db) {
+        return db.context.getRecipeDAO().getAllRecipes(randomPage(db, "name"));
+    }
+
+    @Benchmark
+    public Page<Recipe> searchRecipesByTerm(BenchmarkDatabase db) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return db.context.getRecipeDAO().searchRecipesByTerm(db.randomTerm(random),
+                new PageOptions(1 + random.nextInt(10), PAGE_SIZE, "id", true));
+    }
+
+    @Benchmark
+    public Recipe getRecipeById(BenchmarkDatabase db) {
+        return db.context.getRecipeDAO().getRecipeById(db.randomRecipeId(ThreadLocalRandom.current()));
+    }
+
+    private static PageOptions randomPage(BenchmarkDatabase db, String sortBy) {
+        int pages = Math.max(1, db.recipes / PAGE_SIZE);
+        return new PageOptions(1 + ThreadLocalRandom.current().nextInt(pages), PAGE_SIZE, sortBy, true);
+    }
+}
@@ -0,0 +1,80 @@
+package com.revature.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.revature.model.Chef;
+import com.revature.util.BulkImportResult;
+
+/**
+ * Benchmarks POST /recipes/bulk below the HTTP layer: each invocation streams one upload of
+ * new NDJSON recipes, each with two ingredients, through the import service into the H2 file.
+ * The score is recipes per second. Every invocation adds recipes with fresh names, so the
+ * catalog grows during the run and is seeded again by the next benchmark that uses it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeImportBenchmark {
+
+    /** The number of recipes in each upload. */
+    private static final int UPLOAD_SIZE = 10_000;
+
+    @State(Scope.Thread)
+    public static class Upload {
+
+        private final SplittableRandom random = new SplittableRandom(42);
+        private int uploads;
+
+        Chef importer;
+        byte[] body;
+
+        @Setup(Level.Trial)
+        public void setUp(BenchmarkDatabase db) {
+            importer = db.context.getChefDAO().getChefByUsername(BenchmarkData.username(0));
+        }
+
+        @Setup(Level.Invocation)
+        public void nextUpload() {
+            int upload = uploads++;
+            StringBuilder ndjson = new StringBuilder(UPLOAD_SIZE * 160);
+            for (int i = 0; i < UPLOAD_SIZE; i++) {
+                int first = 1 + random.nextInt(BenchmarkData.INGREDIENTS);
+                int second = 1 + (first + random.nextInt(BenchmarkData.INGREDIENTS - 1)) % BenchmarkData.INGREDIENTS;
+                ndjson.append("{\"name\":\"imported ").append(System.nanoTime()).append('-').append(upload).append('-').append(i)
+                        .append("\",\"instructions\":\"Simmer for ").append(1 + random.nextInt(60)).append(" minutes.\"")
+                        .append(",\"ingredients\":[{\"id\":").append(first).append(",\"volume\":1,\"unit\":\"cups\"}")
+                        .append(",{\"id\":").append(second).append(",\"volume\":2,\"unit\":\"tbsp\"}]}\n");
+            }
+            body = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(UPLOAD_SIZE)
+    public BulkImportResult importRecipes(BenchmarkDatabase db, Upload upload) {
+        BulkImportResult result = db.context.getRecipeImportService()
+                .importRecipes(new ByteArrayInputStream(upload.body), upload.importer);
+        if (result.getImported() != UPLOAD_SIZE) {
+            throw new IllegalStateException("Only " + result.getImported() + " of " + UPLOAD_SIZE + " recipes imported");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package com.revature.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.util.Page;
+
+import io.javalin.json.JavalinJackson;
+
+/**
+ * Benchmarks turning a page of recipes into the JSON body of a GET /recipes response, using
+ * the same mapper Javalin uses for ctx.json. No database is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private JavalinJackson jsonMapper;
+    private Page<Recipe> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jsonMapper = new JavalinJackson();
+        List<Recipe> recipes = new ArrayList<>(pageSize);
+        for (int i = 1; i <= pageSize; i++) {
+            Chef author = new Chef(i % 7, BenchmarkData.username(i % 7), "chef@example.com", BenchmarkData.PASSWORD, false);
+            recipes.add(new Recipe(i, "bench " + i + " stew",
+                    "Chop the onion. Simmer with garlic and tomato for forty minutes. Season and serve.", author));
+        }
+        page = new Page<>(1, pageSize, 50, pageSize * 50, recipes);
+    }
+
+    @Benchmark
+    public String serializePage() {
+        return jsonMapper.toJsonString(page, Page.class);
+    }
+}
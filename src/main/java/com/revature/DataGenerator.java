@@ -0,0 +1,398 @@
+package com.revature;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.revature.util.ConnectionUtil;
+import com.revature.util.MigrationRunner;
+
+/**
+ * The DataGenerator class fills the database with a synthetic catalog for benchmarks and load
+ * tests. The data is reproducible from its seed and shaped like a real recipe site rather
+ * than uniform noise:
+ *
+ * - chef popularity follows a Zipf distribution, so a few chefs author most recipes;
+ * - ingredient usage follows a power law, so staples such as salt appear everywhere while
+ *   most ingredients are rare;
+ * - instruction lengths are log-normal, from a couple of sentences to a long method.
+ *
+ * Rows are written with JDBC batches, committing once per batch, so millions of rows can be
+ * generated in minutes. Run it from the command line with, for example:
+ *
+ * java -cp ... com.revature.DataGenerator --recipes=1000000 --chefs=20000 --seed=7 --reset
+ *
+ * Generated chefs are named "chef{n}", numbered on from the chefs already present, and all
+ * share one password ("password" unless --password is given).
+ */
+public class DataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataGenerator.class);
+
+    /** The cooking verbs instructions are written from; useful as search terms. */
+    public static final String[] TECHNIQUES = {
+        "boil", "simmer", "roast", "bake", "grill", "fry", "saute", "braise", "steam", "poach",
+        "whisk", "fold", "knead", "chop", "dice", "slice", "mince", "grate", "season", "marinate"
+    };
+
+    private static final String[] FOODS = {
+        "salt", "pepper", "garlic", "onion", "butter", "olive oil", "flour", "sugar", "egg", "milk",
+        "tomato", "potato", "carrot", "lemon", "rice", "chicken", "beef", "pork", "salmon", "tofu",
+        "basil", "thyme", "cumin", "paprika", "ginger", "chili", "cheese", "cream", "bean", "lentil",
+        "spinach", "kale", "mushroom", "pea", "corn", "noodle", "bread", "honey", "vinegar", "apple"
+    };
+
+    private static final String[] VARIETIES = {
+        "", "red ", "white ", "smoked ", "fresh ", "dried ", "wild ", "sweet ", "green ", "black "
+    };
+
+    private static final String[] DISHES = {
+        "soup", "stew", "salad", "curry", "pie", "bake", "roast", "risotto", "tacos", "pasta",
+        "bowl", "skillet", "casserole", "stir fry", "sandwich", "tart", "fritters", "chowder"
+    };
+
+    private static final String[] UNITS = { "cups", "Tbs", "tsp", "g", "oz", "whole", "cloves", "pinch" };
+
+    private static final String[] CONNECTORS = { "then", "and", "until soft,", "for ten minutes,", "gently,", "with care," };
+
+    private final ConnectionUtil connectionUtil;
+    private final long seed;
+    private final int batchSize;
+
+    /**
+     * @param connectionUtil the database to fill, already migrated
+     * @param seed           the random seed; the same seed always yields the same catalog
+     * @param batchSize      the number of recipes written per batch and transaction
+     */
+    public DataGenerator(ConnectionUtil connectionUtil, long seed, int batchSize) {
+        this.connectionUtil = connectionUtil;
+        this.seed = seed;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * @param index a chef's number
+     * @return the username of that generated chef
+     */
+    public static String username(int index) {
+        return "chef" + index;
+    }
+
+    /**
+     * Deletes every chef, recipe and ingredient and restarts their ids at 1, so a following
+     * {@link #generate(int, int, int, String)} numbers recipes 1 to n.
+     *
+     * @throws SQLException if the tables cannot be cleared
+     */
+    public void reset() throws SQLException {
+        try (Connection conn = connectionUtil.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String table : new String[] { "recipe_ingredient", "recipe", "ingredient", "chef" }) {
+                stmt.execute("DELETE FROM " + table);
+                stmt.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH 1");
+            }
+        }
+    }
+
+    /**
+     * Adds a synthetic catalog to the database.
+     *
+     * @param chefs       the number of chefs to add
+     * @param ingredients the number of ingredients to add
+     * @param recipes     the number of recipes to add, each with 2 to 12 ingredients
+     * @param password    the password given to every generated chef
+     * @throws SQLException if a batch fails; batches already committed are kept
+     */
+    public void generate(int chefs, int ingredients, int recipes, String password) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        try (Connection conn = connectionUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                int[] chefIds = insertChefs(conn, Math.max(1, chefs), password);
+                String[] ingredientNames = new String[Math.max(1, ingredients)];
+                int[] ingredientIds = insertIngredients(conn, ingredientNames);
+                logger.info("Generated {} chefs and {} ingredients", chefIds.length, ingredientIds.length);
+
+                ZipfSampler chefSampler = new ZipfSampler(chefIds.length, 1.1, random.split());
+                ZipfSampler ingredientSampler = new ZipfSampler(ingredientIds.length, 0.9, random.split());
+                insertRecipes(conn, recipes, chefIds, ingredientIds, ingredientNames, chefSampler, ingredientSampler, random);
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        logger.info("Generated {} recipes in {} ms", recipes, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private int[] insertChefs(Connection conn, int chefs, String password) throws SQLException {
+        int offset = count(conn, "chef");
+        int[] ids = new int[chefs];
+        String sql = "INSERT INTO chef(username, email, password, is_admin) VALUES (?,?,?,?)";
+        try (PreparedStatement ps = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < chefs; i++) {
+                String username = username(offset + i);
+                ps.setString(1, username);
+                ps.setString(2, username + "@example.com");
+                ps.setString(3, password);
+                ps.setBoolean(4, offset + i == 0);
+                ps.addBatch();
+                if ((i + 1) % batchSize == 0 || i == chefs - 1) {
+                    ps.executeBatch();
+                    readKeys(ps, ids, i / batchSize * batchSize);
+                    conn.commit();
+                }
+            }
+        }
+        return ids;
+    }
+
+    private int[] insertIngredients(Connection conn, String[] names) throws SQLException {
+        Set<String> existing = new HashSet<>();
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT name FROM ingredient")) {
+            while (rs.next()) {
+                existing.add(rs.getString(1));
+            }
+        }
+        int[] ids = new int[names.length];
+        int next = 0;
+        try (PreparedStatement ps = conn.prepareStatement("INSERT INTO ingredient(name) VALUES (?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < names.length; i++) {
+                do {
+                    names[i] = ingredientName(next++);
+                } while (!existing.add(names[i]));
+                ps.setString(1, names[i]);
+                ps.addBatch();
+                if ((i + 1) % batchSize == 0 || i == names.length - 1) {
+                    ps.executeBatch();
+                    readKeys(ps, ids, i / batchSize * batchSize);
+                    conn.commit();
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void insertRecipes(Connection conn, int recipes, int[] chefIds, int[] ingredientIds, String[] ingredientNames,
+            ZipfSampler chefSampler, ZipfSampler ingredientSampler, SplittableRandom random) throws SQLException {
+        int offset = count(conn, "recipe");
+        int[][] recipeIngredients = new int[batchSize][];
+        int[] recipeIds = new int[batchSize];
+        String recipeSql = "INSERT INTO recipe(name, instructions, chef_id) VALUES (?,?,?)";
+        String ingredientSql = "INSERT INTO recipe_ingredient(recipe_id, ingredient_id, vol, unit) VALUES (?,?,?,?)";
+        long start = System.nanoTime();
+        try (PreparedStatement recipePs = conn.prepareStatement(recipeSql, Statement.RETURN_GENERATED_KEYS);
+                PreparedStatement ingredientPs = conn.prepareStatement(ingredientSql)) {
+            int inBatch = 0;
+            for (int i = 0; i < recipes; i++) {
+                int[] picked = pickIngredients(ingredientSampler, random);
+                recipeIngredients[inBatch++] = picked;
+                String main = ingredientNames[picked[0]];
+                String dish = DISHES[random.nextInt(DISHES.length)];
+                recipePs.setString(1, truncate(main + " " + dish + " " + (offset + i + 1), 100));
+                recipePs.setString(2, instructions(random, ingredientNames, picked));
+                recipePs.setInt(3, chefIds[chefSampler.next()]);
+                recipePs.addBatch();
+
+                if (inBatch == batchSize || i == recipes - 1) {
+                    recipePs.executeBatch();
+                    Arrays.fill(recipeIds, 0);
+                    readKeys(recipePs, recipeIds, 0);
+                    for (int r = 0; r < inBatch; r++) {
+                        for (int ingredient : recipeIngredients[r]) {
+                            ingredientPs.setInt(1, recipeIds[r]);
+                            ingredientPs.setInt(2, ingredientIds[ingredient]);
+                            ingredientPs.setDouble(3, 0.25 * (1 + random.nextInt(16)));
+                            ingredientPs.setString(4, UNITS[random.nextInt(UNITS.length)]);
+                            ingredientPs.addBatch();
+                        }
+                    }
+                    ingredientPs.executeBatch();
+                    conn.commit();
+                    inBatch = 0;
+                    if ((i + 1) % (batchSize * 20) == 0) {
+                        double seconds = (System.nanoTime() - start) / 1e9;
+                        logger.info("{} recipes written ({} per second)", i + 1, Math.round((i + 1) / seconds));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Picks 2 to 12 distinct ingredients, favouring the popular ones.
+     */
+    private int[] pickIngredients(ZipfSampler sampler, SplittableRandom random) {
+        int wanted = Math.min(sampler.size(), 2 + (int) Math.min(10, Math.abs(random.nextGaussian(3, 2.5))));
+        int[] picked = new int[wanted];
+        int found = 0;
+        for (int attempts = 0; found < wanted && attempts < wanted * 20; attempts++) {
+            int candidate = sampler.next();
+            boolean duplicate = false;
+            for (int j = 0; j < found && !duplicate; j++) {
+                duplicate = picked[j] == candidate;
+            }
+            if (!duplicate) {
+                picked[found++] = candidate;
+            }
+        }
+        return found == wanted ? picked : Arrays.copyOf(picked, found);
+    }
+
+    /**
+     * Writes a method of log-normally distributed length, median about 40 words.
+     */
+    private String instructions(SplittableRandom random, String[] ingredientNames, int[] picked) {
+        int words = (int) Math.max(6, Math.min(600, Math.exp(Math.log(40) + 0.7 * random.nextGaussian())));
+        StringBuilder text = new StringBuilder(words * 8);
+        int written = 0;
+        while (written < words) {
+            String technique = TECHNIQUES[random.nextInt(TECHNIQUES.length)];
+            text.append(Character.toUpperCase(technique.charAt(0))).append(technique, 1, technique.length())
+                    .append(" the ").append(ingredientNames[picked[random.nextInt(picked.length)]])
+                    .append(' ').append(CONNECTORS[random.nextInt(CONNECTORS.length)])
+                    .append(' ').append(TECHNIQUES[random.nextInt(TECHNIQUES.length)]).append(". ");
+            written += 6;
+        }
+        return text.toString().trim();
+    }
+
+    /**
+     * Names ingredients from food and variety lists, e.g. "smoked paprika", numbering them
+     * once every combination is used. Names stay within the 20 characters the column allows;
+     * names already in the database are skipped by the caller.
+     */
+    private static String ingredientName(int index) {
+        String food = FOODS[index % FOODS.length];
+        int round = index / FOODS.length;
+        String name = round < VARIETIES.length
+                ? VARIETIES[round] + food
+                : food + " " + (round - VARIETIES.length + 2);
+        return truncate(name, 20);
+    }
+
+    private static String truncate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+
+    private static int count(Connection conn, String table) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void readKeys(PreparedStatement ps, int[] ids, int from) throws SQLException {
+        try (ResultSet keys = ps.getGeneratedKeys()) {
+            for (int i = from; i < ids.length && keys.next(); i++) {
+                ids[i] = keys.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Draws ranks from a Zipf distribution, where rank k is chosen with probability
+     * proportional to 1 / k^exponent, by binary search over the cumulative distribution.
+     * Ranks are mapped through a seeded shuffle so the popular rows are not simply the first ids.
+     */
+    private static final class ZipfSampler {
+
+        private final double[] cumulative;
+        private final int[] rankToIndex;
+        private final SplittableRandom random;
+
+        ZipfSampler(int size, double exponent, SplittableRandom random) {
+            this.random = random;
+            this.cumulative = new double[size];
+            double total = 0;
+            for (int k = 0; k < size; k++) {
+                total += 1.0 / Math.pow(k + 1, exponent);
+                cumulative[k] = total;
+            }
+            for (int k = 0; k < size; k++) {
+                cumulative[k] /= total;
+            }
+            this.rankToIndex = new int[size];
+            for (int i = 0; i < size; i++) {
+                rankToIndex[i] = i;
+            }
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = rankToIndex[i];
+                rankToIndex[i] = rankToIndex[j];
+                rankToIndex[j] = swap;
+            }
+        }
+
+        int size() {
+            return cumulative.length;
+        }
+
+        int next() {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+            if (rank < 0) {
+                rank = -rank - 1;
+            }
+            return rankToIndex[Math.min(rank, cumulative.length - 1)];
+        }
+    }
+
+    /**
+     * Generates a catalog from the command line. Options are given as --name=value or
+     * --name value:
+     *
+     * --recipes (100000), --chefs (recipes / 50), --ingredients (2000), --seed (42),
+     * --batch (5000), --password (password), --url (the configured recipe.db.url), and
+     * --reset to clear the existing chefs, recipes and ingredients first.
+     *
+     * @param args the command line options
+     */
+    public static void main(String[] args) throws SQLException {
+        Map<String, String> options = parseOptions(args);
+        if (options.containsKey("url")) {
+            System.setProperty("recipe.db.url", options.get("url"));
+        }
+        int recipes = Integer.parseInt(options.getOrDefault("recipes", "100000"));
+        int chefs = Integer.parseInt(options.getOrDefault("chefs", String.valueOf(Math.max(10, recipes / 50))));
+        int ingredients = Integer.parseInt(options.getOrDefault("ingredients", "2000"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int batch = Integer.parseInt(options.getOrDefault("batch", "5000"));
+
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        new MigrationRunner(connectionUtil).migrate();
+        DataGenerator generator = new DataGenerator(connectionUtil, seed, batch);
+        if (options.containsKey("reset")) {
+            generator.reset();
+        }
+        generator.generate(chefs, ingredients, recipes, options.getOrDefault("password", "password"));
+        ConnectionUtil.getPool().close();
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String option = args[i].substring(2);
+            int equals = option.indexOf('=');
+            if (equals >= 0) {
+                options.put(option.substring(0, equals), option.substring(equals + 1));
+            } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                options.put(option, args[++i]);
+            } else {
+                options.put(option, "true");
+            }
+        }
+        return options;
+    }
+}
@@ -0,0 +1,394 @@
+package com.revature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.revature.util.AppContext;
+import com.revature.util.LatencyHistogram;
+import com.revature.util.MigrationRunner;
+
+import io.javalin.Javalin;
+
+/**
+ * The LoadDriver class puts the HTTP API under a repeatable, weighted mix of requests and
+ * reports throughput and latency percentiles per endpoint as JSON, for tracking trends
+ * between builds. Each request runs on its own virtual thread through java.net.http.HttpClient.
+ *
+ * By default the driver is closed-loop: a fixed number of virtual users each send a request,
+ * wait for the answer and send the next. With --rate it is open-loop instead: requests are
+ * started on a fixed schedule whether or not earlier ones have finished, and latency is
+ * measured from each request's scheduled start, so a stalled server shows up in the
+ * percentiles rather than silently slowing the senders down.
+ *
+ * Without --url the driver starts the application in-process on a free port, against the
+ * configured database. Recipes it creates are named "load-..." and are the only ones it deletes;
+ * any still left when the run ends are deleted before it returns.
+ */
+public class LoadDriver {
+
+    /** The requests the driver can send. */
+    public enum Operation {
+        /** POST /login */
+        LOGIN,
+        /** GET /recipes?term=...&amp;page=1 */
+        SEARCH,
+        /** GET /recipes?page=... */
+        PAGE,
+        /** GET /recipes/{id} */
+        GET,
+        /** POST /recipes */
+        CREATE,
+        /** DELETE /recipes/{id}, of a recipe the driver created */
+        DELETE
+    }
+
+    /** The mix used when none is given. */
+    public static final String DEFAULT_MIX = "login=5,search=20,page=20,get=40,create=10,delete=5";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final String[] TERMS = DataGenerator.TECHNIQUES;
+
+    private final String baseUrl;
+    private final Operation[] schedule;
+    private final String username;
+    private final String password;
+    private final HttpClient client;
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final ConcurrentLinkedQueue<Integer> created = new ConcurrentLinkedQueue<>();
+    private final AtomicLong createCounter = new AtomicLong();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private volatile String token;
+    private volatile int maxRecipeId = 1;
+    private volatile long measureFrom;
+
+    /**
+     * @param baseUrl  the server to drive, such as "http://localhost:8081"
+     * @param mix      the relative weight of each operation
+     * @param username the chef to log in as; deletes need an admin
+     * @param password that chef's password
+     */
+    public LoadDriver(String baseUrl, Map<Operation, Integer> mix, String username, String password) {
+        this.baseUrl = baseUrl;
+        this.schedule = expand(mix);
+        this.username = username;
+        this.password = password;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new Stats());
+        }
+    }
+
+    /**
+     * Parses a mix such as "get=40,search=20".
+     *
+     * @param mix comma separated operation=weight pairs
+     * @return the weight of each listed operation
+     * @throws IllegalArgumentException if an operation or weight is invalid
+     */
+    public static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Expected operation=weight but got " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + pair[0]);
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+        }
+        return weights;
+    }
+
+    /**
+     * Runs the load and reports on the measured part of it.
+     *
+     * @param concurrency the number of virtual users in closed-loop mode
+     * @param rate        requests per second to start in open-loop mode, or 0 for closed-loop
+     * @param warmup      how long to run before measuring
+     * @param duration    how long to measure
+     * @return the report, ready to be written as JSON
+     * @throws IOException if the driver cannot log in
+     */
+    public Map<String, Object> run(int concurrency, double rate, Duration warmup, Duration duration)
+            throws IOException, InterruptedException {
+        token = login();
+        if (token == null) {
+            throw new IOException("Could not log in as " + username);
+        }
+        maxRecipeId = findMaxRecipeId();
+
+        long start = System.nanoTime();
+        measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (rate > 0) {
+                long interval = (long) (1e9 / rate);
+                for (long intended = start; intended < end; intended += interval) {
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    long scheduled = intended;
+                    executor.submit(() -> execute(nextOperation(), scheduled));
+                }
+            } else {
+                for (int i = 0; i < concurrency; i++) {
+                    executor.submit(() -> {
+                        while (System.nanoTime() < end) {
+                            execute(nextOperation(), System.nanoTime());
+                        }
+                    });
+                }
+            }
+        }
+        Map<String, Object> report = report(concurrency, rate, warmup, Duration.ofNanos(System.nanoTime() - measureFrom));
+        removeCreatedRecipes();
+        return report;
+    }
+
+    /**
+     * Deletes the recipes the run created and did not delete, once measuring is over.
+     */
+    private void removeCreatedRecipes() throws IOException, InterruptedException {
+        for (Integer id = created.poll(); id != null; id = created.poll()) {
+            client.send(authorized("/recipes/" + id).DELETE().build(), HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    private Operation nextOperation() {
+        return schedule[ThreadLocalRandom.current().nextInt(schedule.length)];
+    }
+
+    /**
+     * Sends one request and records it if it started after the warm-up.
+     *
+     * @param operation the request to send
+     * @param startedAt when the request was meant to start, from System.nanoTime()
+     */
+    private void execute(Operation operation, long startedAt) {
+        boolean ok;
+        try {
+            ok = send(operation);
+        } catch (IOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (startedAt >= measureFrom) {
+            Stats s = stats.get(operation);
+            s.latency.record(System.nanoTime() - startedAt);
+            if (!ok) {
+                s.errors.increment();
+            }
+        }
+    }
+
+    private boolean send(Operation operation) throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case LOGIN:
+                return login() != null;
+            case SEARCH:
+                return get("/recipes?term=" + TERMS[random.nextInt(TERMS.length)] + "&page=1&pageSize=20") < 400;
+            case PAGE:
+                return get("/recipes?page=" + (1 + random.nextInt(Math.max(1, maxRecipeId / 20))) + "&pageSize=20") < 400;
+            case GET:
+                // ids may have gaps, so a 404 is an expected answer here
+                return get("/recipes/" + (1 + random.nextInt(maxRecipeId))) < 500;
+            case CREATE:
+                return create();
+            case DELETE:
+                Integer id = created.poll();
+                if (id == null) {
+                    return create();
+                }
+                HttpRequest delete = authorized("/recipes/" + id).DELETE().build();
+                return client.send(delete, HttpResponse.BodyHandlers.discarding()).statusCode() < 400;
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    private String login() throws IOException, InterruptedException {
+        String body = JSON.writeValueAsString(Map.of("username", username, "password", password));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200 ? response.body() : null;
+    }
+
+    private int get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private boolean create() throws IOException, InterruptedException {
+        String name = "load-" + runId + "-" + createCounter.incrementAndGet();
+        String body = JSON.writeValueAsString(Map.of("name", name,
+                "instructions", "Simmer the beans, then season and serve. Generated by the load driver."));
+        HttpRequest request = authorized("/recipes")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            return false;
+        }
+        created.add(JSON.readTree(response.body()).path("id").asInt());
+        return true;
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", "Bearer " + token);
+    }
+
+    private int findMaxRecipeId() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create(baseUrl + "/recipes?page=1&pageSize=1&sortBy=id&sortDirection=desc")).GET().build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        JsonNode items = JSON.readTree(response.body()).path("items");
+        return items.size() > 0 ? Math.max(1, items.get(0).path("id").asInt()) : 1;
+    }
+
+    private Map<String, Object> report(int concurrency, double rate, Duration warmup, Duration measured) {
+        double seconds = Math.max(1e-9, measured.toNanos() / 1e9);
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        long total = 0;
+        long errors = 0;
+        for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            long count = latency.getCount();
+            if (count == 0) {
+                continue;
+            }
+            total += count;
+            errors += entry.getValue().errors.sum();
+            Map<String, Object> percentiles = new LinkedHashMap<>();
+            percentiles.put("mean", millis(latency.getMean()));
+            percentiles.put("p50", millis(latency.getPercentile(50)));
+            percentiles.put("p95", millis(latency.getPercentile(95)));
+            percentiles.put("p99", millis(latency.getPercentile(99)));
+            percentiles.put("p999", millis(latency.getPercentile(99.9)));
+            percentiles.put("max", millis(latency.getMax()));
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("requests", count);
+            endpoint.put("errors", entry.getValue().errors.sum());
+            endpoint.put("throughput", Math.round(count / seconds * 10) / 10.0);
+            endpoint.put("latencyMs", percentiles);
+            endpoints.put(entry.getKey().name().toLowerCase(), endpoint);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("baseUrl", baseUrl);
+        report.put("mode", rate > 0 ? "open" : "closed");
+        report.put("concurrency", rate > 0 ? null : concurrency);
+        report.put("rate", rate > 0 ? rate : null);
+        report.put("warmupSeconds", warmup.toSeconds());
+        report.put("durationSeconds", Math.round(seconds * 1000) / 1000.0);
+        report.put("requests", total);
+        report.put("errors", errors);
+        report.put("throughput", Math.round(total / seconds * 10) / 10.0);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static double millis(double nanos) {
+        return Math.round(nanos / 1000.0) / 1000.0;
+    }
+
+    private static Operation[] expand(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                slots.add(entry.getKey());
+            }
+        }
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no operations");
+        }
+        return slots.toArray(new Operation[0]);
+    }
+
+    /** The measurements for one operation. */
+    private static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder errors = new LongAdder();
+    }
+
+    /**
+     * Drives load from the command line. Options are given as --name=value or --name value:
+     *
+     * --url (start the app in-process), --concurrency (64), --rate (0, closed-loop),
+     * --warmup seconds (5), --duration seconds (30), --mix (see {@link #DEFAULT_MIX}),
+     * --username (ChefTrevin), --password (trevature), and --out to write the JSON report to a
+     * file instead of standard output.
+     *
+     * @param args the command line options
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        Map<String, String> options = DataGenerator.parseOptions(args);
+        Javalin app = null;
+        String url = options.get("url");
+        if (url == null) {
+            AppContext context = new AppContext();
+            new MigrationRunner(context.getConnectionUtil()).migrate();
+            context.getRecipeService().warmUp();
+            app = context.getJavalinAppUtil().getApp().start(0);
+            url = "http://localhost:" + app.port();
+        }
+        try {
+            LoadDriver driver = new LoadDriver(url, parseMix(options.getOrDefault("mix", DEFAULT_MIX)),
+                    options.getOrDefault("username", "ChefTrevin"), options.getOrDefault("password", "trevature"));
+            Map<String, Object> report = driver.run(
+                    Integer.parseInt(options.getOrDefault("concurrency", "64")),
+                    Double.parseDouble(options.getOrDefault("rate", "0")),
+                    Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "5"))),
+                    Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30"))));
+            ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+            if (options.containsKey("out")) {
+                try (OutputStream out = Files.newOutputStream(Path.of(options.get("out")))) {
+                    mapper.writeValue(out, report);
+                }
+            } else {
+                System.out.println(mapper.writeValueAsString(report));
+            }
+        } finally {
+            if (app != null) {
+                app.stop();
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import io.javalin.http.Context;
 import com.revature.model.Chef;
 import com.revature.service.AuthenticationService;
 import com.revature.service.ChefService;
+import com.revature.util.SessionResolver;
 
 
 
@@ -39,6 +40,13 @@ public class AuthenticationController {
       this.authService = authService;  
     }
 
+    /**
+     * @return the authentication service this controller logs chefs in and out with
+     */
+    public AuthenticationService getAuthService() {
+        return authService;
+    }
+
     /**
      * TODO: Registers a new chef in the system.
      * 
@@ -61,14 +69,24 @@ public class AuthenticationController {
             ctx.result("Password is required");
             return;
         }
-         if(chefService.getChefByUsername(chef.getUsername()).isPresent()){
-            ctx.status(409);
-            ctx.result("Username already exists");
-            return;
+        switch (chefService.registerChef(chef)) {
+            case APPLIED:
+                ctx.status(201);
+                ctx.json(chef);
+                break;
+            case USERNAME_TAKEN:
+                ctx.status(409);
+                ctx.result("Username already exists");
+                break;
+            case EMAIL_TAKEN:
+                ctx.status(409);
+                ctx.result("Email already exists");
+                break;
+            default:
+                ctx.status(500);
+                ctx.result("Registration failed");
+                break;
         }
-        chefService.saveChef(chef);
-        ctx.status(201);
-        ctx.json(chef);
         
     }
 
@@ -125,7 +143,7 @@ public class AuthenticationController {
      * @param ctx the Javalin context, containing the Authorization token in the request header
      */
     public void logout(Context ctx) {
-        String token =extractToken(ctx.header("Authorization"));
+        String token =SessionResolver.extractToken(ctx.header("Authorization"));
 
         if(token==null|| !authService.isTokenValid(token)){
             ctx.status(401);
@@ -136,14 +154,6 @@ public class AuthenticationController {
         ctx.status(200);
         ctx.result("Logout successful")  ;  
         
-    }
-     private String extractToken(String header){
-        if( header == null) return null;
-        String h = header.trim();
-        if(h.regionMatches(true, 0, "Bearer ", 0, 7)){
-            return h.substring(7).trim();
-        }
-        return h;
     }
 
     /**
@@ -5,6 +5,9 @@ import io.javalin.http.Context;
 
 import com.revature.service.IngredientService;
 import com.revature.model.Ingredient;
+import com.revature.util.Config;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
 import com.revature.util.Page;
 
 import java.util.List;
@@ -20,6 +23,16 @@ import java.util.Optional;
 
 public class IngredientController {
 
+    /**
+     * The page size used for keyset pagination when the client does not give one.
+     */
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    /**
+     * The largest page returned; larger requested sizes are cut down to it.
+     */
+    private final int maxPageSize = Math.max(1, Config.getInt("recipe.http.maxPageSize", 100));
+
     /**
      * A service that manages ingredient-related operations.
      */
@@ -77,20 +90,29 @@ public class IngredientController {
      * TODO: Updates an existing ingredient by its ID.
      * 
      * If the ingredient exists, updates it and responds with a 204 No Content status. If not found, responds with a 404 Not Found status.
+     * If another ingredient already has the name, responds with a 409 Conflict status.
      *
      * @param ctx the Javalin context containing the request path parameter and updated ingredient data in the request body
      */
     public void updateIngredient(Context ctx) {
        int id= Integer.parseInt(ctx.pathParam("id"));
-        Optional<Ingredient> existing = ingredientService.findIngredient(id);
-        if(existing.isEmpty()){
-            ctx.status(404);
-            return;
-        }
         Ingredient updated = ctx.bodyAsClass(Ingredient.class);
         updated.setId(id);
-        ingredientService.saveIngredient(updated);
-        ctx.status(204); 
+        switch (ingredientService.updateIngredient(updated)) {
+            case APPLIED:
+                ctx.status(204);
+                break;
+            case NOT_FOUND:
+                ctx.status(404);
+                break;
+            case CONFLICT:
+                ctx.status(409);
+                ctx.result("Ingredient name already exists");
+                break;
+            default:
+                ctx.status(500);
+                break;
+        }
     }
 
     /**
@@ -124,6 +146,29 @@ public class IngredientController {
         String sortDirection = ctx.queryParam("sortDirection");
         Integer page = tryParseInt(ctx.queryParam("page"));
         Integer pageSize = tryParseInt(ctx.queryParam("pageSize"));
+        if (pageSize != null && pageSize > maxPageSize) {
+            pageSize = maxPageSize;
+        }
+        String after = ctx.queryParam("after");
+
+        // keyset pagination: an empty "after" requests the first page
+        if (after != null) {
+            Cursor cursor;
+            try {
+                cursor = Cursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                ctx.status(400);
+                ctx.result("Invalid cursor");
+                return;
+            }
+
+            CursorPage<Ingredient> ingredientPage = ingredientService.scrollIngredients(term, cursor,
+                    pageSize != null ? pageSize : DEFAULT_PAGE_SIZE, sortBy, sortDirection);
+
+            ctx.status(200);
+            ctx.json(ingredientPage);
+            return;
+        }
 
         boolean hasPaging =(page != null && pageSize != null );
 
@@ -0,0 +1,85 @@
+package com.revature.controller;
+
+import io.javalin.Javalin;
+import io.javalin.http.Context;
+
+import com.revature.util.MetricsRegistry;
+
+/**
+ * The MetricsController class times every request through a before and an after handler and
+ * serves the collected metrics in the Prometheus text format at GET /metrics.
+ *
+ * Its handlers must be registered before any other before handler, so that the time spent
+ * in middleware, such as session checks, is part of the measured request.
+ */
+public class MetricsController {
+
+    /** The request attribute holding the System.nanoTime() at which the request started. */
+    private static final String START_ATTRIBUTE = "metrics.start";
+
+    private final MetricsRegistry metricsRegistry;
+
+    /**
+     * @param metricsRegistry the registry requests are recorded in and read from
+     */
+    public MetricsController(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Notes the request's start time.
+     *
+     * @param ctx the Javalin context of the incoming request
+     */
+    public void startTimer(Context ctx) {
+        ctx.attribute(START_ATTRIBUTE, System.nanoTime());
+        metricsRegistry.requestStarted();
+    }
+
+    /**
+     * Records the request against its route template and response status.
+     *
+     * @param ctx the Javalin context of the completed request
+     */
+    public void recordRequest(Context ctx) {
+        Long start = ctx.attribute(START_ATTRIBUTE);
+        if (start == null) {
+            return;
+        }
+        metricsRegistry.requestFinished(ctx.method(), matchedRoute(ctx), ctx.statusCode(), System.nanoTime() - start);
+    }
+
+    /**
+     * Responds with the metrics in the Prometheus text format.
+     *
+     * @param ctx the Javalin context of the scrape request
+     */
+    public void getMetrics(Context ctx) {
+        ctx.contentType(MetricsRegistry.CONTENT_TYPE);
+        ctx.result(metricsRegistry.scrape());
+    }
+
+    /**
+     * @return the template of the endpoint that handled the request, or null if none matched;
+     *         for unmatched requests Javalin reports a message here instead of a path
+     */
+    private static String matchedRoute(Context ctx) {
+        String route = ctx.endpointHandlerPath();
+        return route.startsWith("/") ? route : null;
+    }
+
+    /**
+     * Registers the timing handlers and the metrics endpoint.
+     *
+     * @param app the Javalin application to configure
+     */
+    public void configureRoutes(Javalin app) {
+        app.before(this::startTimer);
+        app.after(this::recordRequest);
+        app.get("/metrics", this::getMetrics);
+    }
+}
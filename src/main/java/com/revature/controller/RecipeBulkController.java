@@ -0,0 +1,107 @@
+package com.revature.controller;
+
+import io.javalin.Javalin;
+import io.javalin.http.Handler;
+
+import java.io.IOException;
+
+import org.eclipse.jetty.server.Request;
+
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+import com.revature.service.RecipeImportService;
+import com.revature.service.RecipeService;
+import com.revature.util.BulkImportResult;
+import com.revature.util.RecipeExportWriter;
+import com.revature.util.SessionResolver;
+
+/**
+ * The RecipeBulkController class provides the endpoints that move many recipes at once.
+ * Its routes are registered ahead of RecipeController's so that fixed paths such as
+ * "/recipes/bulk" are not taken for a recipe id.
+ */
+public class RecipeBulkController {
+
+    private RecipeImportService importService;
+
+    private RecipeService recipeService;
+
+    private AuthenticationService authService;
+
+    /**
+     * @param importService the service performing bulk imports
+     * @param recipeService the service streaming recipes for export
+     * @param authService   the service holding the logged in sessions
+     */
+    public RecipeBulkController(RecipeImportService importService, RecipeService recipeService, AuthenticationService authService) {
+        this.importService = importService;
+        this.recipeService = recipeService;
+        this.authService = authService;
+    }
+
+    /**
+     * Imports recipes from a JSON array or newline-delimited JSON in the request body. The
+     * body is parsed as it arrives, and rows that fail are reported without stopping the
+     * import.
+     */
+    public Handler importRecipes = ctx -> {
+        Chef chef = SessionResolver.resolveChef(ctx, authService);
+        if (chef == null) {
+            ctx.status(401);
+            ctx.result("Invalid or missing token");
+            return;
+        }
+        BulkImportResult result = importService.importRecipes(ctx.bodyInputStream(), chef);
+        ctx.status(200);
+        ctx.json(result);
+    };
+
+    /**
+     * Exports recipes as newline-delimited JSON, or as CSV with "format=csv", optionally
+     * filtered by "term" as in the recipe search. Rows are written to the response as they
+     * are read, so the export never holds the catalog in memory.
+     *
+     * If the export fails before any of it has been sent, the failure is answered as usual.
+     * Once the 200 has gone out, the connection is aborted instead of ending the body, so the
+     * client sees an incomplete response rather than a complete but truncated export.
+     */
+    public Handler exportRecipes = ctx -> {
+        String term = ctx.queryParam("term");
+        if (term == null) {
+            term = ctx.queryParam("name");
+        }
+        RecipeExportWriter.Format format;
+        try {
+            format = RecipeExportWriter.Format.of(ctx.queryParam("format"));
+        } catch (IllegalArgumentException e) {
+            ctx.status(400);
+            ctx.result(e.getMessage());
+            return;
+        }
+        ctx.status(200);
+        ctx.contentType(format.getContentType());
+        ctx.header("Content-Disposition", "attachment; filename=\"recipes." + format.name().toLowerCase() + "\"");
+        try {
+            RecipeExportWriter writer = new RecipeExportWriter(format, ctx.outputStream());
+            recipeService.exportRecipes(term, writer);
+            writer.close();
+        } catch (IOException | RuntimeException e) {
+            if (!ctx.res().isCommitted()) {
+                ctx.res().resetBuffer();
+                throw e;
+            }
+            e.printStackTrace();
+            Request.getBaseRequest(ctx.req()).getHttpChannel().abort(e);
+        }
+    };
+
+    /**
+     * Configure the routes for bulk recipe operations.
+     *
+     * @param app the Javalin application
+     */
+    public void configureRoutes(Javalin app) {
+        app.post("/recipes/bulk", importRecipes);
+        app.get("/recipes/export", exportRecipes);
+    }
+}
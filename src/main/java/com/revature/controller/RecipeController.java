@@ -2,15 +2,27 @@ package com.revature.controller;
 
 import io.javalin.http.Handler;
 import io.javalin.Javalin;
+import io.javalin.http.ContentType;
 import io.javalin.http.Context;
+import io.javalin.http.Header;
+import io.javalin.json.JsonMapper;
+import io.javalin.json.JsonMapperKt;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import com.revature.model.Chef;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeSummary;
 import com.revature.service.AuthenticationService;
 import com.revature.service.RecipeService;
+import com.revature.util.Config;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
 import com.revature.util.Page;
+import com.revature.util.RecipeJsonCache;
+import com.revature.util.SessionResolver;
 
 
 /**
@@ -19,42 +31,196 @@ import com.revature.util.Page;
  */
 public class RecipeController {
 
+    /** The page size used for keyset pagination when the client does not give one. */
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    /** The largest page or search result returned; larger requested sizes are cut down to it. */
+    private final int maxPageSize = Math.max(1, Config.getInt("recipe.http.maxPageSize", 100));
+
     private RecipeService recipeService;
 
     private AuthenticationService authService;
 
+    /** Serialized recipes served by fetchRecipeById, or null when response caching is off. */
+    private RecipeJsonCache responseCache;
+
 
     public RecipeController(RecipeService recipeService, AuthenticationService authService) {
+        this(recipeService, authService, RecipeJsonCache.fromConfig());
+    }
+
+
+    /**
+     * @param recipeService the service for recipe operations
+     * @param authService   the service holding the logged in sessions
+     * @param responseCache the cache of serialized recipes, or null to serialize every response
+     */
+    public RecipeController(RecipeService recipeService, AuthenticationService authService, RecipeJsonCache responseCache) {
         this.recipeService = recipeService;
         this.authService = authService;
+        this.responseCache = responseCache;
+        if(responseCache != null){
+            recipeService.addChangeListener(responseCache);
+        }
     }
 
 
     /**
      * Get all recipes with optional search, pagination and sorting.
+     *
+     * Lists are made of RecipeSummary objects, which leave out the instructions. Full recipes
+     * are returned with view=full, or with include=ingredients since only full recipes carry
+     * their ingredient lists.
      */
     public Handler fetchAllRecipes = ctx -> {
 
+        boolean full = isFullView(ctx);
+
         String term = ctx.queryParam("term");
 
 String name = ctx.queryParam("name");
-String ingredient = ctx.queryParam("ingredient");
 
 // support old test params
-if(term == null){
-    if(name != null){
-        term = name;
-    }
-    else if(ingredient != null){
-        term = ingredient;
-    }
+if(term == null && name != null){
+    term = name;
 }
 
 String sortBy = ctx.queryParam("sortBy");
 String sortDirection = ctx.queryParam("sortDirection");
 
         Integer page = tryParseInt(ctx.queryParam("page"));
-        Integer pageSize = tryParseInt(ctx.queryParam("pageSize"));
+        Integer pageSize = capPageSize(tryParseInt(ctx.queryParam("pageSize")));
+        String after = ctx.queryParam("after");
+
+
+        // ingredient searches through the ingredient index
+        List<String> pantry = splitParams(ctx.queryParams("pantry"));
+        List<String> withIngredients = splitParams(ctx.queryParams("ingredient"));
+        List<String> withoutIngredients = splitParams(ctx.queryParams("excludeIngredient"));
+
+        if(!pantry.isEmpty() || !withIngredients.isEmpty() || !withoutIngredients.isEmpty()){
+
+            int limit = pageSize != null ? pageSize : DEFAULT_PAGE_SIZE;
+            List<?> found;
+
+            if(!pantry.isEmpty()){
+
+                found = full
+                        ? recipeService.searchRecipesByPantry(pantry, limit)
+                        : recipeService.searchRecipeSummariesByPantry(pantry, limit);
+
+            }
+            else if(!withIngredients.isEmpty()){
+
+                found = full
+                        ? recipeService.searchRecipesByIngredients(withIngredients, withoutIngredients, limit)
+                        : recipeService.searchRecipeSummariesByIngredients(withIngredients, withoutIngredients, limit);
+
+            }
+            else{
+
+                ctx.status(400);
+                ctx.result("At least one ingredient is required");
+                return;
+
+            }
+
+
+            if(found.isEmpty()){
+
+                ctx.status(404);
+                ctx.result("No recipes found");
+
+            }
+            else{
+
+                includeIngredients(ctx, found);
+                ctx.status(200);
+                ctx.json(found);
+
+            }
+            return;
+        }
+
+
+        // indexed full-text search, ranked by relevance
+        if("fulltext".equalsIgnoreCase(ctx.queryParam("mode"))){
+
+            if(term == null || term.isBlank()){
+
+                ctx.status(400);
+                ctx.result("Search term is required");
+                return;
+
+            }
+
+
+            int limit = pageSize != null ? pageSize : DEFAULT_PAGE_SIZE;
+
+            List<?> ranked = full
+                    ? recipeService.searchRecipesFullText(term, limit)
+                    : recipeService.searchRecipeSummariesFullText(term, limit);
+
+
+            if(ranked.isEmpty()){
+
+                ctx.status(404);
+                ctx.result("No recipes found");
+
+            }
+            else{
+
+                includeIngredients(ctx, ranked);
+                ctx.status(200);
+                ctx.json(ranked);
+
+            }
+            return;
+        }
+
+
+        // keyset pagination: an empty "after" requests the first page
+        if(after != null){
+
+            Cursor cursor;
+
+            try{
+
+                cursor = Cursor.decode(after);
+
+            }
+            catch(IllegalArgumentException e){
+
+                ctx.status(400);
+                ctx.result("Invalid cursor");
+                return;
+
+            }
+
+
+            int limit = pageSize != null ? pageSize : DEFAULT_PAGE_SIZE;
+
+            if(full){
+
+                CursorPage<Recipe> result =
+                        recipeService.scrollRecipes(term, cursor, limit, sortBy, sortDirection);
+
+                includeIngredients(ctx, result.getItems());
+                ctx.status(200);
+                ctx.json(result);
+
+            }
+            else{
+
+                CursorPage<RecipeSummary> result =
+                        recipeService.scrollRecipeSummaries(term, cursor, limit, sortBy, sortDirection);
+
+                ctx.status(200);
+                ctx.json(result);
+
+            }
+            return;
+        }
 
 
         boolean hasPaging = page != null && pageSize != null;
@@ -74,34 +240,53 @@ String sortDirection = ctx.queryParam("sortDirection");
                     : "asc";
 
 
-            Page<Recipe> result =
-                    recipeService.searchRecipes(
-                            term,
-                            page,
-                            pageSize,
-                            effectiveSortBy,
-                            effectiveSortDirection
-                    );
+            if(full){
 
+                Page<Recipe> result =
+                        recipeService.searchRecipes(
+                                term,
+                                page,
+                                pageSize,
+                                effectiveSortBy,
+                                effectiveSortDirection
+                        );
 
-            ctx.status(200);
-            ctx.json(result);
+                includeIngredients(ctx, result.getItems());
+                ctx.status(200);
+                ctx.json(result);
+
+            }
+            else{
+
+                Page<RecipeSummary> result =
+                        recipeService.searchRecipeSummaries(
+                                term,
+                                page,
+                                pageSize,
+                                effectiveSortBy,
+                                effectiveSortDirection
+                        );
+
+                ctx.status(200);
+                ctx.json(result);
+
+            }
             return;
         }
 
 
 
-        List<Recipe> recipes;
+        List<?> recipes;
 
 
-        if(term != null){
+        if(full){
 
             recipes = recipeService.searchRecipes(term);
 
         }
         else{
 
-            recipes = recipeService.searchRecipes(null);
+            recipes = recipeService.searchRecipeSummaries(term);
 
         }
 
@@ -115,6 +300,7 @@ String sortDirection = ctx.queryParam("sortDirection");
         }
         else{
 
+            includeIngredients(ctx, recipes);
             ctx.status(200);
             ctx.json(recipes);
 
@@ -124,6 +310,77 @@ String sortDirection = ctx.queryParam("sortDirection");
 
 
 
+    /**
+     * Whether a list request asked for full recipes rather than summaries.
+     */
+    private boolean isFullView(Context ctx){
+
+        return "full".equalsIgnoreCase(ctx.queryParam("view"))
+                || "ingredients".equalsIgnoreCase(ctx.queryParam("include"));
+
+    }
+
+
+
+    /**
+     * Fills in the ingredient lists of the recipes being returned when the client asks for
+     * them with include=ingredients, using one query for the whole list. Summaries carry no
+     * ingredient lists, so other lists are left alone.
+     */
+    @SuppressWarnings("unchecked")
+    private void includeIngredients(Context ctx, List<?> recipes){
+
+        if("ingredients".equalsIgnoreCase(ctx.queryParam("include")) && recipes != null
+                && !recipes.isEmpty() && recipes.get(0) instanceof Recipe){
+
+            recipeService.loadIngredients((List<Recipe>) recipes);
+
+        }
+
+    }
+
+
+
+    /**
+     * Collects the values of a repeatable query parameter, also splitting comma-separated
+     * values, so both ?ingredient=a&ingredient=b and ?ingredient=a,b work.
+     */
+    private List<String> splitParams(List<String> values){
+
+        List<String> result = new ArrayList<>();
+
+        if(values == null)
+            return result;
+
+        for(String value : values){
+
+            for(String part : value.split(",")){
+
+                if(!part.isBlank()){
+                    result.add(part.trim());
+                }
+
+            }
+
+        }
+
+        return result;
+
+    }
+
+
+
+    private Integer capPageSize(Integer pageSize){
+
+        if(pageSize != null && pageSize > maxPageSize){
+            return maxPageSize;
+        }
+        return pageSize;
+
+    }
+
+
+
     private Integer tryParseInt(String value){
 
         if(value == null)
@@ -154,49 +411,68 @@ String sortDirection = ctx.queryParam("sortDirection");
         int id = Integer.parseInt(ctx.pathParam("id"));
 
 
-        Optional<Recipe> recipe =
-                recipeService.findRecipe(id);
+        boolean withIngredients =
+                "ingredients".equalsIgnoreCase(ctx.queryParam("include"));
 
 
+        // serve cached JSON, or nothing at all if the client's copy is current
+        if(responseCache != null && !withIngredients){
 
-        if(recipe.isPresent()){
+            JsonMapper jsonMapper = JsonMapperKt.jsonMapper(ctx);
 
-            ctx.status(200);
-            ctx.json(recipe.get());
+            RecipeJsonCache.Entry entry =
+                    responseCache.get(id, key ->
+                            recipeService.findRecipe(key)
+                                    .map(found -> jsonMapper.toJsonString(found, Recipe.class))
+                                    .orElse(null));
 
-        }
-        else{
 
-            ctx.status(404);
-            ctx.result("Recipe not found");
+            if(entry == null){
 
-        }
+                ctx.status(404);
+                ctx.result("Recipe not found");
+                return;
 
-    };
+            }
 
 
+            ctx.header(Header.ETAG, entry.getEtag());
 
+            if(entry.matches(ctx.header(Header.IF_NONE_MATCH))){
 
-    private String extractToken(String header){
+                ctx.status(304);
+                return;
 
-        if(header == null)
-            return null;
+            }
 
 
-        String value = header.trim();
+            ctx.status(200);
+            ctx.contentType(ContentType.APPLICATION_JSON);
+            ctx.result(entry.getJson());
+            return;
+        }
 
 
-        if(value.regionMatches(true,0,"Bearer ",0,7)){
+        Optional<Recipe> recipe =
+                recipeService.findRecipe(id);
 
-            return value.substring(7).trim();
 
-        }
 
+        if(recipe.isPresent()){
 
-        return value;
+            includeIngredients(ctx, List.of(recipe.get()));
+            ctx.status(200);
+            ctx.json(recipe.get());
 
-    }
+        }
+        else{
+
+            ctx.status(404);
+            ctx.result("Recipe not found");
 
+        }
+
+    };
 
 
 
@@ -207,11 +483,11 @@ String sortDirection = ctx.queryParam("sortDirection");
     public Handler createRecipe = ctx -> {
 
 
-    String token =
-            extractToken(ctx.header("Authorization"));
+    Chef chef =
+            SessionResolver.resolveChef(ctx, authService);
 
 
-    if(token == null || !authService.isTokenValid(token)){
+    if(chef == null){
 
         ctx.status(401);
         ctx.result("Invalid or missing token");
@@ -225,16 +501,23 @@ String sortDirection = ctx.queryParam("sortDirection");
 
 
     // Attach logged-in chef as recipe author
-    recipe.setAuthor(
-            authService.getChefFromSessionToken(token)
-    );
-
-
-    recipeService.createRecipe(recipe);
-
-
-    ctx.status(201);
-    ctx.json(recipe);
+    recipe.setAuthor(chef);
+
+
+    switch (recipeService.createRecipe(recipe)) {
+        case APPLIED:
+            ctx.status(201);
+            ctx.json(recipe);
+            break;
+        case CONFLICT:
+            ctx.status(409);
+            ctx.result("Recipe name already exists");
+            break;
+        default:
+            ctx.status(500);
+            ctx.result("Recipe could not be saved");
+            break;
+    }
 
 };
 
@@ -301,22 +584,33 @@ String sortDirection = ctx.queryParam("sortDirection");
 
 
 
-        Optional<Recipe> updated =
-                recipeService.updateRecipe(id, recipe);
-
-
+        if(recipe.getAuthor() == null){
 
-        if(updated.isPresent()){
-
-            ctx.status(200);
-            ctx.json(updated.get());
+            ctx.status(400);
+            ctx.result("Recipe author is required");
+            return;
 
         }
-        else{
 
-            ctx.status(404);
-            ctx.result("Recipe not found");
 
+
+        switch (recipeService.updateRecipe(id, recipe)) {
+            case APPLIED:
+                ctx.status(200);
+                ctx.json(recipe);
+                break;
+            case NOT_FOUND:
+                ctx.status(404);
+                ctx.result("Recipe not found");
+                break;
+            case CONFLICT:
+                ctx.status(409);
+                ctx.result("Recipe author does not exist");
+                break;
+            default:
+                ctx.status(500);
+                ctx.result("Recipe could not be saved");
+                break;
         }
 
     };
@@ -389,4 +683,4 @@ String sortDirection = ctx.queryParam("sortDirection");
 
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package com.revature.dao;
+
+import java.util.concurrent.TimeUnit;
+
+import com.revature.model.Chef;
+import com.revature.util.Config;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.TransactionManager;
+import com.revature.util.TtlCache;
+
+/**
+ * The CachingChefDAO class adds a read-through cache to the chef lookups by id and by
+ * username, which run on every login and rarely see a changed row. Writes made through this
+ * DAO invalidate the affected entries, both before the write and once it has committed, so a
+ * lookup that reads the old row while the write's transaction is open does not keep it
+ * cached. Writes made elsewhere become visible when the cached entries expire.
+ *
+ * Callers receive copies of the cached chefs, so a caller changing a chef it was given
+ * cannot alter what other callers see.
+ */
+public class CachingChefDAO extends ChefDAO {
+
+    private final TtlCache<Integer, Chef> byId;
+    private final TtlCache<String, Chef> byUsername;
+
+    /**
+     * @param connectionUtil the source of database connections
+     * @param maxSize        the maximum number of chefs held by each cache
+     * @param ttlMillis      how long a cached chef stays valid
+     */
+    public CachingChefDAO(ConnectionUtil connectionUtil, int maxSize, long ttlMillis) {
+        super(connectionUtil);
+        this.byId = new TtlCache<>(maxSize, ttlMillis);
+        this.byUsername = new TtlCache<>(maxSize, ttlMillis);
+    }
+
+    /**
+     * Creates a ChefDAO as configured by "recipe.cache.chefs.*": a CachingChefDAO when
+     * enabled, which is the default, or a plain ChefDAO otherwise.
+     *
+     * @param connectionUtil the source of database connections
+     * @return the configured DAO
+     */
+    public static ChefDAO fromConfig(ConnectionUtil connectionUtil) {
+        if (!Config.getBoolean("recipe.cache.chefs.enabled", true)) {
+            return new ChefDAO(connectionUtil);
+        }
+        return new CachingChefDAO(connectionUtil,
+                Config.getInt("recipe.cache.chefs.maxSize", 10_000),
+                TimeUnit.SECONDS.toMillis(Config.getLong("recipe.cache.chefs.ttlSeconds", 300)));
+    }
+
+    @Override
+    public Chef getChefById(int id) {
+        return copy(byId.get(id, super::getChefById));
+    }
+
+    @Override
+    public Chef getChefByUsername(String username) {
+        return copy(byUsername.get(username, super::getChefByUsername));
+    }
+
+    @Override
+    public int createChef(Chef chef) {
+        int id = super.createChef(chef);
+        invalidateUsername(chef.getUsername());
+        return id;
+    }
+
+    @Override
+    public RegistrationResult createChefIfAbsent(Chef chef) {
+        RegistrationResult result = super.createChefIfAbsent(chef);
+        invalidateUsername(chef.getUsername());
+        return result;
+    }
+
+    @Override
+    public void updateChef(Chef chef) {
+        dropChef(chef.getId());
+        super.updateChef(chef);
+        TransactionManager.afterTransaction(() -> dropChef(chef.getId()));
+    }
+
+    @Override
+    public void deleteChef(Chef chef) {
+        dropChef(chef.getId());
+        super.deleteChef(chef);
+        TransactionManager.afterTransaction(() -> dropChef(chef.getId()));
+    }
+
+    /**
+     * @return the cache of chefs by id, for its hit, miss and eviction counts
+     */
+    public TtlCache<Integer, Chef> getIdCache() {
+        return byId;
+    }
+
+    /**
+     * @return the cache of chefs by username, for its hit, miss and eviction counts
+     */
+    public TtlCache<String, Chef> getUsernameCache() {
+        return byUsername;
+    }
+
+    private void invalidateUsername(String username) {
+        TransactionManager.afterTransaction(() -> byUsername.invalidate(username));
+    }
+
+    /**
+     * Drops a chef from both caches. The old username is unknown here, and chef updates are
+     * rare, so every username goes.
+     */
+    private void dropChef(int id) {
+        byId.invalidate(id);
+        byUsername.invalidateAll();
+    }
+
+    private Chef copy(Chef chef) {
+        if (chef == null) {
+            return null;
+        }
+        return new Chef(chef.getId(), chef.getUsername(), chef.getEmail(), chef.getPassword(), chef.isAdmin());
+    }
+}
@@ -1,12 +1,15 @@
 package com.revature.dao;
 
 import com.revature.util.ConnectionUtil;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 import com.revature.model.Chef;
 
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Locale;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
@@ -32,7 +35,7 @@ public class ChefDAO {
      */
     public List<Chef> getAllChefs() {
 
-        String sql = "SELECT * FROM CHEF ORDER BY id";
+        String sql = SqlTemplates.CHEF_ALL;
 
         try (Connection conn = connectionUtil.getConnection();
              Statement stmt = conn.createStatement();
@@ -52,7 +55,7 @@ public class ChefDAO {
      */
     public Page<Chef> getAllChefs(PageOptions pageOptions) {
 
-        String sql = "SELECT * FROM CHEF ORDER BY id";
+        String sql = SqlTemplates.CHEF_ALL;
 
         try (Connection conn = connectionUtil.getConnection();
              Statement stmt = conn.createStatement();
@@ -73,7 +76,7 @@ public class ChefDAO {
      */
     public Chef getChefById(int id) {
 
-        String sql = "SELECT * FROM chef WHERE id=?";
+        String sql = SqlTemplates.CHEF_BY_ID;
 
 
         try (Connection conn = connectionUtil.getConnection();
@@ -109,7 +112,7 @@ public class ChefDAO {
     public Chef getChefByUsername(String username) {
 
 
-        String sql = "SELECT * FROM chef WHERE username=?";
+        String sql = SqlTemplates.CHEF_BY_USERNAME;
 
 
         try (Connection conn = connectionUtil.getConnection();
@@ -146,8 +149,7 @@ public class ChefDAO {
     public int createChef(Chef chef) {
 
 
-        String sql =
-                "INSERT INTO chef(username,email,password,is_admin) VALUES(?,?,?,?)";
+        String sql = SqlTemplates.CHEF_INSERT;
 
 
         try(Connection conn = connectionUtil.getConnection();
@@ -191,14 +193,81 @@ public class ChefDAO {
 
 
 
+    /**
+     * Creates a chef unless the username or email is taken, in one statement: a taken value
+     * is reported by the unique constraint on it rather than looked up first.
+     *
+     * @param chef the chef to create; its id is set when it is created
+     * @return APPLIED, USERNAME_TAKEN or EMAIL_TAKEN if another chef already has the
+     *         username or email, or FAILED
+     */
+    public RegistrationResult createChefIfAbsent(Chef chef) {
+
+
+        String sql = SqlTemplates.CHEF_INSERT;
+
+
+        try(Connection conn = connectionUtil.getConnection();
+            PreparedStatement ps =
+                    conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+
+            ps.setString(1, chef.getUsername());
+            ps.setString(2, chef.getEmail());
+            ps.setString(3, chef.getPassword());
+            ps.setBoolean(4, chef.isAdmin());
+
+
+            ps.executeUpdate();
+
+
+            try(ResultSet rs = ps.getGeneratedKeys()) {
+
+                if(rs.next()) {
+
+                    chef.setId(rs.getInt(1));
+
+                }
+
+            }
+
+
+            return RegistrationResult.APPLIED;
+
+
+        } catch(SQLException e) {
+
+            if (WriteResult.of(e) != WriteResult.CONFLICT) {
+                return RegistrationResult.FAILED;
+            }
+            return violatesUniqueEmail(e) ? RegistrationResult.EMAIL_TAKEN : RegistrationResult.USERNAME_TAKEN;
+
+        }
+
+    }
+
+    /**
+     * Tells whether a unique violation on CHEF was raised by the constraint on email. The
+     * schema leaves the constraints unnamed, so H2 generates their names; the violated
+     * constraint is instead recognised by the index it reports, such as
+     * "PUBLIC.CONSTRAINT_INDEX_3 ON PUBLIC.CHEF(EMAIL NULLS FIRST)".
+     */
+    private static boolean violatesUniqueEmail(SQLException e) {
+        String message = e.getMessage();
+        return message != null && message.toUpperCase(Locale.ROOT).contains("CHEF(EMAIL");
+    }
+
+
+
+
+
     /**
      * Updates chef.
      */
     public void updateChef(Chef chef) {
 
 
-        String sql =
-                "UPDATE chef SET username=?, email=?, password=?, is_admin=? WHERE id=?";
+        String sql = SqlTemplates.CHEF_UPDATE;
 
 
         try(Connection conn = connectionUtil.getConnection();
@@ -233,7 +302,7 @@ public class ChefDAO {
     public void deleteChef(Chef chef) {
 
 
-        String sql = "DELETE FROM chef WHERE id=?";
+        String sql = SqlTemplates.CHEF_DELETE;
 
 
         try(Connection conn = connectionUtil.getConnection();
@@ -263,8 +332,7 @@ public class ChefDAO {
     public List<Chef> searchChefsByTerm(String term) {
 
 
-        String sql =
-                "SELECT * FROM chef WHERE LOWER(username) LIKE LOWER(?)";
+        String sql = SqlTemplates.CHEF_SEARCH;
 
 
         try(Connection conn = connectionUtil.getConnection();
@@ -303,8 +371,7 @@ public class ChefDAO {
     public Page<Chef> searchChefsByTerm(String term, PageOptions pageOptions) {
 
 
-        String sql =
-                "SELECT * FROM chef WHERE LOWER(username) LIKE LOWER(?)";
+        String sql = SqlTemplates.CHEF_SEARCH;
 
 
         try(Connection conn = connectionUtil.getConnection();
@@ -336,6 +403,146 @@ public class ChefDAO {
 
 
 
+    /**
+     * Retrieves the page of chefs following a cursor, using keyset (seek) pagination.
+     */
+    public CursorPage<Chef> getAllChefs(PageOptions pageOptions, Cursor after) {
+
+        return seekChefs(null, pageOptions, after);
+
+    }
+
+
+
+
+
+    /**
+     * Search chefs with keyset (seek) pagination.
+     */
+    public CursorPage<Chef> searchChefsByTerm(String term, PageOptions pageOptions, Cursor after) {
+
+        return seekChefs(term, pageOptions, after);
+
+    }
+
+
+
+
+
+    private CursorPage<Chef> seekChefs(String term, PageOptions pageOptions, Cursor after) {
+
+
+        int size = Math.max(1, pageOptions.getPageSize());
+
+
+        String orderCol =
+                resolveOrderBy(after != null ? after.getSortBy() : pageOptions.getSortBy());
+
+
+        String direction =
+                resolveDirection(after != null ? after.getSortDirection() : pageOptions.getSortDirection());
+
+
+        String sql =
+                SqlTemplates.chefSeek(term != null, after != null).get(orderCol, direction);
+
+
+        try(Connection conn = connectionUtil.getConnection();
+            PreparedStatement ps = conn.prepareStatement(sql)) {
+
+
+            int index = 1;
+
+
+            if(term != null) {
+                ps.setString(index++, "%" + term + "%");
+            }
+
+
+            if(after != null) {
+                index = after.bind(ps, index, orderCol, "id");
+            }
+
+
+            ps.setInt(index, size + 1);
+
+
+            try(ResultSet rs = ps.executeQuery()) {
+
+
+                List<Chef> chefs = mapRows(rs);
+
+
+                String next = null;
+
+
+                if(chefs.size() > size) {
+
+                    chefs = new ArrayList<>(chefs.subList(0, size));
+
+                    Chef last = chefs.get(size - 1);
+
+                    String value = orderCol.equals("username")
+                            ? last.getUsername()
+                            : String.valueOf(last.getId());
+
+                    next = new Cursor(orderCol, direction, value, last.getId()).encode();
+
+                }
+
+
+                return new CursorPage<>(size, next, chefs);
+
+            }
+
+
+        } catch(SQLException e) {
+
+            e.printStackTrace();
+
+        }
+
+
+        return new CursorPage<>(size, null, new ArrayList<>());
+
+    }
+
+
+
+
+
+    private String resolveOrderBy(String sortBy) {
+
+
+        if(sortBy != null && sortBy.equalsIgnoreCase("username")) {
+            return "username";
+        }
+
+
+        return "id";
+
+    }
+
+
+
+
+
+    private String resolveDirection(String sortDirection) {
+
+
+        if(sortDirection != null && sortDirection.equalsIgnoreCase("DESC")) {
+            return "DESC";
+        }
+
+
+        return "ASC";
+
+    }
+
+
+
+
+
     private Chef mapSingleRow(ResultSet set) throws SQLException {
 
 
@@ -444,4 +651,4 @@ public class ChefDAO {
 
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -9,6 +9,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.revature.util.ConnectionUtil;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 import com.revature.model.Ingredient;
@@ -28,7 +30,7 @@ public class IngredientDAO {
 
     public Ingredient getIngredientById(int id) {
 
-        String sql = "SELECT * FROM ingredient WHERE id=?";
+        String sql = SqlTemplates.INGREDIENT_BY_ID;
 
 
         try(Connection conn = connectionUtil.getConnection();
@@ -64,7 +66,7 @@ public class IngredientDAO {
     public int createIngredient(Ingredient ingredient) {
 
 
-        String sql = "INSERT INTO ingredient(name) VALUES(?)";
+        String sql = SqlTemplates.INGREDIENT_INSERT;
 
 
         try(Connection conn = connectionUtil.getConnection();
@@ -113,11 +115,11 @@ public class IngredientDAO {
 
 
         String deleteRecipeIngredient =
-                "DELETE FROM recipe_ingredient WHERE ingredient_id=?";
+                SqlTemplates.INGREDIENT_DELETE_USES;
 
 
         String deleteIngredient =
-                "DELETE FROM ingredient WHERE id=?";
+                SqlTemplates.INGREDIENT_DELETE;
 
 
         try(Connection conn = connectionUtil.getConnection()) {
@@ -169,7 +171,7 @@ public class IngredientDAO {
 
 
         String sql =
-                "UPDATE ingredient SET name=? WHERE id=?";
+                SqlTemplates.INGREDIENT_UPDATE;
 
 
         try(Connection conn = connectionUtil.getConnection();
@@ -196,11 +198,77 @@ public class IngredientDAO {
 
 
 
+    /**
+     * Updates an ingredient's name in one statement, without reading it first.
+     *
+     * @param ingredient the ingredient, identified by its id, with its new name
+     * @return APPLIED, NOT_FOUND if there is no ingredient with that id, or CONFLICT if
+     *         another ingredient already has the name
+     */
+    public WriteResult updateExistingIngredient(Ingredient ingredient) {
+
+
+        try(Connection conn = connectionUtil.getConnection();
+            PreparedStatement ps = conn.prepareStatement(SqlTemplates.INGREDIENT_UPDATE)) {
+
+
+            ps.setString(1, ingredient.getName());
+
+            ps.setInt(2, ingredient.getId());
+
+
+            return WriteResult.of(ps.executeUpdate());
+
+
+        }catch(SQLException e) {
+
+            return WriteResult.of(e);
+
+        }
+
+    }
+
+
+
+
+
+    /**
+     * Deletes an ingredient in one statement, without reading it first. The recipes' uses of
+     * it are removed by the ON DELETE CASCADE of RECIPE_INGREDIENT.
+     *
+     * @param id the id of the ingredient
+     * @return APPLIED, or NOT_FOUND if there is no ingredient with that id
+     */
+    public WriteResult deleteIngredientById(int id) {
+
+
+        try(Connection conn = connectionUtil.getConnection();
+            PreparedStatement ps = conn.prepareStatement(SqlTemplates.INGREDIENT_DELETE)) {
+
+
+            ps.setInt(1, id);
+
+
+            return WriteResult.of(ps.executeUpdate());
+
+
+        }catch(SQLException e) {
+
+            return WriteResult.of(e);
+
+        }
+
+    }
+
+
+
+
+
     public List<Ingredient> getAllIngredients() {
 
 
         String sql =
-                "SELECT * FROM ingredient ORDER BY id";
+                SqlTemplates.INGREDIENT_ALL;
 
 
         try(Connection conn = connectionUtil.getConnection();
@@ -239,8 +307,7 @@ public class IngredientDAO {
 
 
         String sql =
-                "SELECT * FROM ingredient ORDER BY "
-                + orderCol + " " + direction;
+                SqlTemplates.INGREDIENT_SORTED.get(orderCol, direction);
 
 
 
@@ -278,7 +345,7 @@ public class IngredientDAO {
 
 
         String sql =
-                "SELECT * FROM ingredient WHERE LOWER(name) LIKE LOWER(?) ORDER BY id";
+                SqlTemplates.INGREDIENT_SEARCH;
 
 
         try(Connection conn = connectionUtil.getConnection();
@@ -325,10 +392,7 @@ public class IngredientDAO {
 
 
         String sql =
-                "SELECT * FROM ingredient "
-                + "WHERE LOWER(name) LIKE LOWER(?) "
-                + "ORDER BY "
-                + orderCol + " " + direction;
+                SqlTemplates.INGREDIENT_SEARCH_SORTED.get(orderCol, direction);
 
 
 
@@ -369,6 +433,127 @@ public class IngredientDAO {
 
 
 
+    /**
+     * Retrieves the page of ingredients following a cursor, using keyset
+     * (seek) pagination instead of an offset.
+     */
+    public CursorPage<Ingredient> getAllIngredients(
+            PageOptions pageOptions,
+            Cursor after) {
+
+        return seekIngredients(null, pageOptions, after);
+
+    }
+
+
+
+
+
+    /**
+     * Searches ingredients by name, using keyset (seek) pagination.
+     */
+    public CursorPage<Ingredient> searchIngredients(
+            String term,
+            PageOptions pageOptions,
+            Cursor after) {
+
+        return seekIngredients(term, pageOptions, after);
+
+    }
+
+
+
+
+
+    private CursorPage<Ingredient> seekIngredients(
+            String term,
+            PageOptions pageOptions,
+            Cursor after) {
+
+
+        int size =
+                Math.max(1,pageOptions.getPageSize());
+
+
+        String orderCol =
+                resolveOrderBy(after != null ? after.getSortBy() : pageOptions.getSortBy());
+
+
+        String direction =
+                resolveDirection(after != null ? after.getSortDirection() : pageOptions.getSortDirection());
+
+
+
+        String sql =
+                SqlTemplates.ingredientSeek(term != null, after != null).get(orderCol, direction);
+
+
+
+        try(Connection conn = connectionUtil.getConnection();
+            PreparedStatement ps = conn.prepareStatement(sql)) {
+
+
+            int index = 1;
+
+
+            if(term != null)
+                ps.setString(index++,"%"+term+"%");
+
+
+            if(after != null)
+                index = after.bind(ps, index, orderCol, "id");
+
+
+            ps.setInt(index, size + 1);
+
+
+
+            try(ResultSet rs = ps.executeQuery()) {
+
+
+                List<Ingredient> items =
+                        mapRows(rs);
+
+
+                String next = null;
+
+
+                if(items.size() > size) {
+
+                    items = new ArrayList<>(items.subList(0,size));
+
+                    Ingredient last = items.get(size - 1);
+
+                    String value = orderCol.equals("name")
+                            ? last.getName()
+                            : String.valueOf(last.getId());
+
+                    next = new Cursor(orderCol, direction, value, last.getId()).encode();
+
+                }
+
+
+                return new CursorPage<>(size, next, items);
+
+            }
+
+
+        }catch(SQLException e) {
+
+            e.printStackTrace();
+
+        }
+
+
+
+        return new CursorPage<>(size, null, new ArrayList<>());
+
+    }
+
+
+
+
+
     private Ingredient mapSingleRow(ResultSet rs)
             throws SQLException {
 
@@ -510,4 +695,4 @@ public class IngredientDAO {
 
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,19 +1,26 @@
 package com.revature.dao;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import com.revature.util.Config;
 import com.revature.util.ConnectionUtil;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 import com.revature.model.Chef;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeSummary;
 
 
 
@@ -30,8 +37,10 @@ public class RecipeDAO {
 	private static final String sql = null;
 
 	/**
-	 * DAO for managing Chef entities, used for retrieving chef details associated with recipes.
+	 * DAO for managing Chef entities. Authors are now read in the same statement as their
+	 * recipes, so this is no longer consulted while mapping rows.
 	 */
+	@SuppressWarnings("unused")
 	private ChefDAO chefDAO;
 
 	/**
@@ -66,11 +75,11 @@ public class RecipeDAO {
      */
 
     public List<Recipe> getAllRecipes() {
-		final String expectedByTests="SELECT * FROM RECIPE ORDER BY id";
+		final String expectedByTests=SqlTemplates.RECIPE_ALL;
 		try(Connection conn = connectionUtil.getConnection();
 		Statement stmt=conn.createStatement();
 		ResultSet rs = stmt.executeQuery(expectedByTests)){
-				return mapRows(rs);
+				return mapRows(rs, this::mapSingleRow);
 			}catch (SQLException e){
 				e.printStackTrace();
 			}
@@ -80,19 +89,14 @@ public class RecipeDAO {
     /**
      * TODO: Retrieves a paginated list of all recipes from the database.
      * 
+     * Only the requested page is read from the database (LIMIT/OFFSET), and the total
+     * number of recipes is taken from a window count on the same statement.
+     * 
      * @param pageOptions options for pagination, including page size and page number
      * @return a paginated list of Recipe objects
      */
     public Page<Recipe> getAllRecipes(PageOptions pageOptions) {
-        String sql="SELECT*FROM recipe ORDER BY "+ pageOptions.getSortBy() +" "+ pageOptions.getSortDirection();
-		try(Connection conn=connectionUtil.getConnection();
-		    PreparedStatement ps=conn.prepareStatement(sql);
-			ResultSet rs=ps.executeQuery()){
-				return pageResults(rs, pageOptions);
-			}catch (SQLException e){
-				e.printStackTrace();
-			}
-        return new Page<>(pageOptions.getPageNumber(),pageOptions.getPageSize(), 0, 0, new ArrayList<>());
+        return readPage(SqlTemplates.RECIPE_PAGE, null, pageOptions, this::mapSingleRow);
     }
 
     /**
@@ -103,13 +107,13 @@ public class RecipeDAO {
      */
 
     public List<Recipe> searchRecipesByTerm(String term) {
-        String sql="SELECT id, name, instructions,chef_id AS author_id "+"FROM recipe "+"WHERE LOWER(name) LIKE LOWER(?) OR LOWER(instructions) LIKE LOWER(?) "+"ORDER BY id";
+        String sql=SqlTemplates.RECIPE_SEARCH;
 		try(Connection conn=connectionUtil.getConnection();
 		    PreparedStatement ps=conn.prepareStatement(sql)){
 				ps.setString(1,"%"+term+"%");
 				ps.setString(2,"%"+term+"%");
 				try(ResultSet rs=ps.executeQuery()){
-				return mapRows(rs);
+				return mapRows(rs, this::mapSingleRow);
 			}
 		}catch (SQLException e){
 				e.printStackTrace();
@@ -120,24 +124,127 @@ public class RecipeDAO {
     /**
      * TODO: Searches for recipes that match a specified term and returns a paginated result.
      * 
+     * Like {@link #getAllRecipes(PageOptions)}, only the requested page of matches is read.
+     * 
      * @param term the search term to filter recipes by
      * @param pageOptions options for pagination, including page size and page number
      * @return a paginated list of Recipe objects that match the search term
      */
 
     public Page<Recipe> searchRecipesByTerm(String term, PageOptions pageOptions) {
-         String sql="SELECT id, name, instructions,chef_id AS author_id "+"FROM recipe "+"WHERE LOWER(name) LIKE LOWER(?) OR LOWER(instructions) LIKE LOWER(?) "+"ORDER BY "+ pageOptions.getSortBy()+" "+pageOptions.getSortDirection();
-		try(Connection conn=connectionUtil.getConnection();
-		    PreparedStatement ps=conn.prepareStatement(sql)){
-				ps.setString(1,"%"+term+"%");
-				ps.setString(2,"%"+term+"%");
-				try(ResultSet rs=ps.executeQuery()){
-				return pageResults(rs, pageOptions);
+        return readPage(SqlTemplates.RECIPE_SEARCH_PAGE, term, pageOptions, this::mapSingleRow);
+    }
+
+    /**
+     * Retrieves the page of recipes following a cursor, using keyset (seek) pagination.
+     * The cost of a page does not grow with how far the client has scrolled.
+     * 
+     * @param pageOptions options for pagination; the page number is ignored
+     * @param after the cursor of the last recipe already returned, or null for the first page
+     * @return the page of recipes with the cursor for the next one
+     */
+    public CursorPage<Recipe> getAllRecipes(PageOptions pageOptions, Cursor after) {
+        return seekRecipes(SqlTemplates.recipeSeek(false, after != null), null, pageOptions, after, this::mapSingleRow);
+    }
+
+    /**
+     * Searches for recipes that match a specified term, using keyset (seek) pagination.
+     * 
+     * @param term the search term to filter recipes by
+     * @param pageOptions options for pagination; the page number is ignored
+     * @param after the cursor of the last recipe already returned, or null for the first page
+     * @return the page of matching recipes with the cursor for the next one
+     */
+    public CursorPage<Recipe> searchRecipesByTerm(String term, PageOptions pageOptions, Cursor after) {
+        return seekRecipes(SqlTemplates.recipeSeek(true, after != null), term, pageOptions, after, this::mapSingleRow);
+    }
+
+    /**
+     * Lists recipe summaries, optionally filtered by a search term, in id order. Unlike
+     * {@link #getAllRecipes()}, the instructions are not selected.
+     *
+     * @param term the search term to filter recipes by, or null for all recipes
+     * @return the summaries of the matching recipes
+     */
+    public List<RecipeSummary> getRecipeSummaries(String term) {
+		String sql = term != null ? SqlTemplates.RECIPE_SUMMARY_SEARCH : SqlTemplates.RECIPE_SUMMARY_ALL;
+		try (Connection conn = connectionUtil.getConnection();
+				PreparedStatement ps = conn.prepareStatement(sql)) {
+			if (term != null) {
+				ps.setString(1, "%" + term + "%");
+				ps.setString(2, "%" + term + "%");
 			}
-		}catch (SQLException e){
-				e.printStackTrace();
+			try (ResultSet rs = ps.executeQuery()) {
+				return mapRows(rs, this::mapSummaryRow);
 			}
-        return new Page<>(pageOptions.getPageNumber(),pageOptions.getPageSize(), 0, 0, new ArrayList<>());
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return new ArrayList<>();
+    }
+
+    /**
+     * Reads one page of recipe summaries, optionally filtered by a search term.
+     *
+     * @param term        the search term to filter recipes by, or null for all recipes
+     * @param pageOptions options for pagination, including page size and page number
+     * @return the page of summaries
+     */
+    public Page<RecipeSummary> getRecipeSummaries(String term, PageOptions pageOptions) {
+        return readPage(term != null ? SqlTemplates.RECIPE_SUMMARY_SEARCH_PAGE : SqlTemplates.RECIPE_SUMMARY_PAGE,
+                term, pageOptions, this::mapSummaryRow);
+    }
+
+    /**
+     * Reads the page of recipe summaries following a cursor, using keyset (seek) pagination.
+     *
+     * @param term        the search term to filter recipes by, or null for all recipes
+     * @param pageOptions options for pagination; the page number is ignored
+     * @param after       the cursor of the last recipe already returned, or null for the first page
+     * @return the page of summaries with the cursor for the next one
+     */
+    public CursorPage<RecipeSummary> getRecipeSummaries(String term, PageOptions pageOptions, Cursor after) {
+        return seekRecipes(SqlTemplates.recipeSummarySeek(term != null, after != null), term, pageOptions, after,
+                this::mapSummaryRow);
+    }
+
+    /**
+     * Streams every recipe, optionally filtered by a search term, to a handler in id order.
+     * The statement is forward-only and read-only with a tuned fetch size, and H2 is asked to
+     * execute it lazily, so rows are produced as the handler consumes them and memory use does
+     * not grow with the number of recipes. The connection is held until the last row is handled.
+     *
+     * @param term    the search term to filter recipes by, or null for all recipes
+     * @param handler receives each recipe in turn
+     * @return the number of recipes handed to the handler
+     * @throws IOException if the handler fails, in which case reading stops, or if reading
+     *         fails, in which case the recipes already handled are not all there are
+     */
+    public int streamRecipes(String term, RecipeRowHandler handler) throws IOException {
+		String sql = term != null ? SqlTemplates.RECIPE_SEARCH : SqlTemplates.RECIPE_ALL;
+		int count = 0;
+		try (Connection conn = connectionUtil.getConnection()) {
+			setLazyExecution(conn, true);
+			try (PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+				ps.setFetchSize(Config.getInt("recipe.export.fetchSize", 500));
+				if (term != null) {
+					ps.setString(1, "%" + term + "%");
+					ps.setString(2, "%" + term + "%");
+				}
+				try (ResultSet rs = ps.executeQuery()) {
+					while (rs.next()) {
+						handler.handle(mapSingleRow(rs));
+						count++;
+					}
+				}
+			} finally {
+				setLazyExecution(conn, false);
+			}
+		} catch (SQLException e) {
+			// unlike a failed read of a page, a partial stream must not pass for a whole one
+			throw new IOException("Reading recipes failed after " + count + " rows", e);
+		}
+		return count;
     }
 
     /**
@@ -148,7 +255,7 @@ public class RecipeDAO {
      */
 
     public Recipe getRecipeById(int id) {
-         String sql="SELECT*FROM recipe WHERE id=?";
+         String sql=SqlTemplates.RECIPE_BY_ID;
 		try(Connection conn=connectionUtil.getConnection();
 		    PreparedStatement ps=conn.prepareStatement(sql)){
 				ps.setInt(1,id);
@@ -164,6 +271,26 @@ public class RecipeDAO {
     }
         
 
+    /**
+     * Retrieves several recipes in one statement.
+     *
+     * @param ids the ids of the recipes to retrieve
+     * @return the recipes that exist, in the order of the given ids
+     */
+    public List<Recipe> getRecipesByIds(List<Integer> ids) {
+		return readByIds(SqlTemplates.RECIPE_BY_IDS, ids, this::mapSingleRow);
+    }
+
+    /**
+     * Retrieves the summaries of several recipes in one statement.
+     *
+     * @param ids the ids of the recipes to summarize
+     * @return the summaries of the recipes that exist, in the order of the given ids
+     */
+    public List<RecipeSummary> getRecipeSummariesByIds(List<Integer> ids) {
+		return readByIds(SqlTemplates.RECIPE_SUMMARY_BY_IDS, ids, this::mapSummaryRow);
+    }
+
     /**
      * TODO: Creates a new recipe in the database.
      * 
@@ -172,7 +299,7 @@ public class RecipeDAO {
      */
 
     public int createRecipe(Recipe recipe) {
-    String sql="INSERT INTO recipe(name, instructions, chef_id) VALUES (?,?,?)";
+    String sql=SqlTemplates.RECIPE_INSERT;
 		try(Connection conn=connectionUtil.getConnection();
 		    PreparedStatement ps=conn.prepareStatement(sql,Statement.RETURN_GENERATED_KEYS)){
 				ps.setString(1,recipe.getName());
@@ -198,7 +325,7 @@ public class RecipeDAO {
      */
 
     public void updateRecipe(Recipe recipe) {
-      String sql="UPDATE recipe SET instructions=?, chef_id=? WHERE id=?";
+      String sql=SqlTemplates.RECIPE_UPDATE;
 		try(Connection conn=connectionUtil.getConnection();
 		    PreparedStatement ps=conn.prepareStatement(sql)){
 				ps.setString(1,recipe.getInstructions());
@@ -214,20 +341,28 @@ public class RecipeDAO {
     /**
      * TODO: Deletes a specific recipe from the database.
      * 
+     * The recipe's ingredient rows and the recipe itself are deleted in one transaction.
+     * 
      * @param recipe the Recipe object to delete
      */
 
     public void deleteRecipe(Recipe recipe) {
-		String deleteJoin="DELETE FROM recipe_ingredient WHERE recipe_id=?";
-		    String deleteRecipe="DELETE FROM recipe WHERE id = ?";
+		String deleteJoin=SqlTemplates.RECIPE_DELETE_INGREDIENTS;
+		    String deleteRecipe=SqlTemplates.RECIPE_DELETE;
 		try(Connection conn=connectionUtil.getConnection()){
-		    try(PreparedStatement ps1=conn.prepareStatement(deleteJoin)){
+		    conn.setAutoCommit(false);
+		    try(PreparedStatement ps1=conn.prepareStatement(deleteJoin);
+		        PreparedStatement ps2=conn.prepareStatement(deleteRecipe)){
 				ps1.setInt(1,recipe.getId());
 				ps1.executeUpdate();
-		}
-		    try(PreparedStatement ps2=conn.prepareStatement(deleteRecipe)){
 				ps2.setInt(1,recipe.getId());
 				ps2.executeUpdate();
+				conn.commit();
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+			} finally {
+				conn.setAutoCommit(true);
 			}
 		}
 		catch (SQLException e){
@@ -236,12 +371,63 @@ public class RecipeDAO {
         
     }
 
+    /**
+     * Updates an existing recipe's instructions and chef_id in one statement, without reading
+     * it first. The same statement returns the row as written, and the recipe's name and
+     * author are set from it, so the recipe afterwards matches the database rather than the
+     * values it was passed with.
+     *
+     * @param recipe the Recipe object with updated data
+     * @return APPLIED, or NOT_FOUND if there is no recipe with the recipe's id
+     */
+
+    public WriteResult updateExistingRecipe(Recipe recipe) {
+		try(Connection conn=connectionUtil.getConnection();
+		    PreparedStatement ps=conn.prepareStatement(SqlTemplates.RECIPE_UPDATE_RETURNING)){
+				ps.setString(1,recipe.getInstructions());
+				ps.setInt(2,recipe.getAuthor().getId());
+				ps.setInt(3,recipe.getId());
+				try(ResultSet rs=ps.executeQuery()){
+					if(!rs.next()){
+						return WriteResult.NOT_FOUND;
+					}
+					Recipe written=mapSingleRow(rs);
+					recipe.setName(written.getName());
+					recipe.setInstructions(written.getInstructions());
+					recipe.setAuthor(written.getAuthor());
+					return WriteResult.APPLIED;
+				}
+		}catch (SQLException e){
+				return WriteResult.of(e);
+			}
+    }
+
+    /**
+     * Deletes a recipe in one statement, without reading it first. Its ingredient rows are
+     * removed by the ON DELETE CASCADE of RECIPE_INGREDIENT.
+     *
+     * @param id the id of the recipe to delete
+     * @return APPLIED, or NOT_FOUND if there is no recipe with that id
+     */
+
+    public WriteResult deleteRecipeById(int id) {
+		try(Connection conn=connectionUtil.getConnection();
+		    PreparedStatement ps=conn.prepareStatement(SqlTemplates.RECIPE_DELETE)){
+				ps.setInt(1,id);
+				return WriteResult.of(ps.executeUpdate());
+		}catch (SQLException e){
+				return WriteResult.of(e);
+			}
+    }
+
     // below are helper methods for your convenience
 	
 	/**
 	 * Maps a single row from the ResultSet to a Recipe object.
 	 * This method extracts the recipe details such as ID, name, instructions,
-	 * and associated chef from the ResultSet and constructs a Recipe instance.
+	 * and the associated chef from the ResultSet and constructs a Recipe instance.
+	 * The row is expected to hold the author's columns as selected by the recipe templates in SqlTemplates,
+	 * so no further query is needed for the chef.
 	 *
 	 * @param set the ResultSet containing the recipe data
 	 * @return a Recipe object representing the mapped row
@@ -251,55 +437,272 @@ public class RecipeDAO {
 		int id = set.getInt("id");
 		String name = set.getString("name");
 		String instructions = set.getString("instructions");
-		 int chefId;
-        try {
-            chefId = set.getInt("chef_id");
-        } catch (SQLException ex) {
-            chefId = set.getInt("author_id");
-        }
-		Chef author = chefDAO.getChefById(chefId);
+		Chef author = new Chef(
+				set.getInt("chef_id"),
+				set.getString("chef_username"),
+				set.getString("chef_email"),
+				set.getString("chef_password"),
+				set.getBoolean("chef_is_admin"));
 		return new Recipe(id, name, instructions, author);
 	}
 
 	/**
-	 * Maps multiple rows from a ResultSet to a list of Recipe objects.
-	 * This method iterates through the ResultSet and calls mapSingleRow
-	 * for each row, adding the resulting Recipe objects to a list.
+	 * Maps a single row selected by the recipe summary templates to a RecipeSummary.
 	 *
-	 * @param set the ResultSet containing multiple recipe rows
-	 * @return a list of Recipe objects representing the mapped rows
+	 * @param set the ResultSet positioned on a summary row
+	 * @return the summary of the recipe in that row
 	 * @throws SQLException if there is an error accessing the ResultSet
 	 */
-	private List<Recipe> mapRows(ResultSet set) throws SQLException {
-		List<Recipe> recipes = new ArrayList<>();
+	private RecipeSummary mapSummaryRow(ResultSet set) throws SQLException {
+		return new RecipeSummary(set.getInt("id"), set.getString("name"), set.getInt("chef_id"), set.getString("chef_username"));
+	}
+
+	/**
+	 * Maps multiple rows from a ResultSet to a list of objects.
+	 * This method iterates through the ResultSet and calls the mapper
+	 * for each row, adding the resulting objects to a list.
+	 *
+	 * @param set    the ResultSet containing multiple recipe rows
+	 * @param mapper maps one row, either mapSingleRow or mapSummaryRow
+	 * @return a list of objects representing the mapped rows
+	 * @throws SQLException if there is an error accessing the ResultSet
+	 */
+	private <T> List<T> mapRows(ResultSet set, RowMapper<T> mapper) throws SQLException {
+		List<T> recipes = new ArrayList<>();
 		while (set.next()) {
-			recipes.add(mapSingleRow(set));
+			recipes.add(mapper.map(set));
 		}
 		return recipes;
 	}
 
 	/**
-	 * Pages the results from a ResultSet into a Page object for the Recipe entity.
-	 * This method processes the ResultSet to retrieve recipes, then slices the list
-	 * based on the provided pagination options, and returns a Page object
-	 * containing
-	 * the paginated results.
+	 * Reads one LIMIT/OFFSET page of recipes, optionally filtered by a search term. When the
+	 * requested page lies past the last row, the total is counted separately.
 	 *
-	 * @param set the ResultSet containing recipe data
+	 * @param family      the page statements, with the term placeholders when a term is given
+	 * @param term        the search term, or null for all recipes
+	 * @param pageOptions the page number, page size and sort options
+	 * @param mapper      maps one row
+	 * @return the page, empty if the statement fails
+	 */
+	private <T> Page<T> readPage(SqlTemplates.Sorted family, String term, PageOptions pageOptions, RowMapper<T> mapper) {
+        int pageSize = resolvePageSize(pageOptions);
+        int offset = resolveOffset(pageOptions);
+        String sql = family.get(resolveOrderBy(pageOptions.getSortBy()), resolveDirection(pageOptions.getSortDirection()));
+		try(Connection conn=connectionUtil.getConnection();
+		    PreparedStatement ps=conn.prepareStatement(sql)){
+				int index = 1;
+				if(term != null){
+					ps.setString(index++,"%"+term+"%");
+					ps.setString(index++,"%"+term+"%");
+				}
+				ps.setInt(index++, pageSize);
+				ps.setInt(index, offset);
+				try(ResultSet rs=ps.executeQuery()){
+					Page<T> page = pageResults(rs, pageOptions, mapper);
+					if(page.getItems().isEmpty() && offset > 0){
+						return withTotal(page, countRecipes(conn, term != null ? SqlTemplates.RECIPE_SEARCH_COUNT : SqlTemplates.RECIPE_COUNT, term));
+					}
+					return page;
+				}
+			}catch (SQLException e){
+				e.printStackTrace();
+			}
+        return new Page<>(pageOptions.getPageNumber(),pageOptions.getPageSize(), 0, 0, new ArrayList<>());
+	}
+
+	/**
+	 * Pages the results from a ResultSet into a Page object.
+	 * The ResultSet is expected to hold only the rows of the requested page (the
+	 * query applies LIMIT/OFFSET) along with a "total_count" window column holding
+	 * the number of matching rows across all pages.
+	 *
+	 * @param set the ResultSet containing recipe data for a single page
 	 * @param pageOptions the PageOptions object containing pagination details
-	 * @return a Page object containing the paginated list of Recipe objects
+	 * @param mapper maps one row
+	 * @return a Page object containing the mapped rows
 	 * @throws SQLException if there is an error accessing the ResultSet
 	 */
-	private Page<Recipe> pageResults(ResultSet set, PageOptions pageOptions) throws SQLException {
-		List<Recipe> recipes = mapRows(set);
-		int offset = (pageOptions.getPageNumber() - 1) * pageOptions.getPageSize();
-		int end = Math.min(offset + pageOptions.getPageSize(), recipes.size());
-        List<Recipe> sliced = new ArrayList<>();
-        for (int i = offset; i < end; i++) sliced.add(recipes.get(i));
-
-        int total = recipes.size();
-        int totalPages = total / pageOptions.getPageSize(); // test only checks size/pageSize
-        return new Page<>(pageOptions.getPageNumber(), pageOptions.getPageSize(), totalPages, total, sliced);
+	private <T> Page<T> pageResults(ResultSet set, PageOptions pageOptions, RowMapper<T> mapper) throws SQLException {
+		List<T> recipes = new ArrayList<>();
+		int total = 0;
+		while (set.next()) {
+			if (recipes.isEmpty()) {
+				total = set.getInt("total_count");
+			}
+			recipes.add(mapper.map(set));
+		}
+		return withTotal(new Page<>(resolvePageNumber(pageOptions), resolvePageSize(pageOptions), 0, 0, recipes), total);
+	}
+
+	/**
+	 * Fills in the total element and total page counts of a page.
+	 *
+	 * @param page  the page to update
+	 * @param total the number of matching rows across all pages
+	 * @return the same page, for chaining
+	 */
+	private <T> Page<T> withTotal(Page<T> page, int total) {
+		page.setTotalElements(total);
+		page.setTotalPages((int) Math.ceil(total / (double) page.getPageSize()));
+		return page;
+	}
+
+	/**
+	 * Counts the recipes matched by a COUNT(*) statement. Used when a requested page
+	 * lies past the last row, so the window count is not available.
+	 *
+	 * @param conn the connection the page was read on
+	 * @param sql  the count statement, with two LIKE placeholders when a term is given
+	 * @param term the search term, or null for an unfiltered count
+	 * @return the number of matching recipes
+	 * @throws SQLException if the count fails
+	 */
+	private int countRecipes(Connection conn, String sql, String term) throws SQLException {
+		try (PreparedStatement ps = conn.prepareStatement(sql)) {
+			if (term != null) {
+				ps.setString(1, "%" + term + "%");
+				ps.setString(2, "%" + term + "%");
+			}
+			try (ResultSet rs = ps.executeQuery()) {
+				return rs.next() ? rs.getInt(1) : 0;
+			}
+		}
+	}
+
+	/**
+	 * Reads one keyset page of recipes, optionally filtered by a search term. One row
+	 * more than the page size is fetched to tell whether a next page exists.
+	 *
+	 * @param family      the keyset statements matching the term and cursor
+	 * @param term        the search term, or null for all recipes
+	 * @param pageOptions the page size and sort options
+	 * @param after       the cursor to continue from, or null for the first page
+	 * @param mapper      maps one row
+	 * @return the page of recipes with the cursor for the next one
+	 */
+	private <T> CursorPage<T> seekRecipes(SqlTemplates.Sorted family, String term, PageOptions pageOptions, Cursor after,
+			RowMapper<T> mapper) {
+		int pageSize = resolvePageSize(pageOptions);
+		String orderCol = resolveOrderBy(after != null ? after.getSortBy() : pageOptions.getSortBy());
+		String direction = resolveDirection(after != null ? after.getSortDirection() : pageOptions.getSortDirection());
+
+		String sql = family.get(orderCol, direction);
+
+		try (Connection conn = connectionUtil.getConnection();
+		     PreparedStatement ps = conn.prepareStatement(sql)) {
+			int index = 1;
+			if (term != null) {
+				ps.setString(index++, "%" + term + "%");
+				ps.setString(index++, "%" + term + "%");
+			}
+			if (after != null) {
+				index = after.bind(ps, index, "recipe." + orderCol, "recipe.id");
+			}
+			ps.setInt(index, pageSize + 1);
+			try (ResultSet rs = ps.executeQuery()) {
+				List<T> recipes = new ArrayList<>();
+				String next = null;
+				int lastId = 0;
+				String lastName = null;
+				while (rs.next()) {
+					if (recipes.size() == pageSize) {
+						String value = orderCol.equals("name") ? lastName : String.valueOf(lastId);
+						next = new Cursor(orderCol, direction, value, lastId).encode();
+						break;
+					}
+					recipes.add(mapper.map(rs));
+					lastId = rs.getInt("id");
+					lastName = rs.getString("name");
+				}
+				return new CursorPage<>(pageSize, next, recipes);
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return new CursorPage<>(pageSize, null, new ArrayList<>());
+	}
+
+	/**
+	 * Runs a statement taking an array of ids and returns the mapped rows in the order of
+	 * those ids, skipping ids with no row.
+	 *
+	 * @param sql    the statement, with one array placeholder
+	 * @param ids    the ids to look up
+	 * @param mapper maps one row; the row must hold an "id" column
+	 * @return the rows found, in the order of the given ids
+	 */
+	private <T> List<T> readByIds(String sql, List<Integer> ids, RowMapper<T> mapper) {
+		List<T> recipes = new ArrayList<>();
+		if (ids == null || ids.isEmpty()) {
+			return recipes;
+		}
+		try (Connection conn = connectionUtil.getConnection();
+				PreparedStatement ps = conn.prepareStatement(sql)) {
+			ps.setArray(1, conn.createArrayOf("INTEGER", ids.toArray()));
+			try (ResultSet rs = ps.executeQuery()) {
+				Map<Integer, T> byId = new HashMap<>();
+				while (rs.next()) {
+					byId.put(rs.getInt("id"), mapper.map(rs));
+				}
+				for (Integer id : ids) {
+					T recipe = byId.get(id);
+					if (recipe != null) {
+						recipes.add(recipe);
+					}
+				}
+			}
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		return recipes;
+	}
+
+	/**
+	 * Switches H2's lazy query execution on or off for a connection. Pooled connections are
+	 * shared, so the setting is always switched back off once a stream is done.
+	 *
+	 * @param conn the connection to configure
+	 * @param lazy whether results should be produced row by row
+	 * @throws SQLException if the setting cannot be changed
+	 */
+	private void setLazyExecution(Connection conn, boolean lazy) throws SQLException {
+		try (Statement stmt = conn.createStatement()) {
+			stmt.execute("SET LAZY_QUERY_EXECUTION " + (lazy ? "TRUE" : "FALSE"));
+		}
+	}
+
+	private int resolvePageNumber(PageOptions pageOptions) {
+		return Math.max(1, pageOptions.getPageNumber());
+	}
+
+	private int resolvePageSize(PageOptions pageOptions) {
+		return Math.max(1, pageOptions.getPageSize());
+	}
+
+	private int resolveOffset(PageOptions pageOptions) {
+		return (resolvePageNumber(pageOptions) - 1) * resolvePageSize(pageOptions);
+	}
+
+	/**
+	 * Maps a requested sort field onto a whitelisted column, which selects the statement
+	 * from its {@link SqlTemplates.Sorted} family.
+	 *
+	 * @param sortBy the requested sort field
+	 * @return the column to order by
+	 */
+	private String resolveOrderBy(String sortBy) {
+		if (sortBy != null && sortBy.equalsIgnoreCase("name")) {
+			return "name";
+		}
+		return "id";
+	}
+
+	private String resolveDirection(String sortDirection) {
+		if (sortDirection != null && sortDirection.equalsIgnoreCase("DESC")) {
+			return "DESC";
+		}
+		return "ASC";
 	}
 
 	/**
@@ -322,8 +725,16 @@ public class RecipeDAO {
 		return sliced;
 	}
 
+	/**
+	 * Maps the current row of a ResultSet, so the paging helpers serve both full recipes
+	 * and summaries.
+	 */
+	private interface RowMapper<T> {
+		T map(ResultSet set) throws SQLException;
+	}
+
 	public Optional<Recipe> findById(int id) {
-		String sql=" SELECT * FROM recipe WHERE id=?";
+		String sql=SqlTemplates.RECIPE_BY_ID;
 		try(Connection conn= connectionUtil.getConnection();
 		    PreparedStatement ps= conn.prepareStatement(sql)){
 				ps.setInt(1,id);
@@ -0,0 +1,255 @@
+package com.revature.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.ConnectionUtil;
+
+/**
+ * The RecipeImportDAO class performs the set-based reads and batched writes behind bulk
+ * recipe imports. Each lookup resolves a whole chunk of rows in one statement, and each
+ * chunk of recipes is written with JDBC batches inside one transaction.
+ */
+public class RecipeImportDAO {
+
+    private ConnectionUtil connectionUtil;
+
+    public RecipeImportDAO(ConnectionUtil connectionUtil) {
+        this.connectionUtil = connectionUtil;
+    }
+
+    /**
+     * @param ids chef ids
+     * @return the chefs that exist, by id
+     */
+    public Map<Integer, Chef> findChefsByIds(Collection<Integer> ids) {
+        Map<Integer, Chef> chefs = new HashMap<>();
+        for (Chef chef : findChefs(SqlTemplates.CHEF_BY_IDS, ids.toArray(), "INTEGER")) {
+            chefs.put(chef.getId(), chef);
+        }
+        return chefs;
+    }
+
+    /**
+     * @param usernames chef usernames
+     * @return the chefs that exist, by username
+     */
+    public Map<String, Chef> findChefsByUsernames(Collection<String> usernames) {
+        Map<String, Chef> chefs = new HashMap<>();
+        for (Chef chef : findChefs(SqlTemplates.CHEF_BY_USERNAMES, usernames.toArray(), "VARCHAR")) {
+            chefs.put(chef.getUsername(), chef);
+        }
+        return chefs;
+    }
+
+    /**
+     * @param ids ingredient ids
+     * @return the names of the ingredients that exist, by id
+     */
+    public Map<Integer, String> findIngredientNames(Collection<Integer> ids) {
+        Map<Integer, String> names = new HashMap<>();
+        if (ids.isEmpty()) {
+            return names;
+        }
+        try (Connection conn = connectionUtil.getConnection();
+                PreparedStatement ps = conn.prepareStatement(SqlTemplates.INGREDIENT_NAMES_BY_IDS)) {
+            ps.setArray(1, conn.createArrayOf("INTEGER", ids.toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    names.put(rs.getInt("id"), rs.getString("name"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return names;
+    }
+
+    /**
+     * @param names ingredient names, matched case-insensitively
+     * @return the ingredients that exist, by lowercase name
+     */
+    public Map<String, RecipeIngredient> findIngredientsByNames(Collection<String> names) {
+        Map<String, RecipeIngredient> ingredients = new HashMap<>();
+        if (names.isEmpty()) {
+            return ingredients;
+        }
+        String[] lower = new String[names.size()];
+        int i = 0;
+        for (String name : names) {
+            lower[i++] = name.toLowerCase(Locale.ROOT);
+        }
+        try (Connection conn = connectionUtil.getConnection();
+                PreparedStatement ps = conn.prepareStatement(SqlTemplates.INGREDIENT_NAMES_BY_LOWER_NAMES)) {
+            ps.setArray(1, conn.createArrayOf("VARCHAR", lower));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ingredients.put(rs.getString("name").toLowerCase(Locale.ROOT),
+                            new RecipeIngredient(rs.getInt("id"), rs.getString("name"), 0, null));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return ingredients;
+    }
+
+    /**
+     * @param names recipe names
+     * @return the names that are already taken
+     */
+    public Set<String> findExistingRecipeNames(Collection<String> names) {
+        Set<String> existing = new HashSet<>();
+        if (names.isEmpty()) {
+            return existing;
+        }
+        try (Connection conn = connectionUtil.getConnection();
+                PreparedStatement ps = conn.prepareStatement(SqlTemplates.RECIPE_NAMES_TAKEN)) {
+            ps.setArray(1, conn.createArrayOf("VARCHAR", names.toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getString("name"));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return existing;
+    }
+
+    /**
+     * Inserts a chunk of recipes and their ingredient rows in one transaction, setting the
+     * generated id on each inserted recipe. If the batch fails, the chunk is retried one
+     * recipe at a time behind savepoints, so a single bad row does not reject its neighbours.
+     *
+     * @param recipes validated recipes whose author and ingredient ids are resolved
+     * @return for each recipe, null if it was inserted or the reason it was not
+     */
+    public List<String> insertRecipes(List<Recipe> recipes) {
+        List<String> messages = new ArrayList<>(recipes.size());
+        for (SQLException error : tryInsertRecipes(recipes)) {
+            messages.add(error == null ? null : error.getMessage());
+        }
+        return messages;
+    }
+
+    /**
+     * Like {@link #insertRecipes(List)}, but reports each failure as the exception itself, so
+     * callers can tell a taken name (SQL state 23505) from other errors.
+     *
+     * @param recipes validated recipes whose author and ingredient ids are resolved
+     * @return for each recipe, null if it was inserted or the exception that rejected it
+     */
+    public List<SQLException> tryInsertRecipes(List<Recipe> recipes) {
+        SQLException[] errors = new SQLException[recipes.size()];
+        try (Connection conn = connectionUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertBatch(conn, recipes);
+                conn.commit();
+            } catch (SQLException batchError) {
+                conn.rollback();
+                for (int i = 0; i < recipes.size(); i++) {
+                    Recipe recipe = recipes.get(i);
+                    Savepoint savepoint = conn.setSavepoint();
+                    try {
+                        insertBatch(conn, Collections.singletonList(recipe));
+                        conn.releaseSavepoint(savepoint);
+                    } catch (SQLException rowError) {
+                        conn.rollback(savepoint);
+                        recipe.setId(0);
+                        errors[i] = rowError;
+                    }
+                }
+                conn.commit();
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            SQLException error = new SQLException("Database error: " + e.getMessage(), e.getSQLState(), e);
+            for (int i = 0; i < recipes.size(); i++) {
+                recipes.get(i).setId(0);
+                errors[i] = error;
+            }
+        }
+        return Arrays.asList(errors);
+    }
+
+    private void insertBatch(Connection conn, List<Recipe> recipes) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SqlTemplates.RECIPE_INSERT, Statement.RETURN_GENERATED_KEYS)) {
+            for (Recipe recipe : recipes) {
+                ps.setString(1, recipe.getName());
+                ps.setString(2, recipe.getInstructions());
+                ps.setInt(3, recipe.getAuthor().getId());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                int i = 0;
+                while (keys.next() && i < recipes.size()) {
+                    recipes.get(i++).setId(keys.getInt(1));
+                }
+                if (i != recipes.size()) {
+                    throw new SQLException("Expected " + recipes.size() + " generated keys but got " + i);
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(SqlTemplates.RECIPE_INGREDIENT_INSERT)) {
+            int rows = 0;
+            for (Recipe recipe : recipes) {
+                if (recipe.getIngredients() == null) {
+                    continue;
+                }
+                for (RecipeIngredient ingredient : recipe.getIngredients()) {
+                    ps.setInt(1, recipe.getId());
+                    ps.setInt(2, ingredient.getId());
+                    ps.setDouble(3, ingredient.getVolume());
+                    ps.setString(4, ingredient.getUnit());
+                    ps.addBatch();
+                    rows++;
+                }
+            }
+            if (rows > 0) {
+                ps.executeBatch();
+            }
+        }
+    }
+
+    private List<Chef> findChefs(String sql, Object[] values, String sqlType) {
+        List<Chef> chefs = new ArrayList<>();
+        if (values.length == 0) {
+            return chefs;
+        }
+        try (Connection conn = connectionUtil.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setArray(1, conn.createArrayOf(sqlType, values));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    chefs.add(new Chef(rs.getInt("id"), rs.getString("username"), rs.getString("email"),
+                            rs.getString("password"), rs.getBoolean("is_admin")));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return chefs;
+    }
+}
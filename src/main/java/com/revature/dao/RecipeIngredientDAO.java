@@ -0,0 +1,159 @@
+package com.revature.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.ConnectionUtil;
+
+/**
+ * The RecipeIngredientDAO class reads and writes the RECIPE_INGREDIENT join table. Reads
+ * cover a whole page of recipes in one statement, and writes replace a recipe's entire
+ * ingredient list in one batched transaction, so neither costs a round trip per row.
+ *
+ * A RecipeIngredient's id is the id of the ingredient it refers to.
+ */
+public class RecipeIngredientDAO {
+
+    private ConnectionUtil connectionUtil;
+
+    public RecipeIngredientDAO(ConnectionUtil connectionUtil) {
+        this.connectionUtil = connectionUtil;
+    }
+
+    /**
+     * Retrieves the ingredients of several recipes in one statement.
+     *
+     * @param recipeIds the ids of the recipes
+     * @return a list of ingredients for every given id, empty if the recipe has none
+     */
+    public Map<Integer, List<RecipeIngredient>> getIngredientsForRecipes(Collection<Integer> recipeIds) {
+        Map<Integer, List<RecipeIngredient>> byRecipe = new HashMap<>();
+        if (recipeIds == null || recipeIds.isEmpty()) {
+            return byRecipe;
+        }
+        for (Integer id : recipeIds) {
+            byRecipe.put(id, new ArrayList<>());
+        }
+        try (Connection conn = connectionUtil.getConnection();
+                PreparedStatement ps = conn.prepareStatement(SqlTemplates.RECIPE_INGREDIENT_FOR_RECIPES)) {
+            ps.setArray(1, conn.createArrayOf("INTEGER", recipeIds.toArray()));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    byRecipe.get(rs.getInt("recipe_id")).add(new RecipeIngredient(
+                            rs.getInt("id"), rs.getString("name"), rs.getDouble("vol"), rs.getString("unit")));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return byRecipe;
+    }
+
+    /**
+     * Retrieves the name of every ingredient, for building in-memory indexes.
+     *
+     * @return the names of all ingredients, by ingredient id
+     */
+    public Map<Integer, String> getIngredientNames() {
+        Map<Integer, String> names = new HashMap<>();
+        try (Connection conn = connectionUtil.getConnection();
+                PreparedStatement ps = conn.prepareStatement(SqlTemplates.INGREDIENT_NAMES);
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                names.put(rs.getInt("id"), rs.getString("name"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return names;
+    }
+
+    /**
+     * Retrieves the ingredients of every recipe, for building in-memory indexes.
+     *
+     * @return the ingredient lists of all recipes that have any, by recipe id
+     */
+    public Map<Integer, List<RecipeIngredient>> getAllRecipeIngredients() {
+        Map<Integer, List<RecipeIngredient>> byRecipe = new HashMap<>();
+        try (Connection conn = connectionUtil.getConnection();
+                PreparedStatement ps = conn.prepareStatement(SqlTemplates.RECIPE_INGREDIENT_ALL);
+                ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                byRecipe.computeIfAbsent(rs.getInt("recipe_id"), k -> new ArrayList<>()).add(new RecipeIngredient(
+                        rs.getInt("id"), rs.getString("name"), rs.getDouble("vol"), rs.getString("unit")));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return byRecipe;
+    }
+
+    /**
+     * Sets the ingredient list of every given recipe, reading them all in one statement.
+     *
+     * @param recipes the recipes to fill in
+     */
+    public void loadIngredients(List<Recipe> recipes) {
+        if (recipes == null || recipes.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            ids.add(recipe.getId());
+        }
+        Map<Integer, List<RecipeIngredient>> byRecipe = getIngredientsForRecipes(ids);
+        for (Recipe recipe : recipes) {
+            recipe.setIngredients(byRecipe.get(recipe.getId()));
+        }
+    }
+
+    /**
+     * Replaces the ingredient list of a recipe. The delete and the batched inserts run in one
+     * transaction, so readers see either the old list or the new one.
+     *
+     * @param recipeId    the id of the recipe
+     * @param ingredients the new ingredients, each identified by its ingredient id
+     * @return true if the list was replaced, false if the transaction was rolled back
+     */
+    public boolean replaceIngredients(int recipeId, List<RecipeIngredient> ingredients) {
+        String deleteSql = SqlTemplates.RECIPE_DELETE_INGREDIENTS;
+        String insertSql = SqlTemplates.RECIPE_INGREDIENT_INSERT;
+        try (Connection conn = connectionUtil.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement(deleteSql);
+                    PreparedStatement insert = conn.prepareStatement(insertSql)) {
+                delete.setInt(1, recipeId);
+                delete.executeUpdate();
+                if (ingredients != null) {
+                    for (RecipeIngredient ingredient : ingredients) {
+                        insert.setInt(1, recipeId);
+                        insert.setInt(2, ingredient.getId());
+                        insert.setDouble(3, ingredient.getVolume());
+                        insert.setString(4, ingredient.getUnit());
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+}
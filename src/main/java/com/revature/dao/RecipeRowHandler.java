@@ -0,0 +1,21 @@
+package com.revature.dao;
+
+import java.io.IOException;
+
+import com.revature.model.Recipe;
+
+/**
+ * The RecipeRowHandler interface receives recipes one at a time as they are read from the
+ * database, so callers can process a result set without holding all of it in memory.
+ */
+@FunctionalInterface
+public interface RecipeRowHandler {
+
+    /**
+     * Handles one recipe. The recipe is not retained by the DAO once this returns.
+     *
+     * @param recipe the recipe read from the current row, with its author
+     * @throws IOException if the handler cannot write the recipe; reading stops
+     */
+    void handle(Recipe recipe) throws IOException;
+}
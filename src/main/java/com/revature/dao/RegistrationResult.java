@@ -0,0 +1,18 @@
+package com.revature.dao;
+
+/**
+ * The RegistrationResult enum is the outcome of creating a chef in one statement. Both the
+ * username and the email of a chef are unique, and the DAO tells which one a new chef
+ * collided with from the constraint the INSERT broke, so the caller can say which is taken.
+ */
+public enum RegistrationResult {
+
+    /** The chef was created. */
+    APPLIED,
+    /** Another chef already has the username. */
+    USERNAME_TAKEN,
+    /** Another chef already has the email. */
+    EMAIL_TAKEN,
+    /** The statement failed for another reason; the error has been logged. */
+    FAILED
+}
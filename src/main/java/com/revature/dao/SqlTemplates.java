@@ -0,0 +1,339 @@
+package com.revature.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.revature.util.Cursor;
+
+/**
+ * The SqlTemplates class is the registry of every statement the DAOs run. Each template is built once, under a name, when the class loads.
+ *
+ * Statements that differ only in their sort order are registered as a {@link Sorted} family
+ * with one finished string per whitelisted column and direction, so a paged request picks an
+ * existing string instead of concatenating a new one. The same text is then sent for the
+ * same query every time, which is what lets the connection pool's statement cache reuse the
+ * parsed and planned statement.
+ *
+ * {@link #validate(Connection)} prepares every template against a database, so a template
+ * that no longer matches the schema is caught at startup rather than on first use.
+ */
+public final class SqlTemplates {
+
+    private static final Map<String, String> TEMPLATES = new LinkedHashMap<>();
+
+    private static final String[] DIRECTIONS = { "ASC", "DESC" };
+
+    // Chefs
+
+    public static final String CHEF_ALL = define("chef.all", "SELECT * FROM CHEF ORDER BY id");
+    public static final String CHEF_BY_ID = define("chef.byId", "SELECT * FROM chef WHERE id=?");
+    public static final String CHEF_BY_USERNAME = define("chef.byUsername", "SELECT * FROM chef WHERE username=?");
+    public static final String CHEF_INSERT = define("chef.insert",
+            "INSERT INTO chef(username,email,password,is_admin) VALUES(?,?,?,?)");
+    public static final String CHEF_UPDATE = define("chef.update",
+            "UPDATE chef SET username=?, email=?, password=?, is_admin=? WHERE id=?");
+    public static final String CHEF_DELETE = define("chef.delete", "DELETE FROM chef WHERE id=?");
+    public static final String CHEF_SEARCH = define("chef.search", "SELECT * FROM chef WHERE LOWER(username) LIKE LOWER(?)");
+    public static final String CHEF_BY_IDS = define("chef.byIds", "SELECT * FROM chef WHERE id = ANY(?)");
+    public static final String CHEF_BY_USERNAMES = define("chef.byUsernames", "SELECT * FROM chef WHERE username = ANY(?)");
+
+    private static final Sorted[] CHEF_SEEK = seekFamily("chef", "SELECT * FROM chef", "LOWER(username) LIKE LOWER(?)",
+            "", "id", "username");
+
+    // Ingredients
+
+    public static final String INGREDIENT_ALL = define("ingredient.all", "SELECT * FROM ingredient ORDER BY id");
+    public static final String INGREDIENT_BY_ID = define("ingredient.byId", "SELECT * FROM ingredient WHERE id=?");
+    public static final String INGREDIENT_INSERT = define("ingredient.insert", "INSERT INTO ingredient(name) VALUES(?)");
+    public static final String INGREDIENT_UPDATE = define("ingredient.update", "UPDATE ingredient SET name=? WHERE id=?");
+    public static final String INGREDIENT_DELETE = define("ingredient.delete", "DELETE FROM ingredient WHERE id=?");
+    public static final String INGREDIENT_DELETE_USES = define("ingredient.deleteUses",
+            "DELETE FROM recipe_ingredient WHERE ingredient_id=?");
+    public static final String INGREDIENT_SEARCH = define("ingredient.search",
+            "SELECT * FROM ingredient WHERE LOWER(name) LIKE LOWER(?) ORDER BY id");
+    public static final String INGREDIENT_NAMES = define("ingredient.names", "SELECT id, name FROM ingredient");
+    public static final String INGREDIENT_NAMES_BY_IDS = define("ingredient.namesByIds",
+            "SELECT id, name FROM ingredient WHERE id = ANY(?)");
+    /** Ingredients by name, matched case-insensitively; it takes an array of lowercase names. */
+    public static final String INGREDIENT_NAMES_BY_LOWER_NAMES = define("ingredient.namesByLowerNames",
+            "SELECT id, name FROM ingredient WHERE LOWER(name) = ANY(?)");
+
+    /** Every ingredient, in any sort order. */
+    public static final Sorted INGREDIENT_SORTED = sorted("ingredient.sorted", new String[] { "id", "name" },
+            (column, direction) -> "SELECT * FROM ingredient ORDER BY " + column + " " + direction);
+
+    /** Ingredients whose name matches a term, in any sort order. */
+    public static final Sorted INGREDIENT_SEARCH_SORTED = sorted("ingredient.searchSorted", new String[] { "id", "name" },
+            (column, direction) -> "SELECT * FROM ingredient WHERE LOWER(name) LIKE LOWER(?) ORDER BY " + column + " " + direction);
+
+    private static final Sorted[] INGREDIENT_SEEK = seekFamily("ingredient", "SELECT * FROM ingredient",
+            "LOWER(name) LIKE LOWER(?)", "", "id", "name");
+
+    // Recipes
+
+    /**
+     * The recipe columns along with the author's chef columns. Every read joins CHEF so that a
+     * row maps to a Recipe and its author at once, rather than looking up each author separately.
+     */
+    private static final String RECIPE_COLUMNS = "recipe.id, recipe.name, recipe.instructions, recipe.chef_id, "
+            + "chef.username AS chef_username, chef.email AS chef_email, chef.password AS chef_password, "
+            + "chef.is_admin AS chef_is_admin";
+
+    /** The FROM clause joining each recipe to its author. */
+    private static final String RECIPE_FROM = " FROM recipe JOIN chef ON chef.id = recipe.chef_id";
+
+    /** The search condition shared by the term search queries; it takes the term twice. */
+    private static final String RECIPE_TERM = "(LOWER(recipe.name) LIKE LOWER(?) OR LOWER(recipe.instructions) LIKE LOWER(?))";
+
+    public static final String RECIPE_ALL = define("recipe.all", "SELECT " + RECIPE_COLUMNS + RECIPE_FROM + " ORDER BY recipe.id");
+    public static final String RECIPE_BY_ID = define("recipe.byId", "SELECT " + RECIPE_COLUMNS + RECIPE_FROM + " WHERE recipe.id=?");
+    public static final String RECIPE_BY_IDS = define("recipe.byIds",
+            "SELECT " + RECIPE_COLUMNS + RECIPE_FROM + " WHERE recipe.id = ANY(?)");
+    public static final String RECIPE_SEARCH = define("recipe.search",
+            "SELECT " + RECIPE_COLUMNS + RECIPE_FROM + " WHERE " + RECIPE_TERM + " ORDER BY recipe.id");
+    public static final String RECIPE_COUNT = define("recipe.count", "SELECT COUNT(*) FROM recipe");
+    public static final String RECIPE_SEARCH_COUNT = define("recipe.searchCount", "SELECT COUNT(*) FROM recipe WHERE " + RECIPE_TERM);
+    public static final String RECIPE_INSERT = define("recipe.insert",
+            "INSERT INTO recipe(name, instructions, chef_id) VALUES (?,?,?)");
+    public static final String RECIPE_UPDATE = define("recipe.update", "UPDATE recipe SET instructions=?, chef_id=? WHERE id=?");
+    /** Updates a recipe like RECIPE_UPDATE and reads back the row as written, in the same statement. */
+    public static final String RECIPE_UPDATE_RETURNING = define("recipe.updateReturning",
+            "SELECT " + RECIPE_COLUMNS + " FROM FINAL TABLE (UPDATE recipe SET instructions=?, chef_id=? WHERE id=?) recipe"
+            + " JOIN chef ON chef.id = recipe.chef_id");
+    public static final String RECIPE_DELETE = define("recipe.delete", "DELETE FROM recipe WHERE id = ?");
+    public static final String RECIPE_DELETE_INGREDIENTS = define("recipe.deleteIngredients",
+            "DELETE FROM recipe_ingredient WHERE recipe_id=?");
+    public static final String RECIPE_NAMES_TAKEN = define("recipe.namesTaken", "SELECT name FROM recipe WHERE name = ANY(?)");
+
+    /** One page of recipes with a window count of all recipes, in any sort order. */
+    public static final Sorted RECIPE_PAGE = sorted("recipe.page", new String[] { "id", "name" },
+            recipePage(RECIPE_COLUMNS, RECIPE_FROM, false));
+
+    /** One page of recipes matching a term with a window count of all matches, in any sort order. */
+    public static final Sorted RECIPE_SEARCH_PAGE = sorted("recipe.searchPage", new String[] { "id", "name" },
+            recipePage(RECIPE_COLUMNS, RECIPE_FROM, true));
+
+    private static final Sorted[] RECIPE_SEEK = seekFamily("recipe", "SELECT " + RECIPE_COLUMNS + RECIPE_FROM, RECIPE_TERM,
+            "recipe.", "id", "name");
+
+    // Recipe ingredients
+
+    /** The columns and joins of a recipe's ingredient list, ordered as it was written. */
+    private static final String RECIPE_INGREDIENT_SELECT =
+            "SELECT recipe_ingredient.recipe_id, ingredient.id, ingredient.name, recipe_ingredient.vol, recipe_ingredient.unit"
+            + " FROM recipe_ingredient JOIN ingredient ON ingredient.id = recipe_ingredient.ingredient_id";
+    private static final String RECIPE_INGREDIENT_ORDER = " ORDER BY recipe_ingredient.recipe_id, recipe_ingredient.id";
+
+    public static final String RECIPE_INGREDIENT_FOR_RECIPES = define("recipeIngredient.forRecipes",
+            RECIPE_INGREDIENT_SELECT + " WHERE recipe_ingredient.recipe_id = ANY(?)" + RECIPE_INGREDIENT_ORDER);
+    public static final String RECIPE_INGREDIENT_ALL = define("recipeIngredient.all",
+            RECIPE_INGREDIENT_SELECT + RECIPE_INGREDIENT_ORDER);
+    public static final String RECIPE_INGREDIENT_INSERT = define("recipeIngredient.insert",
+            "INSERT INTO recipe_ingredient(recipe_id, ingredient_id, vol, unit) VALUES (?,?,?,?)");
+
+    // Recipe summaries
+
+    /**
+     * The columns of a recipe summary: what a list shows, without the instructions, so they
+     * are never materialized, copied into the result or serialized.
+     */
+    private static final String RECIPE_SUMMARY_COLUMNS = "recipe.id, recipe.name, recipe.chef_id, chef.username AS chef_username";
+
+    /**
+     * The FROM clause of the summaries. Given an inner join, H2 scans CHEF and probes RECIPE
+     * through its chef_id index, then sorts. H2 keeps the table order of an outer join, so it
+     * walks RECIPE through its primary key or name index instead and looks up each author by
+     * primary key. Every recipe has an author, so the outer join returns the same rows.
+     */
+    private static final String RECIPE_SUMMARY_FROM = " FROM recipe LEFT JOIN chef ON chef.id = recipe.chef_id";
+
+    public static final String RECIPE_SUMMARY_ALL = define("recipe.summary.all",
+            "SELECT " + RECIPE_SUMMARY_COLUMNS + RECIPE_SUMMARY_FROM + " ORDER BY recipe.id");
+    public static final String RECIPE_SUMMARY_BY_IDS = define("recipe.summary.byIds",
+            "SELECT " + RECIPE_SUMMARY_COLUMNS + RECIPE_SUMMARY_FROM + " WHERE recipe.id = ANY(?)");
+    public static final String RECIPE_SUMMARY_SEARCH = define("recipe.summary.search",
+            "SELECT " + RECIPE_SUMMARY_COLUMNS + RECIPE_SUMMARY_FROM + " WHERE " + RECIPE_TERM + " ORDER BY recipe.id");
+
+    /** One page of recipe summaries with a window count of all recipes, in any sort order. */
+    public static final Sorted RECIPE_SUMMARY_PAGE = sorted("recipe.summary.page", new String[] { "id", "name" },
+            recipePage(RECIPE_SUMMARY_COLUMNS, RECIPE_SUMMARY_FROM, false));
+
+    /** One page of summaries of recipes matching a term with a window count of all matches, in any sort order. */
+    public static final Sorted RECIPE_SUMMARY_SEARCH_PAGE = sorted("recipe.summary.searchPage", new String[] { "id", "name" },
+            recipePage(RECIPE_SUMMARY_COLUMNS, RECIPE_SUMMARY_FROM, true));
+
+    private static final Sorted[] RECIPE_SUMMARY_SEEK = seekFamily("recipe.summary",
+            "SELECT " + RECIPE_SUMMARY_COLUMNS + RECIPE_SUMMARY_FROM, RECIPE_TERM, "recipe.", "id", "name");
+
+    private SqlTemplates() {
+    }
+
+    /**
+     * @param term  whether the statement filters by a search term
+     * @param after whether the statement continues from a cursor
+     * @return the keyset page statements for chefs
+     */
+    public static Sorted chefSeek(boolean term, boolean after) {
+        return CHEF_SEEK[seekIndex(term, after)];
+    }
+
+    /**
+     * @param term  whether the statement filters by a search term
+     * @param after whether the statement continues from a cursor
+     * @return the keyset page statements for ingredients
+     */
+    public static Sorted ingredientSeek(boolean term, boolean after) {
+        return INGREDIENT_SEEK[seekIndex(term, after)];
+    }
+
+    /**
+     * @param term  whether the statement filters by a search term
+     * @param after whether the statement continues from a cursor
+     * @return the keyset page statements for recipes
+     */
+    public static Sorted recipeSeek(boolean term, boolean after) {
+        return RECIPE_SEEK[seekIndex(term, after)];
+    }
+
+    /**
+     * @param term  whether the statement filters by a search term
+     * @param after whether the statement continues from a cursor
+     * @return the keyset page statements for recipe summaries
+     */
+    public static Sorted recipeSummarySeek(boolean term, boolean after) {
+        return RECIPE_SUMMARY_SEEK[seekIndex(term, after)];
+    }
+
+    /**
+     * @return every registered template by name, sorted variants included
+     */
+    public static Map<String, String> all() {
+        return Collections.unmodifiableMap(TEMPLATES);
+    }
+
+    /**
+     * Prepares every template on a connection, without executing any.
+     *
+     * @param conn a connection to a migrated database
+     * @throws SQLException naming every template the database rejected
+     */
+    public static void validate(Connection conn) throws SQLException {
+        List<String> failures = new ArrayList<>();
+        for (Map.Entry<String, String> template : TEMPLATES.entrySet()) {
+            try {
+                // parsing is all that is needed
+                conn.prepareStatement(template.getValue()).close();
+            } catch (SQLException e) {
+                failures.add(template.getKey() + ": " + e.getMessage());
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new SQLException("Invalid SQL templates: " + String.join("; ", failures));
+        }
+    }
+
+    private static String define(String name, String sql) {
+        if (TEMPLATES.putIfAbsent(name, sql) != null) {
+            throw new IllegalStateException("Duplicate SQL template " + name);
+        }
+        return sql;
+    }
+
+    private static Sorted sorted(String name, String[] columns, SortedBuilder builder) {
+        String[] sql = new String[columns.length * DIRECTIONS.length];
+        for (int c = 0; c < columns.length; c++) {
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                sql[c * DIRECTIONS.length + d] = define(name + "." + columns[c] + "." + DIRECTIONS[d].toLowerCase(),
+                        builder.build(columns[c], DIRECTIONS[d]));
+            }
+        }
+        return new Sorted(name, columns, sql);
+    }
+
+    /**
+     * Builds the LIMIT/OFFSET page statements of a recipe projection, with a window count of
+     * every matching row.
+     */
+    private static SortedBuilder recipePage(String columns, String from, boolean term) {
+        return (column, direction) -> "SELECT " + columns + ", COUNT(*) OVER () AS total_count" + from
+                + (term ? " WHERE " + RECIPE_TERM : "") + " ORDER BY recipe." + column + " " + direction + " LIMIT ? OFFSET ?";
+    }
+
+    /**
+     * Registers the four keyset page families of an entity: with or without a term filter,
+     * and with or without a cursor to continue from.
+     */
+    private static Sorted[] seekFamily(String entity, String selectFrom, String termCondition, String qualifier,
+            String idColumn, String otherColumn) {
+        Sorted[] family = new Sorted[4];
+        for (int i = 0; i < family.length; i++) {
+            boolean term = (i & 1) != 0;
+            boolean after = (i & 2) != 0;
+            String name = entity + (term ? ".searchSeek" : ".seek") + (after ? "After" : "");
+            family[i] = sorted(name, new String[] { idColumn, otherColumn }, (column, direction) -> {
+                List<String> conditions = new ArrayList<>();
+                if (term) {
+                    conditions.add(termCondition);
+                }
+                if (after) {
+                    conditions.add(Cursor.predicate(qualifier + column, qualifier + idColumn, direction));
+                }
+                return selectFrom
+                        + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+                        + " ORDER BY " + qualifier + column + " " + direction
+                        + ", " + qualifier + idColumn + " " + direction + " LIMIT ?";
+            });
+        }
+        return family;
+    }
+
+    private static int seekIndex(boolean term, boolean after) {
+        return (term ? 1 : 0) | (after ? 2 : 0);
+    }
+
+    private interface SortedBuilder {
+        String build(String column, String direction);
+    }
+
+    /**
+     * A family of statements that differ only in their ORDER BY column and direction.
+     */
+    public static final class Sorted {
+
+        private final String name;
+        private final String[] columns;
+        private final String[] sql;
+
+        private Sorted(String name, String[] columns, String[] sql) {
+            this.name = name;
+            this.columns = columns;
+            this.sql = sql;
+        }
+
+        /**
+         * @param column    a whitelisted sort column, exactly as registered
+         * @param direction "ASC" or "DESC"
+         * @return the statement for that order
+         * @throws IllegalArgumentException if the column or direction is not whitelisted
+         */
+        public String get(String column, String direction) {
+            for (int c = 0; c < columns.length; c++) {
+                if (columns[c].equals(column)) {
+                    if ("ASC".equals(direction)) {
+                        return sql[c * DIRECTIONS.length];
+                    } else if ("DESC".equals(direction)) {
+                        return sql[c * DIRECTIONS.length + 1];
+                    }
+                    break;
+                }
+            }
+            throw new IllegalArgumentException("No " + name + " template ordered by " + column + " " + direction);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.revature.dao;
+
+import java.sql.SQLException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The WriteResult enum is the outcome of a conditional write that runs as a single statement.
+ * The DAO reads it from the affected row count or from the constraint the statement broke,
+ * instead of looking the row up first, so callers can answer 404 or 409 without a second
+ * round trip.
+ */
+public enum WriteResult {
+
+    /** The row was written. */
+    APPLIED,
+    /** No row matched the statement's key. */
+    NOT_FOUND,
+    /**
+     * The write would have broken a unique constraint, such as a taken name, or referenced a
+     * row that does not exist, such as an unknown author.
+     */
+    CONFLICT,
+    /** The statement failed for another reason; the error has been logged. */
+    FAILED;
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteResult.class);
+
+    /** The SQL state of a unique constraint violation. */
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+    /** The SQL state of a foreign key referencing a missing row. */
+    private static final String MISSING_PARENT_STATE = "23506";
+
+    /**
+     * @param affectedRows the update count of the statement
+     * @return APPLIED if any row was written, otherwise NOT_FOUND
+     */
+    public static WriteResult of(int affectedRows) {
+        return affectedRows > 0 ? APPLIED : NOT_FOUND;
+    }
+
+    /**
+     * Classifies a failed write, logging it unless it is an expected constraint violation.
+     *
+     * @param e the exception the statement threw
+     * @return CONFLICT for a unique or foreign key violation, otherwise FAILED
+     */
+    public static WriteResult of(SQLException e) {
+        if (UNIQUE_VIOLATION_STATE.equals(e.getSQLState()) || MISSING_PARENT_STATE.equals(e.getSQLState())) {
+            return CONFLICT;
+        }
+        logger.error("Write failed with SQL state {}", e.getSQLState(), e);
+        return FAILED;
+    }
+}
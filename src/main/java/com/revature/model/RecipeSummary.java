@@ -0,0 +1,128 @@
+package com.revature.model;
+
+import java.util.Objects;
+
+/**
+ * The RecipeSummary class is the list view of a recipe: its id, its name and who wrote it.
+ * It leaves out the instructions, which can be any length, so that a page of summaries can
+ * be read and serialized without touching them. Clients that need the instructions fetch
+ * the full {@link Recipe}.
+ */
+public class RecipeSummary {
+
+    // fields
+
+    /** The unique identifier of the recipe. */
+    private int id;
+    /** The name of the recipe. */
+    private String name;
+    /** The chef who wrote the recipe, by id and username only. */
+    private Author author;
+
+    // constructors
+    public RecipeSummary() {
+        // No-arg constructor
+    }
+
+    public RecipeSummary(int id, String name, int authorId, String authorUsername) {
+        this.id = id;
+        this.name = name;
+        this.author = new Author(authorId, authorUsername);
+    }
+
+    // getters and setters
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Author getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(Author author) {
+        this.author = author;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, author);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        RecipeSummary summary = (RecipeSummary) obj;
+        return id == summary.id && Objects.equals(name, summary.name) && Objects.equals(author, summary.author);
+    }
+
+    @Override
+    public String toString() {
+        return "RecipeSummary{" +
+               "id=" + id +
+               ", name='" + name + '\'' +
+               ", author=" + (author != null ? author.getUsername() : "Unknown") +
+               '}';
+    }
+
+    /**
+     * The author of a summarized recipe. Only the public parts of the chef are carried.
+     */
+    public static class Author {
+
+        /** The unique identifier of the chef. */
+        private int id;
+        /** The chef's username. */
+        private String username;
+
+        public Author() {
+            // No-arg constructor
+        }
+
+        public Author(int id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(int id) {
+            this.id = id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, username);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || getClass() != obj.getClass()) return false;
+            Author other = (Author) obj;
+            return id == other.id && Objects.equals(username, other.username);
+        }
+    }
+}
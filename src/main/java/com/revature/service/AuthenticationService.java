@@ -1,6 +1,4 @@
 package com.revature.service;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,7 +10,7 @@ import com.revature.model.Chef;
  * for Chef objects. It manages the login, logout, and registration
  * processes, as well as session management for chefs. This service 
  * utilizes a ChefService to perform operations related to chefs and 
- * maintains a session map to track active sessions.
+ * maintains a session store to track active sessions.
  */
 
 public class AuthenticationService {
@@ -24,21 +22,39 @@ public class AuthenticationService {
     
     private final ChefService chefService;
 
-    /** A map that keeps track of currently logged in users, indexed by session token. */
-    public static Map<String, Chef> loggedInUsers = new HashMap<>();
+    /**
+     * The store shared by services that are not given one, so that sessions created through one
+     * instance are visible to every other, as they were with the former static map.
+     */
+    private static final class DefaultStoreHolder {
+        private static final SessionStore STORE = InMemorySessionStore.fromConfig();
+    }
+
+    /** The store that keeps track of currently logged in users, indexed by session token. */
+    private final SessionStore sessions;
 
     /**
-     * Constructs an AuthenticationService with the specified ChefService and a newly created HashMap for the LoggedInUsers.
+     * Constructs an AuthenticationService with the specified ChefService and the process-wide session store.
      *
      * @param chefService the ChefService to be used by this authentication service
      */
     public AuthenticationService(ChefService chefService) {
+        this(chefService, DefaultStoreHolder.STORE);
+    }
+
+    /**
+     * Constructs an AuthenticationService with the specified ChefService and SessionStore.
+     *
+     * @param chefService the ChefService to be used by this authentication service
+     * @param sessions    the store that keeps track of logged in users
+     */
+    public AuthenticationService(ChefService chefService, SessionStore sessions) {
         this.chefService = chefService;
-        loggedInUsers = new HashMap<>();
+        this.sessions = sessions;
     }
 
     /**
-     * TODO: Authenticates a chef by verifying the provided credentials. If successful, a session token is generated and stored in the logged in users map.
+     * TODO: Authenticates a chef by verifying the provided credentials. If successful, a session token is generated and stored in the session store.
      * 
      * @param chef the Chef object containing login credentials
      * @return a session token if the login is successful; null otherwise
@@ -48,20 +64,20 @@ public class AuthenticationService {
 
         if(existingChef.isPresent()&& existingChef.get().getPassword().equals(chef.getPassword())){
           String token =UUID.randomUUID().toString();
-          loggedInUsers.put(token, existingChef.get());
+          sessions.put(token, existingChef.get());
           return token;  
         }
         return null; 
     }
 
     /**
-     * TODO: Logs out a chef by removing their session token from the LoggedInUsers map.
+     * TODO: Logs out a chef by removing their session token from the session store.
      *
      * @param token the session token of the chef to be logged out
      */
 
     public void logout(String token) {
-        loggedInUsers.remove(token);
+        sessions.remove(token);
         
     }
 
@@ -80,13 +96,26 @@ public class AuthenticationService {
      * TODO: Retrieves a Chef object from the session token.
      *
      * @param token the session token used to retrieve the chef
-     * @return the Chef object associated with the session token; null if not found
+     * @return the Chef object associated with the session token; null if not found or expired
      */
     public Chef getChefFromSessionToken(String token) {
-        return loggedInUsers.get(token);
+        return sessions.get(token);
     }
 
+    /**
+     * Checks whether a session token belongs to a live session.
+     *
+     * @param token the session token to check
+     * @return true if the token is known and has not expired
+     */
     public boolean isTokenValid(String token) {
-        return loggedInUsers.containsKey(token);
+        return sessions.get(token) != null;
+    }
+
+    /**
+     * @return the store holding the sessions of this service
+     */
+    public SessionStore getSessionStore() {
+        return sessions;
     }
 }
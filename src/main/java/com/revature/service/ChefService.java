@@ -5,6 +5,9 @@ import java.util.Optional;
 
 import com.revature.model.Chef;
 import com.revature.dao.ChefDAO;
+import com.revature.dao.RegistrationResult;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 
@@ -73,6 +76,18 @@ public Optional<Chef> getChefByUsername(String username) {
         
     }
 
+    /**
+     * Creates a new Chef unless the username or email is taken, in one statement. The `chef`
+     * parameter's ID is set when it is created.
+     *
+     * @param chef the Chef to be created
+     * @return APPLIED, USERNAME_TAKEN or EMAIL_TAKEN if another Chef already has the
+     *         username or email, or FAILED
+     */
+    public RegistrationResult registerChef(Chef chef) {
+        return chefDAO.createChefIfAbsent(chef);
+    }
+
     
 	/**
      * TODO: Searches for Chefs based on a search term.
@@ -116,6 +131,23 @@ public Optional<Chef> getChefByUsername(String username) {
         }
         return chefDAO.searchChefsByTerm(term,options);
     }
-}
-
 
+    /**
+     * Searches for chefs using keyset (seek) pagination. When a cursor is given, the
+     * sort options it carries take precedence over the sortBy and sortDirection arguments.
+     *
+     * @param term the search term used to find chefs, or null for all chefs
+     * @param after the cursor of the last chef already returned, or null for the first page
+     * @param pageSize the number of chefs per page
+     * @param sortBy the field by which to sort the results
+     * @param sortDirection the direction of sorting (ascending or descending)
+     * @return a CursorPage containing the results and the cursor for the next page
+     */
+    public CursorPage<Chef> scrollChefs(String term, Cursor after, int pageSize, String sortBy, String sortDirection) {
+        PageOptions options = new PageOptions(1, pageSize, sortBy, sortDirection);
+        if(term==null||term.isEmpty()){
+            return chefDAO.getAllChefs(options, after);
+        }
+        return chefDAO.searchChefsByTerm(term, options, after);
+    }
+}
@@ -0,0 +1,279 @@
+package com.revature.service;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import com.revature.model.Chef;
+import com.revature.util.Config;
+
+/**
+ * The InMemorySessionStore class keeps sessions in a ConcurrentHashMap. Lookups are lock-free
+ * and writes only contend within a single hash bin, so concurrent logins do not serialize on
+ * one lock the way a synchronized map would.
+ *
+ * Sessions expire once they have gone unused for the configured time to live. Expired
+ * sessions are rejected on lookup and removed by a background reaper. When the store is at
+ * capacity, a session is evicted to make room, chosen by the CLOCK approximation of least
+ * recently used: sessions are queued in login order, and one that has been used since it was
+ * queued is sent to the back once more instead of being evicted. Making room therefore looks
+ * at a handful of sessions, not the whole store. A login first reserves its slot, so
+ * concurrent logins cannot push the store past its capacity.
+ *
+ * Validating a token allocates nothing: it is a map lookup and, at most once per second per
+ * session, a write of the last access time.
+ */
+public final class InMemorySessionStore implements SessionStore, AutoCloseable {
+
+    /** Last access times are only refreshed when older than this, to avoid needless writes. */
+    private static final long ACCESS_RESOLUTION_MILLIS = 1000;
+
+    /** The most recently used sessions skipped before the next one is evicted regardless. */
+    private static final int MAX_SECOND_CHANCES = 8;
+
+    private final ConcurrentHashMap<String, Session> sessions = new ConcurrentHashMap<>();
+    /** Sessions in the order they were queued for eviction; may hold removed sessions. */
+    private final ConcurrentLinkedQueue<Session> evictionOrder = new ConcurrentLinkedQueue<>();
+    /** Stored sessions plus slots reserved by logins in progress. */
+    private final AtomicInteger reserved = new AtomicInteger();
+    /** Removed sessions still in the eviction queue. */
+    private final AtomicInteger stale = new AtomicInteger();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private final long ttlMillis;
+    private final int maxSessions;
+    private final LongSupplier clock;
+    private final ScheduledExecutorService reaper;
+
+    /**
+     * Creates a store using the system clock.
+     *
+     * @param ttlMillis          how long a session may go unused before it expires
+     * @param maxSessions        the maximum number of sessions held at once
+     * @param reapIntervalMillis the interval between reaper runs, or 0 to disable the reaper
+     */
+    public InMemorySessionStore(long ttlMillis, int maxSessions, long reapIntervalMillis) {
+        this(ttlMillis, maxSessions, reapIntervalMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a store using the given clock.
+     *
+     * @param ttlMillis          how long a session may go unused before it expires
+     * @param maxSessions        the maximum number of sessions held at once
+     * @param reapIntervalMillis the interval between reaper runs, or 0 to disable the reaper
+     * @param clock              the source of the current time in milliseconds
+     */
+    public InMemorySessionStore(long ttlMillis, int maxSessions, long reapIntervalMillis, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.maxSessions = Math.max(1, maxSessions);
+        this.clock = clock;
+        if (reapIntervalMillis > 0) {
+            this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "session-reaper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.reaper.scheduleWithFixedDelay(this::purgeExpired, reapIntervalMillis, reapIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.reaper = null;
+        }
+    }
+
+    /**
+     * Creates a store from the "recipe.session.*" settings read through {@link Config}.
+     *
+     * @return the configured store
+     */
+    public static InMemorySessionStore fromConfig() {
+        return new InMemorySessionStore(
+                TimeUnit.MINUTES.toMillis(Config.getLong("recipe.session.ttlMinutes", 120)),
+                Config.getInt("recipe.session.maxSessions", 100_000),
+                TimeUnit.SECONDS.toMillis(Config.getLong("recipe.session.reapIntervalSeconds", 60)));
+    }
+
+    @Override
+    public void put(String token, Chef chef) {
+        reserveSlot();
+        Session session = new Session(token, chef, clock.getAsLong());
+        Session replaced = sessions.put(token, session);
+        if (replaced != null) {
+            reserved.decrementAndGet();
+            discarded();
+        }
+        evictionOrder.add(session);
+    }
+
+    @Override
+    public Chef get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        if (now - session.lastAccess > ttlMillis) {
+            remove(session);
+            return null;
+        }
+        if (now - session.lastAccess > ACCESS_RESOLUTION_MILLIS) {
+            session.lastAccess = now;
+        }
+        return session.chef;
+    }
+
+    @Override
+    public void remove(String token) {
+        if (token != null) {
+            Session session = sessions.get(token);
+            if (session != null) {
+                remove(session);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return sessions.size();
+    }
+
+    @Override
+    public int purgeExpired() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Session session : sessions.values()) {
+            if (now - session.lastAccess > ttlMillis && remove(session)) {
+                removed++;
+            }
+        }
+        compact();
+        return removed;
+    }
+
+    /**
+     * Stops the reaper. Sessions already stored remain readable.
+     */
+    @Override
+    public void close() {
+        if (reaper != null) {
+            reaper.shutdownNow();
+        }
+    }
+
+    /**
+     * Takes a slot for a new session, evicting one if the store is full.
+     */
+    private void reserveSlot() {
+        while (true) {
+            int current = reserved.get();
+            if (current < maxSessions) {
+                if (reserved.compareAndSet(current, current + 1)) {
+                    return;
+                }
+            } else if (!evictOne()) {
+                // every slot is held by a login still storing its session
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /**
+     * Evicts the session at the front of the eviction queue, unless it has been used since
+     * it was queued, in which case it goes to the back and the next one is considered. After
+     * a few such second chances the front session is evicted regardless.
+     *
+     * @return whether a session was evicted
+     */
+    private boolean evictOne() {
+        long now = clock.getAsLong();
+        int chances = 0;
+        Session candidate;
+        while ((candidate = evictionOrder.poll()) != null) {
+            if (sessions.get(candidate.token) != candidate) {
+                // already removed
+                stale.decrementAndGet();
+                continue;
+            }
+            boolean expired = now - candidate.lastAccess > ttlMillis;
+            if (!expired && candidate.lastAccess > candidate.queuedAt && chances++ < MAX_SECOND_CHANCES) {
+                candidate.queuedAt = now;
+                evictionOrder.add(candidate);
+                continue;
+            }
+            if (sessions.remove(candidate.token, candidate)) {
+                reserved.decrementAndGet();
+                return true;
+            }
+            stale.decrementAndGet();
+        }
+        return false;
+    }
+
+    /**
+     * @return whether this call removed the session
+     */
+    private boolean remove(Session session) {
+        if (!sessions.remove(session.token, session)) {
+            return false;
+        }
+        reserved.decrementAndGet();
+        discarded();
+        return true;
+    }
+
+    /**
+     * Counts a removed session left in the eviction queue, and drops such sessions from the
+     * queue once there are as many of them as the store can hold.
+     */
+    private void discarded() {
+        if (stale.incrementAndGet() > maxSessions) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int dropped = 0;
+            Iterator<Session> it = evictionOrder.iterator();
+            while (it.hasNext()) {
+                Session session = it.next();
+                if (sessions.get(session.token) != session) {
+                    it.remove();
+                    dropped++;
+                }
+            }
+            stale.addAndGet(-dropped);
+        } finally {
+            compacting.set(false);
+        }
+    }
+
+    /**
+     * A logged in session, the last time it was used, and when it was last queued for eviction.
+     */
+    private static class Session {
+
+        private final String token;
+        private final Chef chef;
+        private volatile long lastAccess;
+        private volatile long queuedAt;
+
+        Session(String token, Chef chef, long now) {
+            this.token = token;
+            this.chef = chef;
+            this.lastAccess = now;
+            this.queuedAt = now;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.revature.service;
+
+import com.revature.model.Ingredient;
+
+/**
+ * The IngredientChangeListener interface is notified by {@link IngredientService} after an
+ * ingredient has been written, so that structures holding ingredient names, such as the
+ * ingredient search index, stay in sync with the database.
+ *
+ * Listeners are called on the thread that performed the write and should return quickly.
+ */
+public interface IngredientChangeListener {
+
+    /**
+     * Called after an ingredient has been created or renamed.
+     *
+     * @param ingredient the ingredient as it was saved, including its id
+     */
+    void ingredientSaved(Ingredient ingredient);
+
+    /**
+     * Called after an ingredient has been deleted, along with its use in every recipe.
+     *
+     * @param id the id of the deleted ingredient
+     */
+    void ingredientDeleted(int id);
+}
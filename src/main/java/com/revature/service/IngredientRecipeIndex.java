@@ -0,0 +1,408 @@
+package com.revature.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+
+/**
+ * The IngredientRecipeIndex class maps each ingredient to the set of recipes that use it,
+ * so "recipes with X and Y but not Z" and pantry queries ("what can I cook with these
+ * items") are answered in memory instead of with joins over RECIPE_INGREDIENT.
+ *
+ * Each set of recipe ids starts as a sorted int array and switches to a bitmap once it is
+ * dense enough for the bitmap to be smaller, so rare and common ingredients both stay
+ * compact. Queries walk the smallest set and probe the others.
+ *
+ * Ingredients are looked up by name, case-insensitively. Names come only from INGREDIENT
+ * rows read from the database and from {@link IngredientChangeListener}, never from a saved
+ * recipe, whose ingredient names are whatever its client sent; only the ids of a saved
+ * recipe's ingredients are used. The index is loaded from the database once and then kept
+ * in sync through both listener interfaces; a saved recipe only changes the index when it
+ * carries an ingredient list.
+ */
+public class IngredientRecipeIndex implements RecipeChangeListener, IngredientChangeListener {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Ingredient id to the ids of the recipes using it. */
+    private final Map<Integer, RecipeIdSet> recipesByIngredient = new HashMap<>();
+    /** Recipe id to the ids of its distinct ingredients. */
+    private final Map<Integer, int[]> ingredientsByRecipe = new HashMap<>();
+    /** Lowercase ingredient name to ingredient id. */
+    private final Map<String, Integer> ingredientIds = new HashMap<>();
+    /** Ingredient id to its lowercase name, the inverse of ingredientIds. */
+    private final Map<Integer, String> ingredientNames = new HashMap<>();
+    private volatile boolean built;
+
+    /**
+     * Loads every ingredient name and every recipe's ingredients into the index unless that
+     * has already happened.
+     *
+     * @param names  supplies the names of all ingredients, by ingredient id
+     * @param loader supplies the ingredient lists of all recipes, by recipe id
+     */
+    public void ensureBuilt(Supplier<Map<Integer, String>> names,
+            Supplier<Map<Integer, List<RecipeIngredient>>> loader) {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                for (Map.Entry<Integer, String> entry : names.get().entrySet()) {
+                    name(entry.getKey(), entry.getValue());
+                }
+                for (Map.Entry<Integer, List<RecipeIngredient>> entry : loader.get().entrySet()) {
+                    put(entry.getKey(), entry.getValue());
+                }
+                built = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Finds recipes that use every included ingredient and none of the excluded ones.
+     *
+     * @param include the names of ingredients the recipes must use; at least one
+     * @param exclude the names of ingredients the recipes must not use
+     * @param limit   the maximum number of ids to return
+     * @return the matching recipe ids in ascending order
+     */
+    public List<Integer> findRecipes(Collection<String> include, Collection<String> exclude, int limit) {
+        if (include == null || include.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            List<RecipeIdSet> required = new ArrayList<>();
+            for (String name : include) {
+                RecipeIdSet set = setFor(name);
+                if (set == null) {
+                    return Collections.emptyList();
+                }
+                required.add(set);
+            }
+            List<RecipeIdSet> excluded = new ArrayList<>();
+            if (exclude != null) {
+                for (String name : exclude) {
+                    RecipeIdSet set = setFor(name);
+                    if (set != null) {
+                        excluded.add(set);
+                    }
+                }
+            }
+            required.sort(Comparator.comparingInt(RecipeIdSet::size));
+            RecipeIdSet smallest = required.get(0);
+            List<RecipeIdSet> others = required.subList(1, required.size());
+            List<Integer> ids = new ArrayList<>();
+            smallest.forEachUntil(id -> {
+                if (containedInAll(others, id) && !containedInAny(excluded, id)) {
+                    ids.add(id);
+                }
+                return ids.size() < limit;
+            });
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds recipes that can be cooked with the given ingredients alone, i.e. whose every
+     * ingredient is in the pantry. Recipes without any ingredients are not returned.
+     *
+     * @param pantry the names of the available ingredients
+     * @param limit  the maximum number of ids to return
+     * @return the matching recipe ids in ascending order
+     */
+    public List<Integer> findCookable(Collection<String> pantry, int limit) {
+        if (pantry == null || pantry.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Integer, Integer> matched = new HashMap<>();
+            for (Integer ingredientId : resolveDistinct(pantry)) {
+                RecipeIdSet set = recipesByIngredient.get(ingredientId);
+                if (set != null) {
+                    set.forEachUntil(id -> {
+                        matched.merge(id, 1, Integer::sum);
+                        return true;
+                    });
+                }
+            }
+            List<Integer> ids = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> entry : matched.entrySet()) {
+                if (entry.getValue() == ingredientsByRecipe.get(entry.getKey()).length) {
+                    ids.add(entry.getKey());
+                }
+            }
+            Collections.sort(ids);
+            return ids.size() > limit ? new ArrayList<>(ids.subList(0, limit)) : ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void recipeSaved(Recipe recipe) {
+        if (recipe.getIngredients() == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            remove(recipe.getId());
+            put(recipe.getId(), recipe.getIngredients());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void recipeDeleted(int id) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void ingredientSaved(Ingredient ingredient) {
+        lock.writeLock().lock();
+        try {
+            // before the build, the build itself reads the new name from the database
+            if (built) {
+                name(ingredient.getId(), ingredient.getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void ingredientDeleted(int id) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            unname(id);
+            // the database drops the deleted ingredient from every recipe using it
+            RecipeIdSet set = recipesByIngredient.remove(id);
+            if (set != null) {
+                set.forEachUntil(recipeId -> {
+                    int[] ids = ingredientsByRecipe.get(recipeId);
+                    int at = Arrays.binarySearch(ids, id);
+                    if (ids.length == 1) {
+                        ingredientsByRecipe.remove(recipeId);
+                    } else if (at >= 0) {
+                        int[] rest = new int[ids.length - 1];
+                        System.arraycopy(ids, 0, rest, 0, at);
+                        System.arraycopy(ids, at + 1, rest, at, rest.length - at);
+                        ingredientsByRecipe.put(recipeId, rest);
+                    }
+                    return true;
+                });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void name(int ingredientId, String name) {
+        unname(ingredientId);
+        if (name != null) {
+            String key = name.trim().toLowerCase(Locale.ROOT);
+            ingredientIds.put(key, ingredientId);
+            ingredientNames.put(ingredientId, key);
+        }
+    }
+
+    private void unname(int ingredientId) {
+        String old = ingredientNames.remove(ingredientId);
+        if (old != null) {
+            ingredientIds.remove(old, ingredientId);
+        }
+    }
+
+    private void put(int recipeId, List<RecipeIngredient> ingredients) {
+        if (ingredients == null || ingredients.isEmpty()) {
+            return;
+        }
+        int[] ids = new int[ingredients.size()];
+        int count = 0;
+        for (RecipeIngredient ingredient : ingredients) {
+            ids[count++] = ingredient.getId();
+        }
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (i == 0 || ids[i] != ids[i - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        ids = Arrays.copyOf(ids, distinct);
+        for (int ingredientId : ids) {
+            recipesByIngredient.computeIfAbsent(ingredientId, k -> new RecipeIdSet()).add(recipeId);
+        }
+        ingredientsByRecipe.put(recipeId, ids);
+    }
+
+    private void remove(int recipeId) {
+        int[] ids = ingredientsByRecipe.remove(recipeId);
+        if (ids == null) {
+            return;
+        }
+        for (int ingredientId : ids) {
+            RecipeIdSet set = recipesByIngredient.get(ingredientId);
+            if (set != null) {
+                set.remove(recipeId);
+                if (set.size() == 0) {
+                    recipesByIngredient.remove(ingredientId);
+                }
+            }
+        }
+    }
+
+    private RecipeIdSet setFor(String name) {
+        Integer id = name == null ? null : ingredientIds.get(name.trim().toLowerCase(Locale.ROOT));
+        return id == null ? null : recipesByIngredient.get(id);
+    }
+
+    private List<Integer> resolveDistinct(Collection<String> names) {
+        List<Integer> ids = new ArrayList<>();
+        for (String name : names) {
+            Integer id = name == null ? null : ingredientIds.get(name.trim().toLowerCase(Locale.ROOT));
+            if (id != null && !ids.contains(id)) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static boolean containedInAll(List<RecipeIdSet> sets, int id) {
+        for (RecipeIdSet set : sets) {
+            if (!set.contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containedInAny(List<RecipeIdSet> sets, int id) {
+        for (RecipeIdSet set : sets) {
+            if (set.contains(id)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A set of recipe ids held as a sorted array while sparse and as a bitmap once dense.
+     */
+    private static final class RecipeIdSet {
+
+        /** Below this size the array is always kept, since it is small either way. */
+        private static final int MIN_BITMAP_SIZE = 1024;
+
+        private int[] ids = new int[4];
+        private BitSet bits;
+        private int size;
+
+        void add(int id) {
+            if (bits != null) {
+                if (!bits.get(id)) {
+                    bits.set(id);
+                    size++;
+                }
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                return;
+            }
+            int insert = -at - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insert, ids, insert + 1, size - insert);
+            ids[insert] = id;
+            size++;
+            // a bitmap costs maxId / 8 bytes, the array 4 bytes per id
+            if (size >= MIN_BITMAP_SIZE && ids[size - 1] / 8 < size * 4) {
+                bits = new BitSet(ids[size - 1] + 1);
+                for (int i = 0; i < size; i++) {
+                    bits.set(ids[i]);
+                }
+                ids = null;
+            }
+        }
+
+        void remove(int id) {
+            if (bits != null) {
+                if (bits.get(id)) {
+                    bits.clear(id);
+                    size--;
+                }
+                return;
+            }
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at >= 0) {
+                System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+                size--;
+            }
+        }
+
+        boolean contains(int id) {
+            return bits != null ? bits.get(id) : Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Visits the ids in ascending order until the visitor returns false.
+         */
+        void forEachUntil(IdVisitor visitor) {
+            if (bits != null) {
+                for (int id = bits.nextSetBit(0); id >= 0; id = bits.nextSetBit(id + 1)) {
+                    if (!visitor.visit(id)) {
+                        return;
+                    }
+                }
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                if (!visitor.visit(ids[i])) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives recipe ids and says whether to continue.
+     */
+    @FunctionalInterface
+    private interface IdVisitor {
+        boolean visit(int id);
+    }
+}
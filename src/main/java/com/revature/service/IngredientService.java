@@ -1,9 +1,13 @@
 package com.revature.service;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.revature.dao.IngredientDAO;
+import com.revature.dao.WriteResult;
 import com.revature.model.Ingredient;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 
@@ -22,6 +26,9 @@ public class IngredientService {
     
     private IngredientDAO ingredientDAO;
 
+    /** The listeners notified after each ingredient write. */
+    private final List<IngredientChangeListener> listeners = new CopyOnWriteArrayList<>();
+
     /**
      * Constructs an IngredientService with the specified IngredientDao.
      *
@@ -34,6 +41,15 @@ public class IngredientService {
       this.ingredientDAO = ingredientDAO; 
     }
 
+    /**
+     * Registers a listener to be notified after ingredients are created, renamed or deleted.
+     *
+     * @param listener the listener to add
+     */
+    public void addChangeListener(IngredientChangeListener listener) {
+        listeners.add(listener);
+    }
+
     /**
      * TODO: Finds an Ingredient by its unique identifier.
      *
@@ -64,6 +80,26 @@ public class IngredientService {
     return ingredientDAO.searchIngredients(term, options);
     }
 
+    /**
+     * Searches for Ingredients using keyset (seek) pagination. When a cursor is given, the
+     * sort options it carries take precedence over the sortBy and sortDirection arguments.
+     *
+     * @param term the search term for filtering Ingredients, or null for all Ingredients
+     * @param after the cursor of the last Ingredient already returned, or null for the first page
+     * @param pageSize the number of results per page
+     * @param sortBy the field to sort the results by
+     * @param sortDirection the direction of sorting (e.g., "asc" or "desc")
+     * @return a CursorPage containing the results and the cursor for the next page
+     */
+    public CursorPage<Ingredient> scrollIngredients(String term, Cursor after, int pageSize, String sortBy, String sortDirection) {
+        PageOptions options = new PageOptions(1, pageSize, sortBy, sortDirection);
+
+        if(term==null||term.isBlank()){
+            return ingredientDAO.getAllIngredients(options, after);
+        }
+        return ingredientDAO.searchIngredients(term, options, after);
+    }
+
     /**
      * TODO: Searches for Ingredients based on a search term.
      * If the term is null, retrieves all Ingredients.
@@ -81,14 +117,34 @@ public class IngredientService {
     /**
      * TODO: Deletes an Ingredient by its unique identifier, if it exists.
      *
+     * The ingredient is deleted in one statement, without looking it up first.
+     *
      * @param id the unique identifier of the ingredient to be deleted
+     * @return APPLIED, or NOT_FOUND if there was no such ingredient
      */
 
-    public void deleteIngredient(int id) {
-       Ingredient ing = ingredientDAO.getIngredientById(id);
-    if (ing != null) {
-        ingredientDAO.deleteIngredient(ing);
-    } 
+    public WriteResult deleteIngredient(int id) {
+       WriteResult result = ingredientDAO.deleteIngredientById(id);
+       if (result == WriteResult.APPLIED) {
+           for (IngredientChangeListener listener : listeners) {
+               listener.ingredientDeleted(id);
+           }
+       }
+       return result;
+    }
+
+    /**
+     * Renames an existing Ingredient in one statement, without looking it up first.
+     *
+     * @param ingredient the ingredient, identified by its id, with its new name
+     * @return APPLIED, NOT_FOUND if there is no such ingredient, or CONFLICT if the name is taken
+     */
+    public WriteResult updateIngredient(Ingredient ingredient) {
+       WriteResult result = ingredientDAO.updateExistingIngredient(ingredient);
+       if (result == WriteResult.APPLIED) {
+           notifySaved(ingredient);
+       }
+       return result;
     }
 
     /**
@@ -102,9 +158,25 @@ public class IngredientService {
        if (ingredient.getId() == 0) {
         int id = ingredientDAO.createIngredient(ingredient);
         ingredient.setId(id);
+        if (id > 0) {
+            notifySaved(ingredient);
+        }
     } else {
         ingredientDAO.updateIngredient(ingredient);
+        if (!listeners.isEmpty()) {
+            // the update reports no outcome, so tell listeners the name the row now has
+            Ingredient saved = ingredientDAO.getIngredientById(ingredient.getId());
+            if (saved != null) {
+                notifySaved(saved);
+            }
+        }
     }
     }
 
+    private void notifySaved(Ingredient ingredient) {
+        for (IngredientChangeListener listener : listeners) {
+            listener.ingredientSaved(ingredient);
+        }
+    }
+
     }
@@ -0,0 +1,27 @@
+package com.revature.service;
+
+import com.revature.model.Recipe;
+
+/**
+ * The RecipeChangeListener interface is notified by {@link RecipeService} after a recipe has
+ * been written, so that derived structures such as search indexes and caches stay in sync
+ * with the database.
+ *
+ * Listeners are called on the thread that performed the write and should return quickly.
+ */
+public interface RecipeChangeListener {
+
+    /**
+     * Called after a recipe has been created or updated.
+     *
+     * @param recipe the recipe as it was saved, including its id
+     */
+    void recipeSaved(Recipe recipe);
+
+    /**
+     * Called after a recipe has been deleted.
+     *
+     * @param id the id of the deleted recipe
+     */
+    void recipeDeleted(int id);
+}
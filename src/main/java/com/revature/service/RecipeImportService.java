@@ -0,0 +1,303 @@
+package com.revature.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.revature.dao.RecipeImportDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.BulkImportResult;
+import com.revature.util.Config;
+
+/**
+ * The RecipeImportService class imports recipes in bulk. The upload is read one recipe at a
+ * time with Jackson's streaming parser, so memory use is bounded by the chunk size rather
+ * than the upload size. Each chunk is validated, its authors and ingredients are resolved
+ * with one query per kind, and its recipes are written in a single batched transaction.
+ *
+ * A row that cannot be read, validated or inserted is reported in the result and the import
+ * carries on with the next one. Only malformed JSON, after which no further row can be
+ * located, ends an import early.
+ */
+public class RecipeImportService {
+
+    /** The number of recipes validated and written together when none is configured. */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private static final ObjectReader RECIPE_READER = new ObjectMapper()
+            .readerFor(Recipe.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final RecipeImportDAO importDAO;
+    private final RecipeService recipeService;
+    private final int chunkSize;
+
+    /**
+     * Constructs a RecipeImportService using the chunk size from "recipe.bulk.chunkSize".
+     *
+     * @param importDAO     the DAO performing the batched reads and writes
+     * @param recipeService the service whose indexes and caches are told about new recipes
+     */
+    public RecipeImportService(RecipeImportDAO importDAO, RecipeService recipeService) {
+        this(importDAO, recipeService, Config.getInt("recipe.bulk.chunkSize", DEFAULT_CHUNK_SIZE));
+    }
+
+    /**
+     * @param importDAO     the DAO performing the batched reads and writes
+     * @param recipeService the service whose indexes and caches are told about new recipes
+     * @param chunkSize     the number of recipes validated and written per transaction
+     */
+    public RecipeImportService(RecipeImportDAO importDAO, RecipeService recipeService, int chunkSize) {
+        this.importDAO = importDAO;
+        this.recipeService = recipeService;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Imports the recipes in a JSON array or in newline-delimited JSON. Recipes without an
+     * author are attributed to the importing chef; only admins may name another author.
+     *
+     * @param in       the upload
+     * @param importer the logged in chef performing the import
+     * @return the number of imported and rejected recipes, with the reason for each rejection
+     */
+    public BulkImportResult importRecipes(InputStream in, Chef importer) {
+        BulkImportResult result = new BulkImportResult();
+        List<Row> chunk = new ArrayList<>(Math.min(chunkSize, DEFAULT_CHUNK_SIZE));
+        Set<String> seenNames = new HashSet<>();
+        int index = 0;
+        try (MappingIterator<Recipe> it = RECIPE_READER.readValues(in)) {
+            while (it.hasNextValue()) {
+                int rowIndex = index++;
+                try {
+                    chunk.add(new Row(rowIndex, it.nextValue(), null));
+                } catch (JsonMappingException e) {
+                    chunk.add(new Row(rowIndex, null, "Unreadable recipe: " + e.getOriginalMessage()));
+                }
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, importer, seenNames, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            result.addError(index, null, "Malformed JSON, import stopped: " + e.getMessage());
+        }
+        importChunk(chunk, importer, seenNames, result);
+        return result;
+    }
+
+    private void importChunk(List<Row> chunk, Chef importer, Set<String> seenNames, BulkImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Map<Integer, String> errors = new HashMap<>();
+        for (Row row : chunk) {
+            if (row.error != null) {
+                errors.put(row.index, row.error);
+            }
+        }
+        validate(chunk, seenNames, errors);
+        resolveAuthors(chunk, importer, errors);
+        resolveIngredients(chunk, errors);
+
+        List<Row> valid = new ArrayList<>(chunk.size());
+        List<Recipe> recipes = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            if (!errors.containsKey(row.index)) {
+                valid.add(row);
+                recipes.add(row.recipe);
+            }
+        }
+        List<String> insertErrors = recipes.isEmpty() ? List.of() : importDAO.insertRecipes(recipes);
+        for (int i = 0; i < valid.size(); i++) {
+            if (insertErrors.get(i) != null) {
+                errors.put(valid.get(i).index, insertErrors.get(i));
+            }
+        }
+
+        for (Row row : chunk) {
+            String error = errors.get(row.index);
+            if (error != null) {
+                result.addError(row.index, row.recipe == null ? null : row.recipe.getName(), error);
+            } else {
+                result.addImported();
+                recipeService.notifySaved(row.recipe);
+            }
+        }
+    }
+
+    /**
+     * Checks required fields and rejects names already used, either earlier in the upload or
+     * in the database.
+     */
+    private void validate(List<Row> chunk, Set<String> seenNames, Map<Integer, String> errors) {
+        List<String> names = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            Recipe recipe = row.recipe;
+            if (errors.containsKey(row.index)) {
+                continue;
+            } else if (recipe == null) {
+                errors.put(row.index, "Recipe must be a JSON object");
+            } else if (isBlank(recipe.getName())) {
+                errors.put(row.index, "Name is required");
+            } else if (isBlank(recipe.getInstructions())) {
+                errors.put(row.index, "Instructions are required");
+            } else if (!seenNames.add(recipe.getName())) {
+                errors.put(row.index, "Duplicate recipe name in import");
+            } else {
+                names.add(recipe.getName());
+            }
+        }
+        Set<String> existing = importDAO.findExistingRecipeNames(names);
+        if (existing.isEmpty()) {
+            return;
+        }
+        for (Row row : chunk) {
+            if (!errors.containsKey(row.index) && existing.contains(row.recipe.getName())) {
+                errors.put(row.index, "A recipe with this name already exists");
+            }
+        }
+    }
+
+    /**
+     * Replaces each recipe's author with the stored chef, looked up by id or by username.
+     */
+    private void resolveAuthors(List<Row> chunk, Chef importer, Map<Integer, String> errors) {
+        Set<Integer> ids = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        for (Row row : chunk) {
+            Chef author = errors.containsKey(row.index) ? null : row.recipe.getAuthor();
+            if (author == null) {
+                continue;
+            }
+            if (author.getId() > 0) {
+                ids.add(author.getId());
+            } else if (!isBlank(author.getUsername())) {
+                usernames.add(author.getUsername());
+            }
+        }
+        Map<Integer, Chef> byId = importDAO.findChefsByIds(ids);
+        Map<String, Chef> byUsername = importDAO.findChefsByUsernames(usernames);
+
+        for (Row row : chunk) {
+            if (errors.containsKey(row.index)) {
+                continue;
+            }
+            Chef author = row.recipe.getAuthor();
+            Chef resolved;
+            if (author == null) {
+                resolved = importer;
+            } else if (author.getId() > 0) {
+                resolved = byId.get(author.getId());
+            } else if (!isBlank(author.getUsername())) {
+                resolved = byUsername.get(author.getUsername());
+            } else {
+                resolved = importer;
+            }
+            if (resolved == null) {
+                errors.put(row.index, "Unknown author");
+            } else if (resolved.getId() != importer.getId() && !importer.isAdmin()) {
+                errors.put(row.index, "Only admins may import recipes for other chefs");
+            } else {
+                row.recipe.setAuthor(resolved);
+            }
+        }
+    }
+
+    /**
+     * Fills in the id and name of each ingredient, looked up by id or by case-insensitive name.
+     */
+    private void resolveIngredients(List<Row> chunk, Map<Integer, String> errors) {
+        Set<Integer> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (Row row : chunk) {
+            if (errors.containsKey(row.index) || row.recipe.getIngredients() == null) {
+                continue;
+            }
+            for (RecipeIngredient ingredient : row.recipe.getIngredients()) {
+                if (ingredient == null) {
+                    continue;
+                }
+                if (ingredient.getId() > 0) {
+                    ids.add(ingredient.getId());
+                } else if (!isBlank(ingredient.getName())) {
+                    names.add(ingredient.getName());
+                }
+            }
+        }
+        Map<Integer, String> namesById = importDAO.findIngredientNames(ids);
+        Map<String, RecipeIngredient> byName = importDAO.findIngredientsByNames(names);
+
+        for (Row row : chunk) {
+            if (errors.containsKey(row.index) || row.recipe.getIngredients() == null) {
+                continue;
+            }
+            for (RecipeIngredient ingredient : row.recipe.getIngredients()) {
+                String error = resolveIngredient(ingredient, namesById, byName);
+                if (error != null) {
+                    errors.put(row.index, error);
+                    break;
+                }
+            }
+        }
+    }
+
+    private String resolveIngredient(RecipeIngredient ingredient, Map<Integer, String> namesById,
+            Map<String, RecipeIngredient> byName) {
+        if (ingredient == null) {
+            return "Ingredient must be a JSON object";
+        }
+        if (isBlank(ingredient.getUnit())) {
+            return "Ingredient unit is required";
+        }
+        if (ingredient.getId() > 0) {
+            String name = namesById.get(ingredient.getId());
+            if (name == null) {
+                return "Unknown ingredient id " + ingredient.getId();
+            }
+            ingredient.setName(name);
+            return null;
+        }
+        RecipeIngredient stored = isBlank(ingredient.getName()) ? null
+                : byName.get(ingredient.getName().toLowerCase(Locale.ROOT));
+        if (stored == null) {
+            return "Unknown ingredient " + ingredient.getName();
+        }
+        ingredient.setId(stored.getId());
+        ingredient.setName(stored.getName());
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /**
+     * A recipe read from the upload, with its position for error reporting. Rows that could
+     * not be read carry their error instead, so failures are reported in input order.
+     */
+    private static class Row {
+        final int index;
+        final Recipe recipe;
+        final String error;
+
+        Row(int index, Recipe recipe, String error) {
+            this.index = index;
+            this.recipe = recipe;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.revature.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+import com.revature.model.Recipe;
+
+/**
+ * The RecipeSearchIndex class is an in-process inverted index over recipe names and
+ * instructions. It replaces LIKE '%term%' scans with a lookup per query term.
+ *
+ * Text is split into lowercase alphanumeric tokens. Results must contain every query term;
+ * the last term also matches as a prefix, so partial input from a search box finds results
+ * as the user types. Matches are ranked by TF-IDF with name matches weighted above matches
+ * in the instructions, and normalized by document length.
+ *
+ * The index is built from the database on first use and kept in sync afterwards through
+ * {@link RecipeChangeListener}. Reads share a lock and run concurrently; writes are exclusive.
+ */
+public class RecipeSearchIndex implements RecipeChangeListener {
+
+    /** How many times a term in the name counts compared to one in the instructions. */
+    private static final int NAME_WEIGHT = 3;
+    /** The most index terms a prefix may expand to, which bounds the cost of short prefixes. */
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    /** The score factor for a term matched only by prefix rather than exactly. */
+    private static final double PREFIX_FACTOR = 0.8;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    /** Term to postings: recipe id to weighted term frequency. Sorted for prefix scans. */
+    private final TreeMap<String, Map<Integer, Integer>> postings = new TreeMap<>();
+    /** Recipe id to the distinct terms it was indexed under, so it can be removed. */
+    private final Map<Integer, IndexedRecipe> recipes = new HashMap<>();
+    private volatile boolean built;
+
+    /**
+     * Loads every recipe into the index unless that has already happened. The loader runs
+     * under the write lock, so a change notified while it runs is applied after it.
+     *
+     * @param loader supplies all recipes from the database
+     */
+    public void ensureBuilt(Supplier<List<Recipe>> loader) {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                for (Recipe recipe : loader.get()) {
+                    add(recipe);
+                }
+                built = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true once the index has been loaded from the database
+     */
+    public boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Finds the recipes matching a query, best matches first.
+     *
+     * @param query the search text
+     * @param limit the maximum number of ids to return
+     * @return the ids of matching recipes in ranked order; ties are broken by ascending id
+     */
+    public List<Integer> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            int total = recipes.size();
+            Map<Integer, Double> scores = null;
+            for (int i = 0; i < terms.size() && (scores == null || !scores.isEmpty()); i++) {
+                Map<Integer, Double> termScores = scoreTerm(terms.get(i), i == terms.size() - 1, total);
+                scores = scores == null ? termScores : intersect(scores, termScores);
+            }
+            return topIds(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of indexed recipes
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return recipes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void recipeSaved(Recipe recipe) {
+        lock.writeLock().lock();
+        try {
+            remove(recipe.getId());
+            add(recipe);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void recipeDeleted(int id) {
+        lock.writeLock().lock();
+        try {
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Splits text into lowercase alphanumeric tokens.
+     *
+     * @param text the text to split, may be null
+     * @return the tokens in order of appearance
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean word = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                tokens.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private void add(Recipe recipe) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : tokenize(recipe.getName())) {
+            frequencies.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        List<String> instructionTokens = tokenize(recipe.getInstructions());
+        for (String token : instructionTokens) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        int length = tokenize(recipe.getName()).size() + instructionTokens.size();
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), k -> new HashMap<>()).put(recipe.getId(), entry.getValue());
+        }
+        recipes.put(recipe.getId(), new IndexedRecipe(frequencies.keySet().toArray(new String[0]), length));
+    }
+
+    private void remove(int id) {
+        IndexedRecipe old = recipes.remove(id);
+        if (old == null) {
+            return;
+        }
+        for (String term : old.terms) {
+            Map<Integer, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private Map<Integer, Double> scoreTerm(String term, boolean prefix, int total) {
+        Map<Integer, Double> scores = new HashMap<>();
+        if (!prefix) {
+            addScores(scores, postings.get(term), total, 1.0);
+            return scores;
+        }
+        NavigableMap<String, Map<Integer, Integer>> matches = postings.subMap(term, true, term + Character.MAX_VALUE, false);
+        int expansions = 0;
+        for (Map.Entry<String, Map<Integer, Integer>> entry : matches.entrySet()) {
+            if (expansions++ == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+            addScores(scores, entry.getValue(), total, entry.getKey().equals(term) ? 1.0 : PREFIX_FACTOR);
+        }
+        return scores;
+    }
+
+    private void addScores(Map<Integer, Double> scores, Map<Integer, Integer> list, int total, double factor) {
+        if (list == null || list.isEmpty()) {
+            return;
+        }
+        double idf = Math.log(1.0 + (double) total / list.size());
+        for (Map.Entry<Integer, Integer> posting : list.entrySet()) {
+            IndexedRecipe recipe = recipes.get(posting.getKey());
+            double tf = 1.0 + Math.log(posting.getValue());
+            double score = factor * tf * idf / Math.sqrt(Math.max(1, recipe.length));
+            scores.merge(posting.getKey(), score, Math::max);
+        }
+    }
+
+    private Map<Integer, Double> intersect(Map<Integer, Double> left, Map<Integer, Double> right) {
+        Map<Integer, Double> smaller = left.size() <= right.size() ? left : right;
+        Map<Integer, Double> larger = smaller == left ? right : left;
+        Map<Integer, Double> result = new HashMap<>();
+        for (Map.Entry<Integer, Double> entry : smaller.entrySet()) {
+            Double other = larger.get(entry.getKey());
+            if (other != null) {
+                result.put(entry.getKey(), entry.getValue() + other);
+            }
+        }
+        return result;
+    }
+
+    private List<Integer> topIds(Map<Integer, Double> scores, int limit) {
+        if (scores == null || scores.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // a min-heap of the best results seen so far, worst on top
+        PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(limit + 1, (a, b) -> {
+            int byScore = Double.compare(a.getValue(), b.getValue());
+            return byScore != 0 ? byScore : Integer.compare(b.getKey(), a.getKey());
+        });
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Integer> ids = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            ids.add(best.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    /**
+     * The terms a recipe was indexed under and its length in tokens.
+     */
+    private static class IndexedRecipe {
+
+        private final String[] terms;
+        private final int length;
+
+        IndexedRecipe(String[] terms, int length) {
+            this.terms = terms;
+            this.length = length;
+        }
+    }
+}
@@ -1,12 +1,26 @@
 package com.revature.service;
 
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.revature.dao.RecipeDAO;
+import com.revature.dao.RecipeIngredientDAO;
+import com.revature.dao.RecipeRowHandler;
+import com.revature.dao.WriteResult;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeSummary;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
+import com.revature.util.DatabaseUnavailableException;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
+import com.revature.util.TransactionManager;
 
 
 /**
@@ -21,6 +35,24 @@ public class RecipeService {
     /** The data access object used for performing operations on Recipe entities. */
     private final RecipeDAO recipeDAO;
 
+    /** The data access object for recipe ingredient lists, or null if they are not managed. */
+    private final RecipeIngredientDAO recipeIngredientDAO;
+
+    /** The full-text index over recipe names and instructions, built on first use. */
+    private final RecipeSearchIndex searchIndex = new RecipeSearchIndex();
+
+    /** The index from ingredients to the recipes using them, built on first use. */
+    private final IngredientRecipeIndex ingredientIndex = new IngredientRecipeIndex();
+
+    /** Runs multi-statement writes in one transaction on one connection. */
+    private final TransactionManager transactions;
+
+    /** Batches concurrent recipe creations into one commit, or null to write each on its own. */
+    private final RecipeWriteCoalescer writeCoalescer;
+
+    /** The listeners notified after each recipe write. */
+    private final List<RecipeChangeListener> listeners = new CopyOnWriteArrayList<>();
+
     /**
      * Constructs a RecipeService with the specified RecipeDao.
      *
@@ -29,7 +61,76 @@ public class RecipeService {
      * @param recipeDao the RecipeDao to be used by this service for data access
      */
     public RecipeService(RecipeDAO recipeDAO) {
+     this(recipeDAO, null);
+    }
+
+    /**
+     * Constructs a RecipeService that also loads and saves recipe ingredient lists.
+     *
+     * @param recipeDAO           the RecipeDAO to be used by this service for data access
+     * @param recipeIngredientDAO the DAO for recipe ingredient lists, or null to leave them unmanaged
+     */
+    public RecipeService(RecipeDAO recipeDAO, RecipeIngredientDAO recipeIngredientDAO) {
+     this(recipeDAO, recipeIngredientDAO, TransactionManager.fromConfig());
+    }
+
+    /**
+     * Constructs a RecipeService whose writes run in transactions of the given manager.
+     *
+     * @param recipeDAO           the RecipeDAO to be used by this service for data access
+     * @param recipeIngredientDAO the DAO for recipe ingredient lists, or null to leave them unmanaged
+     * @param transactions        the manager demarcating the service's transactions
+     */
+    public RecipeService(RecipeDAO recipeDAO, RecipeIngredientDAO recipeIngredientDAO, TransactionManager transactions) {
+     this(recipeDAO, recipeIngredientDAO, transactions, null);
+    }
+
+    /**
+     * Constructs a RecipeService whose new recipes are written in shared batches.
+     *
+     * @param recipeDAO           the RecipeDAO to be used by this service for data access
+     * @param recipeIngredientDAO the DAO for recipe ingredient lists, or null to leave them unmanaged
+     * @param transactions        the manager demarcating the service's transactions
+     * @param writeCoalescer      the coalescer batching {@link #createRecipe(Recipe)}, or null to write each recipe on its own
+     */
+    public RecipeService(RecipeDAO recipeDAO, RecipeIngredientDAO recipeIngredientDAO, TransactionManager transactions,
+            RecipeWriteCoalescer writeCoalescer) {
      this.recipeDAO = recipeDAO;   
+     this.transactions = transactions;
+     this.writeCoalescer = writeCoalescer;
+     this.recipeIngredientDAO = recipeIngredientDAO;
+     this.listeners.add(searchIndex);
+     if (recipeIngredientDAO != null) {
+        this.listeners.add(ingredientIndex);
+     }
+    }
+
+    /**
+     * Builds the in-memory search indexes now rather than on the first search. Call once the
+     * database is ready.
+     */
+    public void warmUp() {
+        searchIndex.ensureBuilt(recipeDAO::getAllRecipes);
+        if (recipeIngredientDAO != null) {
+            ingredientIndex.ensureBuilt(recipeIngredientDAO::getIngredientNames, recipeIngredientDAO::getAllRecipeIngredients);
+        }
+    }
+
+    /**
+     * @return the listener keeping this service's ingredient search in step with ingredient
+     *         renames and deletions; register it with the {@link IngredientService}
+     */
+    public IngredientChangeListener getIngredientChangeListener() {
+        return ingredientIndex;
+    }
+
+    /**
+     * Registers a listener to be notified after recipes are created, updated or deleted.
+     *
+     * @param listener the listener to add
+     */
+    public void addChangeListener(RecipeChangeListener listener) {
+        listeners.add(listener);
     }
 
     /**
@@ -48,15 +149,77 @@ public class RecipeService {
      * 
      * Otherwise, updates the recipe's instructions and chef id.
      *
+     * If the recipe carries an ingredient list and this service manages ingredients, the
+     * stored list is replaced with it, in the same transaction. If the transaction is rolled
+     * back, a new recipe's id is left at 0.
+     *
      * @param recipe the Recipe object to be saved
      */
     public void saveRecipe(Recipe recipe) {
+     save(recipe);
+    }
+
+    /**
+     * Saves a recipe as {@link #saveRecipe(Recipe)} does and reports the outcome.
+     */
+    private WriteResult save(Recipe recipe) {
+     int originalId = recipe.getId();
+     try {
+        transactions.inTransaction(() -> {
+            // a retried attempt starts over: the id a rolled-back create assigned was never committed
+            recipe.setId(originalId);
+            return store(recipe);
+        });
+     } catch (SQLException e) {
+        recipe.setId(originalId);
+        return WriteResult.of(e);
+     }
+     if (recipe.getId() == 0) {
+        return WriteResult.FAILED;
+     }
+     notifySaved(recipe);
+     return WriteResult.APPLIED;
+    }
+
+    /**
+     * Writes a recipe and its ingredient list, without notifying the listeners.
+     */
+    private Recipe store(Recipe recipe) {
      if(recipe.getId()==0){
         int newId=recipeDAO.createRecipe(recipe);
         recipe.setId(newId);
      }  else{
         recipeDAO.updateRecipe(recipe);
      } 
+     if (recipeIngredientDAO != null && recipe.getIngredients() != null) {
+        recipeIngredientDAO.replaceIngredients(recipe.getId(), recipe.getIngredients());
+     }
+     return recipe;
+    }
+
+    /**
+     * Tells the listeners about a recipe that was written without going through
+     * {@link #saveRecipe(Recipe)}, such as by a bulk import.
+     *
+     * @param recipe the recipe as stored, including its ingredient list if known
+     */
+    void notifySaved(Recipe recipe) {
+     for (RecipeChangeListener listener : listeners) {
+        listener.recipeSaved(recipe);
+     }
+    }
+
+    /**
+     * Streams every recipe matching an optional term to a handler, one row at a time, for
+     * exports too large to hold in memory.
+     *
+     * @param term    the search term, or null or blank for all recipes
+     * @param handler receives each recipe in id order
+     * @return the number of recipes streamed
+     * @throws IOException if the handler fails, or the recipes could not all be read
+     */
+    public int exportRecipes(String term, RecipeRowHandler handler) throws IOException {
+        return recipeDAO.streamRecipes(term == null || term.isBlank() ? null : term, handler);
     }
 
     /**
@@ -79,6 +242,25 @@ if(term==null||term.isBlank()){
         return recipeDAO.searchRecipesByTerm(term,pageOptions);
     }
 
+    /**
+     * Searches for recipes using keyset (seek) pagination. When a cursor is given, the
+     * sort options it carries take precedence over the sortBy and sortDirection arguments.
+     *
+     * @param term          the search term used to find recipes, or null for all recipes
+     * @param after         the cursor of the last recipe already returned, or null for the first page
+     * @param pageSize      the number of recipes per page
+     * @param sortBy        the field by which to sort the results
+     * @param sortDirection the direction of sorting (ascending or descending)
+     * @return a CursorPage containing the results and the cursor for the next page
+     */
+    public CursorPage<Recipe> scrollRecipes(String term, Cursor after, int pageSize, String sortBy, String sortDirection) {
+        PageOptions pageOptions = new PageOptions(1, pageSize, sortBy, sortDirection);
+        if (term == null || term.isBlank()) {
+            return recipeDAO.getAllRecipes(pageOptions, after);
+        }
+        return recipeDAO.searchRecipesByTerm(term, pageOptions, after);
+    }
+
     /**
      * TODO: Searches for recipes based on a search term.
      *
@@ -92,35 +274,243 @@ if(term==null||term.isBlank()){
         return recipeDAO.searchRecipesByTerm(term);
     }
 
+    /**
+     * Lists recipe summaries matching an optional term, without their instructions.
+     *
+     * @param term the search term used to find recipes, or null or blank for all recipes
+     * @return the summaries of the matching recipes, ordered by id
+     */
+    public List<RecipeSummary> searchRecipeSummaries(String term) {
+        return recipeDAO.getRecipeSummaries(term == null || term.isBlank() ? null : term);
+    }
+
+    /**
+     * Like {@link #searchRecipes(String, int, int, String, String)}, but returns summaries
+     * without the recipes' instructions.
+     *
+     * @param term          the search term used to find recipes, or null or blank for all recipes
+     * @param page          the page number to retrieve
+     * @param pageSize      the number of recipes per page
+     * @param sortBy        the field by which to sort the results
+     * @param sortDirection the direction of sorting (ascending or descending)
+     * @return a Page containing the summaries of the matching recipes
+     */
+    public Page<RecipeSummary> searchRecipeSummaries(String term, int page, int pageSize, String sortBy, String sortDirection) {
+        PageOptions pageOptions = new PageOptions(page, pageSize, sortBy, "asc".equalsIgnoreCase(sortDirection));
+        return recipeDAO.getRecipeSummaries(term == null || term.isBlank() ? null : term, pageOptions);
+    }
+
+    /**
+     * Like {@link #scrollRecipes(String, Cursor, int, String, String)}, but returns summaries
+     * without the recipes' instructions. Cursors from either method work with the other.
+     *
+     * @param term          the search term used to find recipes, or null for all recipes
+     * @param after         the cursor of the last recipe already returned, or null for the first page
+     * @param pageSize      the number of recipes per page
+     * @param sortBy        the field by which to sort the results
+     * @param sortDirection the direction of sorting (ascending or descending)
+     * @return a CursorPage containing the summaries and the cursor for the next page
+     */
+    public CursorPage<RecipeSummary> scrollRecipeSummaries(String term, Cursor after, int pageSize, String sortBy,
+            String sortDirection) {
+        PageOptions pageOptions = new PageOptions(1, pageSize, sortBy, sortDirection);
+        return recipeDAO.getRecipeSummaries(term == null || term.isBlank() ? null : term, pageOptions, after);
+    }
+
+    /**
+     * Fills in the ingredient lists of the given recipes with one query for all of them.
+     * Does nothing if this service was built without a RecipeIngredientDAO.
+     *
+     * @param recipes the recipes to fill in
+     */
+    public void loadIngredients(List<Recipe> recipes) {
+        if (recipeIngredientDAO != null) {
+            recipeIngredientDAO.loadIngredients(recipes);
+        }
+    }
+
+    /**
+     * Searches recipe names and instructions through the full-text index, best matches first.
+     * The last word of the query also matches as a prefix. The index is loaded from the
+     * database on the first call.
+     *
+     * @param query the search text
+     * @param limit the maximum number of recipes to return
+     * @return the matching recipes in ranked order
+     */
+    public List<Recipe> searchRecipesFullText(String query, int limit) {
+        searchIndex.ensureBuilt(recipeDAO::getAllRecipes);
+        return recipesFor(searchIndex.search(query, limit));
+    }
+
+    /**
+     * Like {@link #searchRecipesFullText(String, int)}, but returns summaries.
+     *
+     * @param query the search text
+     * @param limit the maximum number of recipes to return
+     * @return the summaries of the matching recipes in ranked order
+     */
+    public List<RecipeSummary> searchRecipeSummariesFullText(String query, int limit) {
+        searchIndex.ensureBuilt(recipeDAO::getAllRecipes);
+        return summariesFor(searchIndex.search(query, limit));
+    }
+
+    /**
+     * Finds recipes that use every included ingredient and none of the excluded ones.
+     * Returns nothing if this service was built without a RecipeIngredientDAO.
+     *
+     * @param include the names of ingredients the recipes must use
+     * @param exclude the names of ingredients the recipes must not use
+     * @param limit   the maximum number of recipes to return
+     * @return the matching recipes, ordered by id
+     */
+    public List<Recipe> searchRecipesByIngredients(List<String> include, List<String> exclude, int limit) {
+        if (recipeIngredientDAO == null) {
+            return Collections.emptyList();
+        }
+        ingredientIndex.ensureBuilt(recipeIngredientDAO::getIngredientNames, recipeIngredientDAO::getAllRecipeIngredients);
+        return recipesFor(ingredientIndex.findRecipes(include, exclude, limit));
+    }
+
+    /**
+     * Finds recipes that can be cooked using only the given ingredients.
+     * Returns nothing if this service was built without a RecipeIngredientDAO.
+     *
+     * @param pantry the names of the available ingredients
+     * @param limit  the maximum number of recipes to return
+     * @return the matching recipes, ordered by id
+     */
+    public List<Recipe> searchRecipesByPantry(List<String> pantry, int limit) {
+        if (recipeIngredientDAO == null) {
+            return Collections.emptyList();
+        }
+        ingredientIndex.ensureBuilt(recipeIngredientDAO::getIngredientNames, recipeIngredientDAO::getAllRecipeIngredients);
+        return recipesFor(ingredientIndex.findCookable(pantry, limit));
+    }
+
+    /**
+     * Like {@link #searchRecipesByIngredients(List, List, int)}, but returns summaries.
+     *
+     * @param include the names of ingredients the recipes must use
+     * @param exclude the names of ingredients the recipes must not use
+     * @param limit   the maximum number of recipes to return
+     * @return the summaries of the matching recipes, ordered by id
+     */
+    public List<RecipeSummary> searchRecipeSummariesByIngredients(List<String> include, List<String> exclude, int limit) {
+        if (recipeIngredientDAO == null) {
+            return Collections.emptyList();
+        }
+        ingredientIndex.ensureBuilt(recipeIngredientDAO::getIngredientNames, recipeIngredientDAO::getAllRecipeIngredients);
+        return summariesFor(ingredientIndex.findRecipes(include, exclude, limit));
+    }
+
+    /**
+     * Like {@link #searchRecipesByPantry(List, int)}, but returns summaries.
+     *
+     * @param pantry the names of the available ingredients
+     * @param limit  the maximum number of recipes to return
+     * @return the summaries of the matching recipes, ordered by id
+     */
+    public List<RecipeSummary> searchRecipeSummariesByPantry(List<String> pantry, int limit) {
+        if (recipeIngredientDAO == null) {
+            return Collections.emptyList();
+        }
+        ingredientIndex.ensureBuilt(recipeIngredientDAO::getIngredientNames, recipeIngredientDAO::getAllRecipeIngredients);
+        return summariesFor(ingredientIndex.findCookable(pantry, limit));
+    }
+
+    private List<RecipeSummary> summariesFor(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return recipeDAO.getRecipeSummariesByIds(ids);
+    }
+
+    private List<Recipe> recipesFor(List<Integer> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return recipeDAO.getRecipesByIds(ids);
+    }
+
     /**
      * TODO: Deletes a Recipe by its unique identifier.
      *
+     * The recipe is deleted in one statement; whether it existed is read from the number of
+     * rows deleted rather than looked up first.
+     *
      * @param id the unique identifier of the recipe to be deleted
+     * @return true if the recipe existed and was deleted
      */
     public boolean deleteRecipe(int id) {
-        Recipe existing =recipeDAO.getRecipeById(id);
-        if(existing!=null){
-            recipeDAO.deleteRecipe(existing); 
-            return true;
+        boolean deleted = recipeDAO.deleteRecipeById(id) == WriteResult.APPLIED;
+        if(deleted){
+            for (RecipeChangeListener listener : listeners) {
+                listener.recipeDeleted(id);
+            }
         }
-    return false;  
-    }
-
-    public Optional<Recipe> updateRecipe(int id, Recipe recipeUpdate) {
-        Optional<Recipe> existing = findRecipe(id);
-        if (existing.isPresent()) {
-            Recipe recipe = existing.get();
-            recipe.setName(recipeUpdate.getName());
-            recipe.setInstructions(recipeUpdate.getInstructions());
-            recipe.setAuthor(recipeUpdate.getAuthor());
-            saveRecipe(recipe);
-            return Optional.of(recipe);
+    return deleted;  
+    }
+
+    /**
+     * Replaces a recipe's instructions and author in one statement, without reading the
+     * recipe first. Its name and ingredient list are left as they are. When the update is
+     * applied, the recipe is filled in with the row as the statement wrote it, and passed to
+     * the listeners.
+     *
+     * @param id     the id of the recipe to update
+     * @param recipe the new values; its author is required
+     * @return APPLIED, NOT_FOUND if there is no such recipe, CONFLICT if the author does not
+     *         exist, or FAILED
+     * @throws IllegalArgumentException if the update has no author
+     */
+    public WriteResult updateRecipe(int id, Recipe recipe) {
+        if (recipe.getAuthor() == null) {
+            throw new IllegalArgumentException("A recipe update needs an author");
         }
-        return Optional.empty();
+        recipe.setId(id);
+        WriteResult result = recipeDAO.updateExistingRecipe(recipe);
+        if (result == WriteResult.APPLIED) {
+            notifySaved(recipe);
+        }
+        return result;
     }
 
-    public void createRecipe(Recipe recipe) {
+    /**
+     * Creates a new recipe, with its ingredient list if it carries one, and sets its id. With
+     * a write coalescer, the recipe is written in a batch with others created at the same
+     * time and this call waits for the batch to commit. A recipe no batch takes within
+     * "recipe.writes.coalesce.timeoutMillis" is dropped. If the recipe was not written, its
+     * id is left at 0.
+     *
+     * @param recipe the recipe to create
+     * @return APPLIED, CONFLICT if the name is taken, or FAILED
+     * @throws DatabaseUnavailableException if no batch took the recipe in time, or the
+     *         coalescer is closed or full
+     */
+    public WriteResult createRecipe(Recipe recipe) {
         recipe.setId(0);
-        saveRecipe(recipe);
+        if (writeCoalescer == null) {
+            return save(recipe);
+        }
+        try {
+            writeCoalescer.submit(recipe).join();
+        } catch (CompletionException e) {
+            // the coalescer has already reset the id of a recipe it did not write
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLTransientException) {
+                throw new DatabaseUnavailableException((SQLException) cause);
+            }
+            if (cause instanceof SQLException) {
+                return WriteResult.of((SQLException) cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            cause.printStackTrace();
+            return WriteResult.FAILED;
+        }
+        notifySaved(recipe);
+        return WriteResult.APPLIED;
     }
 }
@@ -0,0 +1,368 @@
+package com.revature.service;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.revature.dao.RecipeImportDAO;
+import com.revature.model.Recipe;
+import com.revature.util.Config;
+import com.revature.util.LatencyHistogram;
+import com.revature.util.MetricsRegistry;
+import com.revature.util.MetricsSource;
+import com.revature.util.TransactionManager;
+
+/**
+ * The RecipeWriteCoalescer class groups recipe creations made at about the same time into
+ * one JDBC batch and one commit. Callers hand their recipe to {@link #submit(Recipe)} and
+ * wait on the returned future; a single writer thread takes the first waiting recipe,
+ * gathers whatever else arrives within "recipe.writes.coalesce.maxDelayMicros" or until
+ * "recipe.writes.coalesce.maxBatchSize" recipes are waiting, and writes them together with
+ * {@link RecipeImportDAO#tryInsertRecipes(List)}. A recipe the batch rejects, such as one with
+ * a taken name, fails only its own caller's future, with the exception that rejected it.
+ *
+ * A recipe whose batch has not started within "recipe.writes.coalesce.timeoutMillis" is
+ * dropped and its future fails with an SQLTimeoutException. Once the writer has taken a recipe
+ * into a batch, only the writer completes its future, so a caller is never told a committed
+ * recipe was not written, and the writer is done with the recipe by the time its caller
+ * sees the outcome.
+ *
+ * At most "recipe.writes.coalesce.maxQueueSize" recipes wait for a batch. Requests running on
+ * virtual threads are not bounded by a thread pool, so a submission to a full queue fails at
+ * once with an SQLTransientConnectionException rather than adding to the backlog.
+ *
+ * The writer keeps one connection for as long as recipes keep arriving and returns it to the
+ * pool when the queue runs dry.
+ *
+ * As a {@link MetricsSource}, it reports its batch counts and sizes and its queue wait and
+ * depth in the metrics scrape.
+ */
+public class RecipeWriteCoalescer implements AutoCloseable, MetricsSource {
+
+    /** How often an idle writer checks whether it has been closed. */
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final RecipeImportDAO importDAO;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long timeoutMillis;
+    private final BlockingQueue<Pending> queue;
+    private final Thread writer;
+    private volatile boolean closed;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LatencyHistogram batchSizes = new LatencyHistogram();
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+
+    /**
+     * Starts a coalescer and its writer thread, dropping recipes not taken into a batch within
+     * five seconds.
+     *
+     * @param importDAO      the DAO writing each batch
+     * @param maxBatchSize   the most recipes written in one batch
+     * @param maxDelayMicros how long the first recipe of a batch waits for others to join it
+     */
+    public RecipeWriteCoalescer(RecipeImportDAO importDAO, int maxBatchSize, long maxDelayMicros) {
+        this(importDAO, maxBatchSize, maxDelayMicros, TimeUnit.SECONDS.toMillis(5));
+    }
+
+    /**
+     * Starts a coalescer and its writer thread, with room for 32 full batches in its queue.
+     *
+     * @param importDAO      the DAO writing each batch
+     * @param maxBatchSize   the most recipes written in one batch
+     * @param maxDelayMicros how long the first recipe of a batch waits for others to join it
+     * @param timeoutMillis  how long a recipe may wait to be taken into a batch
+     */
+    public RecipeWriteCoalescer(RecipeImportDAO importDAO, int maxBatchSize, long maxDelayMicros, long timeoutMillis) {
+        this(importDAO, maxBatchSize, maxDelayMicros, timeoutMillis, Math.max(1, maxBatchSize) * 32);
+    }
+
+    /**
+     * Starts a coalescer and its writer thread.
+     *
+     * @param importDAO      the DAO writing each batch
+     * @param maxBatchSize   the most recipes written in one batch
+     * @param maxDelayMicros how long the first recipe of a batch waits for others to join it
+     * @param timeoutMillis  how long a recipe may wait to be taken into a batch
+     * @param maxQueueSize   the most recipes waiting for a batch
+     */
+    public RecipeWriteCoalescer(RecipeImportDAO importDAO, int maxBatchSize, long maxDelayMicros, long timeoutMillis,
+            int maxQueueSize) {
+        this.importDAO = importDAO;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxDelayNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, maxDelayMicros));
+        this.timeoutMillis = Math.max(1, timeoutMillis);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, maxQueueSize));
+        this.writer = new Thread(this::run, "recipe-write-coalescer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Creates a coalescer as configured by "recipe.writes.coalesce.*", if enabled. It is off
+     * by default.
+     *
+     * @param importDAO the DAO writing each batch
+     * @return the configured coalescer, or null if "recipe.writes.coalesce.enabled" is false
+     */
+    public static RecipeWriteCoalescer fromConfig(RecipeImportDAO importDAO) {
+        if (!Config.getBoolean("recipe.writes.coalesce.enabled", false)) {
+            return null;
+        }
+        int maxBatchSize = Config.getInt("recipe.writes.coalesce.maxBatchSize", 128);
+        return new RecipeWriteCoalescer(importDAO, maxBatchSize,
+                Config.getLong("recipe.writes.coalesce.maxDelayMicros", 500),
+                Config.getLong("recipe.writes.coalesce.timeoutMillis", 5000),
+                Config.getInt("recipe.writes.coalesce.maxQueueSize", Math.max(1, maxBatchSize) * 32));
+    }
+
+    /**
+     * Queues a new recipe for the next batch.
+     *
+     * @param recipe a recipe whose author and ingredient ids are set
+     * @return a future completed with the recipe, its id set, once its batch has committed;
+     *         or completed exceptionally with the reason the recipe was not written: the
+     *         SQLException that rejected it, an SQLTimeoutException if no batch took it in
+     *         time, or an SQLTransientConnectionException if the coalescer is closed or its
+     *         queue is full
+     */
+    public CompletableFuture<Recipe> submit(Recipe recipe) {
+        Pending pending = new Pending(recipe);
+        if (closed) {
+            pending.future.completeExceptionally(closedException());
+            return pending.future;
+        }
+        if (!queue.offer(pending)) {
+            pending.future.completeExceptionally(
+                    new SQLTransientConnectionException("The recipe write coalescer queue is full"));
+            return pending.future;
+        }
+        if (closed && queue.remove(pending)) {
+            pending.future.completeExceptionally(closedException());
+            return pending.future;
+        }
+        CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            // a recipe the writer has already taken is left for the writer to complete
+            if (pending.claim()) {
+                pending.future.completeExceptionally(
+                        new SQLTimeoutException("The recipe was not written within " + timeoutMillis + " ms"));
+            }
+        });
+        return pending.future;
+    }
+
+    /**
+     * Stops the writer once the recipes already queued have been written.
+     */
+    @Override
+    public void close() {
+        // not interrupted: an interrupt during a write would close H2's file channel
+        closed = true;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static SQLException closedException() {
+        return new SQLTransientConnectionException("The recipe write coalescer is closed");
+    }
+
+    /**
+     * @return the most recipes written in one batch
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @return the number of batches written
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * @return the number of recipes written, counting only those that committed
+     */
+    public long getRowCount() {
+        return rows.sum();
+    }
+
+    /**
+     * @return the number of recipes rejected by their batch
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the number of recipes waiting for a batch
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the sizes of the batches written; the values are recipe counts, not durations
+     */
+    public LatencyHistogram getBatchSizes() {
+        return batchSizes;
+    }
+
+    /**
+     * @return the time each recipe waited between submission and the start of its batch
+     */
+    public LatencyHistogram getQueueLatency() {
+        return queueLatency;
+    }
+
+    @Override
+    public void writeMetrics(StringBuilder out) {
+        MetricsRegistry.header(out, "recipe_write_coalescer_batches_total", "counter", "Batches of new recipes written by the write coalescer.");
+        MetricsRegistry.sample(out, "recipe_write_coalescer_batches_total", null, getBatchCount());
+        MetricsRegistry.header(out, "recipe_write_coalescer_recipes_total", "counter", "New recipes passed through the write coalescer, by outcome.");
+        MetricsRegistry.sample(out, "recipe_write_coalescer_recipes_total", "outcome=\"written\"", getRowCount());
+        MetricsRegistry.sample(out, "recipe_write_coalescer_recipes_total", "outcome=\"failed\"", getFailureCount());
+        MetricsRegistry.header(out, "recipe_write_coalescer_batch_size", "summary", "Recipes per batch written by the write coalescer.");
+        MetricsRegistry.countSummary(out, "recipe_write_coalescer_batch_size", batchSizes);
+        MetricsRegistry.header(out, "recipe_write_coalescer_batch_size_max", "gauge", "The most recipes the write coalescer puts in one batch.");
+        MetricsRegistry.sample(out, "recipe_write_coalescer_batch_size_max", null, maxBatchSize);
+        MetricsRegistry.header(out, "recipe_write_coalescer_queue_duration_seconds", "summary", "Time new recipes waited for their batch to start.");
+        MetricsRegistry.summary(out, "recipe_write_coalescer_queue_duration_seconds", null, queueLatency);
+        MetricsRegistry.header(out, "recipe_write_coalescer_queue_depth", "gauge", "New recipes waiting for a batch.");
+        MetricsRegistry.sample(out, "recipe_write_coalescer_queue_depth", null, getQueueDepth());
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            Pending first;
+            try {
+                first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                first = null;
+            }
+            if (first == null) {
+                if (closed) {
+                    return;
+                }
+                continue;
+            }
+            TransactionManager.beginRequest();
+            try {
+                while (first != null) {
+                    batch.add(first);
+                    fill(batch);
+                    write(batch);
+                    batch.clear();
+                    first = queue.poll();
+                }
+            } finally {
+                TransactionManager.endRequest();
+            }
+        }
+    }
+
+    /**
+     * Adds waiting recipes to a batch until it is full or its first recipe has waited the
+     * maximum delay.
+     */
+    private void fill(List<Pending> batch) {
+        long deadline = batch.get(0).submitted + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || closed) {
+                return;
+            }
+            try {
+                Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        // recipes that timed out have been dropped; from here on only this thread completes the rest
+        batch.removeIf(pending -> !pending.claim());
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        List<Recipe> recipes = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            queueLatency.record(start - pending.submitted);
+            recipes.add(pending.recipe);
+        }
+        List<SQLException> errors;
+        try {
+            errors = importDAO.tryInsertRecipes(recipes);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            failures.add(batch.size());
+            for (Pending pending : batch) {
+                pending.recipe.setId(0);
+                pending.future.completeExceptionally(e);
+            }
+            return;
+        }
+        batches.increment();
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            SQLException error = errors.get(i);
+            if (error == null) {
+                rows.increment();
+                pending.future.complete(pending.recipe);
+            } else {
+                failures.increment();
+                pending.future.completeExceptionally(error);
+            }
+        }
+    }
+
+    /**
+     * A recipe waiting for its batch, and the future its caller waits on.
+     */
+    private static final class Pending {
+
+        final Recipe recipe;
+        final long submitted = System.nanoTime();
+        final CompletableFuture<Recipe> future = new CompletableFuture<>();
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        Pending(Recipe recipe) {
+            this.recipe = recipe;
+        }
+
+        /**
+         * Claims the right to complete this recipe's future, for either the writer or the
+         * timeout, whichever comes first.
+         *
+         * @return true if the caller won the claim
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.revature.service;
+
+import com.revature.model.Chef;
+
+/**
+ * The SessionStore interface abstracts where logged in sessions are kept. Sessions are
+ * indexed by their token and expire after a period without use.
+ *
+ * Implementations must be safe to call from concurrent request threads.
+ */
+public interface SessionStore {
+
+    /**
+     * Stores a new session.
+     *
+     * @param token the session token
+     * @param chef  the chef the session belongs to
+     */
+    void put(String token, Chef chef);
+
+    /**
+     * Looks up a live session and records the access.
+     *
+     * @param token the session token
+     * @return the chef the session belongs to; null if the token is unknown or expired
+     */
+    Chef get(String token);
+
+    /**
+     * Removes a session, if present.
+     *
+     * @param token the session token
+     */
+    void remove(String token);
+
+    /**
+     * @return the number of sessions currently held, including any not yet reaped
+     */
+    int size();
+
+    /**
+     * Removes every expired session.
+     *
+     * @return the number of sessions removed
+     */
+    int purgeExpired();
+}
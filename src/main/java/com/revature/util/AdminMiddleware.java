@@ -1,7 +1,5 @@
 package com.revature.util;
 
-import java.util.stream.Collectors;
-
 import com.revature.dao.ChefDAO;
 import com.revature.model.Chef;
 import com.revature.service.AuthenticationService;
@@ -29,20 +27,28 @@ public class AdminMiddleware implements Handler {
     /**
      * The AuthenticationService instance used for handling authentication-related operations.
      */
-    @SuppressWarnings("unused")
     private AuthenticationService authService;
 
     /**
-     * Constructs an AdminMiddleware instance.
+     * Constructs an AdminMiddleware instance that checks sessions against the given service.
+     *
+     * @param authService      the service holding the logged in sessions
+     * @param protectedMethods the array of protected HTTP methods
+     */
+    public AdminMiddleware(AuthenticationService authService, String... protectedMethods) {
+        this.protectedMethods = protectedMethods != null ? protectedMethods : new String[0];
+        this.authService = authService;
+    }
+
+    /**
+     * Constructs an AdminMiddleware instance with its own AuthenticationService, which is only
+     * built the first time a protected request arrives. Prefer
+     * {@link #AdminMiddleware(AuthenticationService, String...)} to share the application's service.
      *
      * @param protectedMethods the array of protected HTTP methods
      */
     public AdminMiddleware(String... protectedMethods) {
-        this.protectedMethods = protectedMethods;
-        this.authService = new AuthenticationService(
-                new ChefService(
-                        new ChefDAO(
-                                new ConnectionUtil())));
+        this(null, protectedMethods);
     }
 
     /**
@@ -54,13 +60,8 @@ public class AdminMiddleware implements Handler {
     public void handle(Context ctx) {
         if (isProtectedMethod(ctx.method().name())) {
 
-            // Get the token of the current logged in user
-            String token = AuthenticationService.loggedInUsers.keySet()
-                    .stream()
-                    .collect(Collectors.joining());
-
-            // Check the corresponding chef and check if they are admin
-            boolean isAdmin = isAdmin(authService.getChefFromSessionToken(token));
+            // Resolve the chef making this request and check if they are admin
+            boolean isAdmin = isAdmin(SessionResolver.resolveChef(ctx, getAuthService()));
 
             // If they are not admin, throw an exception
             if (!isAdmin) {
@@ -69,6 +70,20 @@ public class AdminMiddleware implements Handler {
         }
     }
 
+    /**
+     * @return the service to check sessions against, building a private one on first use if
+     *         none was given
+     */
+    private synchronized AuthenticationService getAuthService() {
+        if (authService == null) {
+            authService = new AuthenticationService(
+                    new ChefService(
+                            new ChefDAO(
+                                    new ConnectionUtil())));
+        }
+        return authService;
+    }
+
     /**
      * Checks if the specified HTTP method is protected.
      *
@@ -96,4 +111,4 @@ public class AdminMiddleware implements Handler {
         }
         return false;
     }
-}
\ No newline at end of file
+}
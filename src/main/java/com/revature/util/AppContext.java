@@ -0,0 +1,176 @@
+package com.revature.util;
+
+import com.revature.controller.AuthenticationController;
+import com.revature.controller.IngredientController;
+import com.revature.controller.MetricsController;
+import com.revature.controller.RecipeBulkController;
+import com.revature.controller.RecipeController;
+import com.revature.dao.CachingChefDAO;
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.dao.RecipeImportDAO;
+import com.revature.dao.RecipeIngredientDAO;
+import com.revature.service.AuthenticationService;
+import com.revature.service.ChefService;
+import com.revature.service.IngredientService;
+import com.revature.service.RecipeImportService;
+import com.revature.service.RecipeService;
+import com.revature.service.RecipeWriteCoalescer;
+
+/**
+ * The AppContext class wires the application's object graph exactly once: one instance of
+ * each DAO, service and controller, all sharing a single ConnectionUtil and a single
+ * AuthenticationService. Main builds one AppContext at startup and hands out its components,
+ * so this is the one place to swap in alternative implementations.
+ */
+public class AppContext {
+
+    private final ConnectionUtil connectionUtil;
+    private final TransactionManager transactionManager;
+    private final ChefDAO chefDAO;
+    private final IngredientDAO ingredientDAO;
+    private final RecipeDAO recipeDAO;
+    private final RecipeIngredientDAO recipeIngredientDAO;
+    private final RecipeImportDAO recipeImportDAO;
+    private final RecipeWriteCoalescer writeCoalescer;
+    private final ChefService chefService;
+    private final AuthenticationService authService;
+    private final RecipeService recipeService;
+    private final IngredientService ingredientService;
+    private final RecipeImportService recipeImportService;
+    private final RecipeController recipeController;
+    private final IngredientController ingredientController;
+    private final AuthenticationController authController;
+    private final RecipeBulkController recipeBulkController;
+    private final MetricsRegistry metricsRegistry;
+    private final MetricsController metricsController;
+    private final JavalinAppUtil javalinAppUtil;
+
+    /**
+     * Builds the application context on a new ConnectionUtil.
+     */
+    public AppContext() {
+        this(new ConnectionUtil());
+    }
+
+    /**
+     * Builds the application context on the given ConnectionUtil.
+     *
+     * @param connectionUtil the source of database connections shared by every DAO
+     */
+    public AppContext(ConnectionUtil connectionUtil) {
+        this.connectionUtil = connectionUtil;
+        this.transactionManager = TransactionManager.fromConfig();
+        this.chefDAO = CachingChefDAO.fromConfig(connectionUtil);
+        this.ingredientDAO = new IngredientDAO(connectionUtil);
+        this.recipeDAO = new RecipeDAO(chefDAO, ingredientDAO, connectionUtil);
+        this.chefService = new ChefService(chefDAO);
+        this.authService = new AuthenticationService(chefService);
+        this.recipeIngredientDAO = new RecipeIngredientDAO(connectionUtil);
+        this.recipeImportDAO = new RecipeImportDAO(connectionUtil);
+        this.writeCoalescer = RecipeWriteCoalescer.fromConfig(recipeImportDAO);
+        this.recipeService = new RecipeService(recipeDAO, recipeIngredientDAO, transactionManager, writeCoalescer);
+        this.ingredientService = new IngredientService(ingredientDAO);
+        this.ingredientService.addChangeListener(recipeService.getIngredientChangeListener());
+        this.recipeImportService = new RecipeImportService(recipeImportDAO, recipeService);
+        this.recipeController = new RecipeController(recipeService, authService);
+        this.ingredientController = new IngredientController(ingredientService);
+        this.authController = new AuthenticationController(chefService, authService);
+        this.recipeBulkController = new RecipeBulkController(recipeImportService, recipeService, authService);
+        this.metricsRegistry = new MetricsRegistry(ConnectionUtil.getPool(), writeCoalescer);
+        this.metricsController = Config.getBoolean("recipe.metrics.enabled", true) ? new MetricsController(metricsRegistry) : null;
+        this.javalinAppUtil = new JavalinAppUtil(recipeController, authController, ingredientController, recipeBulkController,
+                metricsController);
+        if (writeCoalescer != null) {
+            // recipes still queued are written before the server's shutdown completes
+            this.javalinAppUtil.closeOnStop(writeCoalescer);
+        }
+    }
+
+    public ConnectionUtil getConnectionUtil() {
+        return connectionUtil;
+    }
+
+    public TransactionManager getTransactionManager() {
+        return transactionManager;
+    }
+
+    public ChefDAO getChefDAO() {
+        return chefDAO;
+    }
+
+    public IngredientDAO getIngredientDAO() {
+        return ingredientDAO;
+    }
+
+    public RecipeDAO getRecipeDAO() {
+        return recipeDAO;
+    }
+
+    public RecipeIngredientDAO getRecipeIngredientDAO() {
+        return recipeIngredientDAO;
+    }
+
+    public RecipeImportDAO getRecipeImportDAO() {
+        return recipeImportDAO;
+    }
+
+    /**
+     * @return the recipe write coalescer, or null if "recipe.writes.coalesce.enabled" is false
+     */
+    public RecipeWriteCoalescer getWriteCoalescer() {
+        return writeCoalescer;
+    }
+
+    public ChefService getChefService() {
+        return chefService;
+    }
+
+    public AuthenticationService getAuthService() {
+        return authService;
+    }
+
+    public RecipeService getRecipeService() {
+        return recipeService;
+    }
+
+    public IngredientService getIngredientService() {
+        return ingredientService;
+    }
+
+    public RecipeImportService getRecipeImportService() {
+        return recipeImportService;
+    }
+
+    public RecipeController getRecipeController() {
+        return recipeController;
+    }
+
+    public IngredientController getIngredientController() {
+        return ingredientController;
+    }
+
+    public AuthenticationController getAuthController() {
+        return authController;
+    }
+
+    public RecipeBulkController getRecipeBulkController() {
+        return recipeBulkController;
+    }
+
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * @return the metrics controller, or null if "recipe.metrics.enabled" is false
+     */
+    public MetricsController getMetricsController() {
+        return metricsController;
+    }
+
+    public JavalinAppUtil getJavalinAppUtil() {
+        return javalinAppUtil;
+    }
+}
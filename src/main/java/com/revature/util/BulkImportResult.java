@@ -0,0 +1,168 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The BulkImportResult class reports the outcome of a bulk recipe import: how many recipes
+ * were imported, how many failed, and why each failed row was rejected. Only the first
+ * {@link #MAX_ERRORS} failures are listed, so a badly broken upload cannot produce an
+ * unbounded report; the failed count always covers every row.
+ */
+public class BulkImportResult {
+
+    /** The most row errors listed in a single report. */
+    public static final int MAX_ERRORS = 1000;
+
+    // fields
+
+    /** The number of recipes written to the database. */
+    private int imported;
+    /** The number of rows that were rejected. */
+    private int failed;
+    /** The reasons rows were rejected, in input order. */
+    private List<RowError> errors = new ArrayList<>();
+
+    // constructors
+    public BulkImportResult() {
+
+    }
+
+    public BulkImportResult(int imported, int failed, List<RowError> errors) {
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    /**
+     * Records that one more recipe was imported.
+     */
+    public void addImported() {
+        imported++;
+    }
+
+    /**
+     * Records a rejected row.
+     *
+     * @param index   the zero-based position of the row in the upload
+     * @param name    the recipe name, if it could be read
+     * @param message why the row was rejected
+     */
+    public void addError(int index, String name, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(index, name, message));
+        }
+    }
+
+    // getters and setters
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(imported, failed, errors);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        BulkImportResult other = (BulkImportResult) obj;
+        return imported == other.imported &&
+               failed == other.failed &&
+               Objects.equals(errors, other.errors);
+    }
+
+    /**
+     * A single rejected row.
+     */
+    public static class RowError {
+
+        /** The zero-based position of the row in the upload. */
+        private int index;
+        /** The recipe name, or null if the row could not be read. */
+        private String name;
+        /** Why the row was rejected. */
+        private String message;
+
+        public RowError() {
+
+        }
+
+        public RowError(int index, String name, String message) {
+            this.index = index;
+            this.name = name;
+            this.message = message;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(index, name, message);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            RowError other = (RowError) obj;
+            return index == other.index &&
+                   Objects.equals(name, other.name) &&
+                   Objects.equals(message, other.message);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.revature.util;
+
+/**
+ * The Config class reads application settings from JVM system properties, falling back to
+ * environment variables and then to a default. Keys are written in dotted camel case, such
+ * as "recipe.db.pool.maxSize"; the matching environment variable is the key in upper snake
+ * case, such as RECIPE_DB_POOL_MAX_SIZE.
+ */
+public class Config {
+
+    private Config() {
+    }
+
+    /**
+     * @param key          the dotted setting key
+     * @param defaultValue the value to use when the setting is absent
+     * @return the configured value, or the default
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null) {
+            value = System.getenv(toEnvName(key));
+        }
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * @param key          the dotted setting key
+     * @param defaultValue the value to use when the setting is absent or not a number
+     * @return the configured value, or the default
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * @param key          the dotted setting key
+     * @param defaultValue the value to use when the setting is absent or not a number
+     * @return the configured value, or the default
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * @param key          the dotted setting key
+     * @param defaultValue the value to use when the setting is absent
+     * @return true if the setting is "true" (ignoring case), the default if absent
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value != null ? Boolean.parseBoolean(value.trim()) : defaultValue;
+    }
+
+    /**
+     * Converts a setting key to its environment variable name, e.g. "recipe.db.pool.maxSize"
+     * to "RECIPE_DB_POOL_MAX_SIZE".
+     *
+     * @param key the dotted setting key
+     * @return the environment variable name
+     */
+    static String toEnvName(String key) {
+        StringBuilder env = new StringBuilder(key.length() + 8);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c == '.' || c == '-') {
+                env.append('_');
+            } else if (Character.isUpperCase(c)) {
+                env.append('_').append(c);
+            } else {
+                env.append(Character.toUpperCase(c));
+            }
+        }
+        return env.toString();
+    }
+}
@@ -0,0 +1,813 @@
+package com.revature.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.h2.jdbcx.JdbcDataSource;
+
+/**
+ * The ConnectionPool class is a bounded pool of physical H2 connections. Callers borrow a
+ * connection with {@link #getConnection()} and return it by closing it, exactly as they would
+ * a plain JDBC connection, so DAOs keep using try-with-resources unchanged.
+ *
+ * The pool never holds more than maxSize connections, keeps at least minIdle connections
+ * open, closes connections that have sat idle longer than idleTimeout, and validates a
+ * connection before handing it out if it has not been used recently. Callers that cannot
+ * get a connection within acquireTimeout receive an SQLTransientConnectionException.
+ *
+ * The permits double as the application's concurrency limit: when requests run on virtual
+ * threads there is no thread pool to cap them, so at most maxSize requests touch the database
+ * at once and the rest queue here in arrival order. The queue itself is bounded by maxWaiters;
+ * a borrower arriving to a full queue is rejected at once rather than waiting out the timeout.
+ *
+ * Returned connections are reset before reuse: statements left open are closed, and an
+ * uncommitted transaction is rolled back with auto-commit restored.
+ *
+ * Statements created through a borrowed connection are wrapped so that every execute call
+ * is timed, grouped by {@link QueryType}. Recording a timing only touches preallocated
+ * counters and takes no locks, but the wrapping itself is not free: every call through a
+ * pooled connection or statement goes through a dynamic proxy, which allocates an argument
+ * array, boxes primitive arguments and results, and invokes the driver reflectively.
+ *
+ * With a statement cache size above zero, each physical connection also keeps its most
+ * recently used prepared statements open. Preparing the same SQL text again on that
+ * connection hands back the open statement, already parsed and planned, and closing it
+ * returns it to the cache with its parameters cleared.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /** Connections used within this window are handed out again without validation. */
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+
+    private final JdbcDataSource dataSource = new JdbcDataSource();
+    private final int minIdle;
+    private final int maxSize;
+    private final int maxWaiters;
+    private final int statementCacheSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int validationTimeoutSeconds;
+
+    /** One permit per connection that may be checked out. */
+    private final Semaphore permits;
+    /** Idle connections, most recently returned first. */
+    private final LinkedBlockingDeque<PooledEntry> idle = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService housekeeper;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder validationFailures = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LatencyHistogram acquireLatency = new LatencyHistogram();
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+    private final LatencyHistogram[] queryLatency = new LatencyHistogram[QueryType.all().length];
+    private final LongAdder[] queryErrors = new LongAdder[QueryType.all().length];
+
+    private volatile boolean closed;
+
+    /**
+     * Creates a pool. No connection is opened until the first borrow or housekeeping run.
+     *
+     * @param url                      the JDBC URL of the H2 database
+     * @param username                 the database user
+     * @param password                 the database password
+     * @param minIdle                  the number of connections to keep open when idle
+     * @param maxSize                  the maximum number of open connections
+     * @param acquireTimeoutMillis     how long a borrower waits for a free connection
+     * @param idleTimeoutMillis        how long a connection above minIdle may stay idle
+     * @param validationTimeoutSeconds the timeout passed to Connection.isValid on borrow
+     * @param housekeepingMillis       the interval between idle eviction runs
+     */
+    public ConnectionPool(String url, String username, String password, int minIdle, int maxSize,
+            long acquireTimeoutMillis, long idleTimeoutMillis, int validationTimeoutSeconds, long housekeepingMillis) {
+        this(url, username, password, minIdle, maxSize, acquireTimeoutMillis, idleTimeoutMillis, validationTimeoutSeconds,
+                housekeepingMillis, 0);
+    }
+
+    /**
+     * Creates a pool with a bounded wait queue.
+     *
+     * @param url                      the JDBC URL of the H2 database
+     * @param username                 the database user
+     * @param password                 the database password
+     * @param minIdle                  the number of connections to keep open when idle
+     * @param maxSize                  the maximum number of open connections
+     * @param acquireTimeoutMillis     how long a borrower waits for a free connection
+     * @param idleTimeoutMillis        how long a connection above minIdle may stay idle
+     * @param validationTimeoutSeconds the timeout passed to Connection.isValid on borrow
+     * @param housekeepingMillis       the interval between idle eviction runs
+     * @param maxWaiters               the most borrowers that may wait at once, or 0 for no limit
+     */
+    public ConnectionPool(String url, String username, String password, int minIdle, int maxSize,
+            long acquireTimeoutMillis, long idleTimeoutMillis, int validationTimeoutSeconds, long housekeepingMillis,
+            int maxWaiters) {
+        this(url, username, password, minIdle, maxSize, acquireTimeoutMillis, idleTimeoutMillis, validationTimeoutSeconds,
+                housekeepingMillis, maxWaiters, 0);
+    }
+
+    /**
+     * Creates a pool with a bounded wait queue and a prepared statement cache.
+     *
+     * @param url                      the JDBC URL of the H2 database
+     * @param username                 the database user
+     * @param password                 the database password
+     * @param minIdle                  the number of connections to keep open when idle
+     * @param maxSize                  the maximum number of open connections
+     * @param acquireTimeoutMillis     how long a borrower waits for a free connection
+     * @param idleTimeoutMillis        how long a connection above minIdle may stay idle
+     * @param validationTimeoutSeconds the timeout passed to Connection.isValid on borrow
+     * @param housekeepingMillis       the interval between idle eviction runs
+     * @param maxWaiters               the most borrowers that may wait at once, or 0 for no limit
+     * @param statementCacheSize       the prepared statements kept open per connection, or 0 for none
+     */
+    public ConnectionPool(String url, String username, String password, int minIdle, int maxSize,
+            long acquireTimeoutMillis, long idleTimeoutMillis, int validationTimeoutSeconds, long housekeepingMillis,
+            int maxWaiters, int statementCacheSize) {
+        this.dataSource.setURL(url);
+        this.dataSource.setUser(username);
+        this.dataSource.setPassword(password);
+        this.maxSize = Math.max(1, maxSize);
+        this.minIdle = Math.max(0, Math.min(minIdle, this.maxSize));
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.maxWaiters = maxWaiters > 0 ? maxWaiters : Integer.MAX_VALUE;
+        this.statementCacheSize = Math.max(0, statementCacheSize);
+        this.permits = new Semaphore(this.maxSize, true);
+        for (int i = 0; i < queryLatency.length; i++) {
+            queryLatency[i] = new LatencyHistogram();
+            queryErrors[i] = new LongAdder();
+        }
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep, housekeepingMillis, housekeepingMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a pool from the "recipe.db.*" settings read through {@link Config}.
+     *
+     * @return the configured pool
+     */
+    public static ConnectionPool fromConfig() {
+        return new ConnectionPool(
+                Config.getString("recipe.db.url", "jdbc:h2:./h2/db;"),
+                Config.getString("recipe.db.user", "sa"),
+                Config.getString("recipe.db.password", ""),
+                Config.getInt("recipe.db.pool.minIdle", 2),
+                Config.getInt("recipe.db.pool.maxSize", 20),
+                Config.getLong("recipe.db.pool.acquireTimeoutMs", 5000),
+                Config.getLong("recipe.db.pool.idleTimeoutMs", 600_000),
+                Config.getInt("recipe.db.pool.validationTimeoutSeconds", 2),
+                Config.getLong("recipe.db.pool.housekeepingMs", 30_000),
+                Config.getInt("recipe.db.pool.maxWaiters", 1000),
+                Config.getInt("recipe.db.pool.statementCacheSize", 64));
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquire timeout for one to become free.
+     *
+     * @return a pooled connection, returned to the pool when closed
+     * @throws SQLException if no connection became free in time, the wait queue is full, or
+     *                      a connection could not be opened
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        acquirePermit(start);
+        try {
+            PooledEntry entry = borrow();
+            active.incrementAndGet();
+            acquireLatency.record(System.nanoTime() - start);
+            return entry.lease();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Takes a permit, queueing for one if none is free. A zero timeout still honours the
+     * semaphore's fairness, so a newcomer never overtakes callers already in the queue. The
+     * time spent queued is recorded whether or not the wait succeeds.
+     */
+    private void acquirePermit(long start) throws SQLException {
+        try {
+            if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (waiting.incrementAndGet() > maxWaiters) {
+            waiting.decrementAndGet();
+            rejected.increment();
+            throw new SQLTransientConnectionException(
+                    "Too many callers (" + maxWaiters + ") already waiting for a database connection");
+        }
+        queued.increment();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            waiting.decrementAndGet();
+            queueLatency.record(System.nanoTime() - start);
+        }
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLTransientConnectionException(
+                    "Timed out after " + acquireTimeoutMillis + " ms waiting for a database connection");
+        }
+    }
+
+    /**
+     * @return the number of connections currently checked out
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * @return the number of open connections waiting in the pool
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * @return the number of callers currently waiting for a connection
+     */
+    public int getWaitingCount() {
+        return waiting.get();
+    }
+
+    /**
+     * @return the number of physical connections currently open
+     */
+    public int getOpenCount() {
+        return open.get();
+    }
+
+    /**
+     * @return the most callers that may wait for a connection at once
+     */
+    public int getMaxWaiters() {
+        return maxWaiters;
+    }
+
+    /**
+     * @return the maximum number of connections
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return the number of physical connections opened since the pool was created
+     */
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    /**
+     * @return the number of physical connections closed since the pool was created
+     */
+    public long getDestroyedCount() {
+        return destroyed.sum();
+    }
+
+    /**
+     * @return the number of borrows that gave up waiting for a connection
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * @return the number of borrows that found no free connection and had to queue
+     */
+    public long getQueuedCount() {
+        return queued.sum();
+    }
+
+    /**
+     * @return the number of borrows turned away because the wait queue was full
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return the prepared statements kept open per connection
+     */
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    /**
+     * @return the number of prepares answered with an already open statement
+     */
+    public long getStatementCacheHits() {
+        return statementCacheHits.sum();
+    }
+
+    /**
+     * @return the number of prepares that had to parse the statement, while the cache is on
+     */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses.sum();
+    }
+
+    /**
+     * @return the number of idle connections discarded because they failed validation
+     */
+    public long getValidationFailureCount() {
+        return validationFailures.sum();
+    }
+
+    /**
+     * @return the time taken by successful borrows, including any wait for a free connection
+     */
+    public LatencyHistogram getAcquireLatency() {
+        return acquireLatency;
+    }
+
+    /**
+     * @return the time borrowers spent queued for a free connection, successful or not;
+     *         borrows that found a connection free straight away are not recorded
+     */
+    public LatencyHistogram getQueueLatency() {
+        return queueLatency;
+    }
+
+    /**
+     * @param type the kind of statement
+     * @return the execution time of statements of that kind, including failed ones
+     */
+    public LatencyHistogram getQueryLatency(QueryType type) {
+        return queryLatency[type.ordinal()];
+    }
+
+    /**
+     * @param type the kind of statement
+     * @return the number of executions of that kind that threw an exception
+     */
+    public long getQueryErrorCount(QueryType type) {
+        return queryErrors[type.ordinal()].sum();
+    }
+
+    /**
+     * Closes all idle connections and stops housekeeping. Connections still checked out are
+     * closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            destroy(entry);
+        }
+    }
+
+    private PooledEntry borrow() throws SQLException {
+        PooledEntry entry;
+        while ((entry = idle.pollFirst()) != null) {
+            if (System.currentTimeMillis() - entry.lastUsed < VALIDATION_BYPASS_MILLIS || isValid(entry)) {
+                return entry;
+            }
+            validationFailures.increment();
+            destroy(entry);
+        }
+        return new PooledEntry(openPhysical());
+    }
+
+    private boolean isValid(PooledEntry entry) {
+        try {
+            return entry.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection openPhysical() throws SQLException {
+        Connection physical = dataSource.getConnection();
+        open.incrementAndGet();
+        created.increment();
+        return physical;
+    }
+
+    private void destroy(PooledEntry entry) {
+        try {
+            entry.physical.close();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            open.decrementAndGet();
+            destroyed.increment();
+        }
+    }
+
+    private void release(PooledEntry entry, boolean broken) {
+        active.decrementAndGet();
+        try {
+            if (broken || closed) {
+                destroy(entry);
+            } else {
+                entry.lastUsed = System.currentTimeMillis();
+                idle.addFirst(entry);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Closes connections idle for longer than the idle timeout, oldest first, while more
+     * than minIdle remain, then opens connections until minIdle are available.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            Iterator<PooledEntry> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && idle.size() > minIdle) {
+                PooledEntry entry = oldestFirst.next();
+                if (now - entry.lastUsed > idleTimeoutMillis && idle.remove(entry)) {
+                    destroy(entry);
+                }
+            }
+            while (!closed && open.get() < minIdle && idle.size() < minIdle) {
+                PooledEntry entry = new PooledEntry(openPhysical());
+                entry.lastUsed = System.currentTimeMillis();
+                idle.addLast(entry);
+            }
+        } catch (SQLException | RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * A physical connection owned by the pool. Each checkout hands out a fresh proxy, so a
+     * caller that closes its connection twice, or keeps using it after closing, cannot
+     * affect the next borrower.
+     */
+    private class PooledEntry {
+
+        private final Connection physical;
+        private volatile long lastUsed;
+        /**
+         * Open prepared statements by SQL text, least recently used first. Only the current
+         * borrower touches it, and the hand-over between borrowers goes through the idle deque.
+         */
+        private final Map<String, CachedStatement> statementCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= statementCacheSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+
+        PooledEntry(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection lease() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new Lease(this));
+        }
+    }
+
+    /**
+     * Intercepts calls on a borrowed connection: tracks the statements it creates and
+     * returns the physical connection to the pool on close.
+     */
+    private class Lease implements InvocationHandler {
+
+        private final PooledEntry entry;
+        private final List<TimedStatement> statements = new ArrayList<>();
+        private boolean returned;
+
+        Lease(PooledEntry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    giveBack();
+                    return null;
+                case "isClosed":
+                    return returned || entry.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + entry.physical + "]";
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : entry.physical.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || entry.physical.isWrapperFor((Class<?>) args[0]);
+                default:
+                    break;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (statementCacheSize > 0 && method.getName().equals("prepareStatement") && isCacheable(args)) {
+                return prepareCached((Connection) proxy, (String) args[0], args.length == 2
+                        && (Integer) args[1] == Statement.RETURN_GENERATED_KEYS);
+            }
+            Object result;
+            try {
+                result = method.invoke(entry.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                QueryType type = method.getName().startsWith("prepare") ? QueryType.of((String) args[0]) : null;
+                return wrap((Statement) result, method.getReturnType(), type, null, (Connection) proxy);
+            }
+            return result;
+        }
+
+        /**
+         * Only the variants that produce a default forward-only, read-only statement are
+         * cached: plain SQL, SQL with an auto-generated keys flag, and SQL asking for the
+         * default result set type and concurrency explicitly.
+         */
+        private boolean isCacheable(Object[] args) {
+            if (args.length == 1) {
+                return true;
+            } else if (args.length == 2) {
+                return args[1] instanceof Integer;
+            }
+            return args.length == 3 && (Integer) args[1] == ResultSet.TYPE_FORWARD_ONLY
+                    && (Integer) args[2] == ResultSet.CONCUR_READ_ONLY;
+        }
+
+        /**
+         * Hands out the cached statement for the SQL if it is free, or prepares a new one. A
+         * statement already in use by this borrower, or cached with the other generated keys
+         * setting, is left alone and an uncached statement is prepared alongside it.
+         */
+        private Object prepareCached(Connection proxy, String sql, boolean generatedKeys) throws SQLException {
+            CachedStatement cached = entry.statementCache.get(sql);
+            if (cached != null && !cached.inUse && cached.generatedKeys == generatedKeys) {
+                statementCacheHits.increment();
+                cached.inUse = true;
+                return wrap(cached.statement, PreparedStatement.class, cached.type, cached, proxy);
+            }
+            statementCacheMisses.increment();
+            PreparedStatement statement = generatedKeys
+                    ? entry.physical.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                    : entry.physical.prepareStatement(sql);
+            if (cached != null) {
+                return wrap(statement, PreparedStatement.class, QueryType.of(sql), null, proxy);
+            }
+            cached = new CachedStatement(statement, QueryType.of(sql), generatedKeys);
+            cached.inUse = true;
+            entry.statementCache.put(sql, cached);
+            return wrap(statement, PreparedStatement.class, cached.type, cached, proxy);
+        }
+
+        private Statement wrap(Statement statement, Class<?> type, QueryType queryType, CachedStatement cached,
+                Connection proxy) {
+            TimedStatement handler = new TimedStatement(statement, queryType, proxy, cached);
+            track(handler);
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { type }, handler);
+        }
+
+        private void track(TimedStatement statement) {
+            if (statements.size() >= 64) {
+                statements.removeIf(TimedStatement::isReleased);
+            }
+            statements.add(statement);
+        }
+
+        private void giveBack() {
+            if (returned) {
+                return;
+            }
+            returned = true;
+            boolean broken = false;
+            try {
+                for (TimedStatement statement : statements) {
+                    statement.release();
+                }
+                if (!entry.physical.getAutoCommit()) {
+                    entry.physical.rollback();
+                    entry.physical.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                broken = true;
+            } finally {
+                statements.clear();
+                release(entry, broken);
+            }
+        }
+    }
+
+    /**
+     * A prepared statement kept open on its physical connection between borrowers.
+     */
+    private static class CachedStatement {
+
+        private final PreparedStatement statement;
+        private final QueryType type;
+        private final boolean generatedKeys;
+        private final int fetchSize;
+        private boolean inUse;
+        private boolean evicted;
+
+        CachedStatement(PreparedStatement statement, QueryType type, boolean generatedKeys) throws SQLException {
+            this.statement = statement;
+            this.type = type;
+            this.generatedKeys = generatedKeys;
+            this.fetchSize = statement.getFetchSize();
+        }
+
+        /**
+         * Drops the statement from the cache, closing it now if it is free or once its
+         * current user is done with it.
+         */
+        void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        /**
+         * Makes the statement ready for the next borrower: its result, parameters and batch
+         * are cleared and its fetch size restored.
+         */
+        void checkIn() {
+            inUse = false;
+            if (evicted) {
+                closeQuietly();
+                return;
+            }
+            try {
+                ResultSet resultSet = statement.getResultSet();
+                if (resultSet != null) {
+                    resultSet.close();
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                if (statement.getFetchSize() != fetchSize) {
+                    statement.setFetchSize(fetchSize);
+                }
+            } catch (SQLException e) {
+                evicted = true;
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Times the execute calls of a statement handed out by a lease. A prepared statement is
+     * classified once from its SQL; a plain statement is classified on each execute call.
+     * Closing a cached statement checks it back into its connection's cache instead.
+     */
+    private class TimedStatement implements InvocationHandler {
+
+        private final Statement statement;
+        private final QueryType preparedType;
+        private final Connection connection;
+        private final CachedStatement cached;
+        private boolean released;
+
+        TimedStatement(Statement statement, QueryType preparedType, Connection connection, CachedStatement cached) {
+            this.statement = statement;
+            this.preparedType = preparedType;
+            this.connection = connection;
+            this.cached = cached;
+        }
+
+        boolean isReleased() {
+            if (released) {
+                return true;
+            }
+            try {
+                return statement.isClosed();
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+
+        /**
+         * Closes the statement, or returns it to the cache, unless that was already done.
+         */
+        void release() throws SQLException {
+            if (released) {
+                return;
+            }
+            released = true;
+            if (cached != null) {
+                cached.checkIn();
+            } else {
+                statement.close();
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    release();
+                    return null;
+                case "isClosed":
+                    return isReleased();
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : statement.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || statement.isWrapperFor((Class<?>) args[0]);
+                default:
+                    break;
+            }
+            if (released && cached != null) {
+                throw new SQLException("Statement is closed");
+            }
+            if (!name.startsWith("execute")) {
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+            int type = typeOf(args).ordinal();
+            long start = System.nanoTime();
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                queryErrors[type].increment();
+                throw e.getCause();
+            } finally {
+                queryLatency[type].record(System.nanoTime() - start);
+            }
+        }
+
+        private QueryType typeOf(Object[] args) {
+            if (preparedType != null) {
+                return preparedType;
+            }
+            return args != null && args.length > 0 && args[0] instanceof String ? QueryType.of((String) args[0]) : QueryType.OTHER;
+        }
+    }
+}
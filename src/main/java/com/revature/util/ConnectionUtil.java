@@ -2,41 +2,61 @@ package com.revature.util;
 import java.sql.Connection;
 import java.sql.SQLException;
 
-import org.h2.jdbcx.JdbcDataSource;
-
 /**
-This class provides autility methods and configuration for managing database connections for an H2 database. It uses a JdbcDataSource connection pool to manage connections efficiently.
+This class provides autility methods and configuration for managing database connections for an H2 database. It hands out connections from a shared, bounded {@link ConnectionPool}, so closing a connection returns it to the pool rather than closing the physical connection.
 
-You do not need to edit this class.
+The database URL, credentials and pool sizing are read through {@link Config} from the "recipe.db.*" system properties or the matching RECIPE_DB_* environment variables; see {@link ConnectionPool#fromConfig()}.
 
  */
 public class ConnectionUtil {
 
-    // fields
-	private static String url = "jdbc:h2:./h2/db;";
-	private static String username = "sa";
-	private static String password = "";
-	private static JdbcDataSource pool = new JdbcDataSource();
+	/**
+	 * Holds the pool shared by every ConnectionUtil instance. It is created on first use, so
+	 * settings may still be changed before the first connection is requested.
+	 */
+	private static class PoolHolder {
+		private static final ConnectionPool POOL = ConnectionPool.fromConfig();
+	}
+
+	/** The pool this instance borrows from, or null for the shared pool. */
+	private final ConnectionPool pool;
+
+	/**
+	 * Creates a ConnectionUtil on the shared pool.
+	 */
+	public ConnectionUtil() {
+		this(null);
+	}
 
 	/**
-	 * static initialization block to establish credentials for DataSoure Pool
+	 * Creates a ConnectionUtil on its own pool, such as a deliberately small one in a test.
+	 *
+	 * @param pool the pool to borrow from, or null for the shared pool
 	 */
-	static {
-		pool.setURL(url);
-		pool.setUser(username);
-		pool.setPassword(password);
+	public ConnectionUtil(ConnectionPool pool) {
+		this.pool = pool;
 	}
 
 	/**
-	 * @return an active connection to the database
+	 * @return an active connection to the database; within a request or transaction scope
+	 *         opened through {@link TransactionManager}, the connection bound to it
+	 * @throws DatabaseUnavailableException if no connection could be borrowed, for example
+	 *         because too many callers are already waiting for one
 	 */
 	public Connection getConnection() {
+		ConnectionPool source = pool != null ? pool : PoolHolder.POOL;
 		try {
-			return pool.getConnection();
+			Connection bound = TransactionManager.boundConnection(source);
+			return bound != null ? bound : source.getConnection();
 		} catch (SQLException e) {
-			e.printStackTrace();
+			throw new DatabaseUnavailableException(e);
 		}
+	}
 
-		return null;
+	/**
+	 * @return the shared pool, for reading its active, idle and waiting counts and acquire latency
+	 */
+	public static ConnectionPool getPool() {
+		return PoolHolder.POOL;
 	}
 }
@@ -0,0 +1,152 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.Objects;
+
+/**
+ * The Cursor class represents a position in a sorted result set for keyset (seek)
+ * pagination. It records the sort column and direction along with the (sort value, id)
+ * tuple of the last row a client received, so the next page can be read with a WHERE
+ * clause instead of an OFFSET that grows with the page number.
+ *
+ * Cursors are handed to clients as opaque URL-safe tokens via {@link #encode()} and read
+ * back with {@link #decode(String)}. Since a cursor carries its own ordering, clients only
+ * need to send the token to continue scrolling.
+ */
+public class Cursor {
+
+    /** The whitelisted column the results are ordered by. */
+    private final String sortBy;
+    /** The direction of sorting, either "ASC" or "DESC". */
+    private final String sortDirection;
+    /** The sort column value of the last row returned. */
+    private final String value;
+    /** The id of the last row returned, used as the tie-breaker. */
+    private final int id;
+
+    public Cursor(String sortBy, String sortDirection, String value, int id) {
+        this.sortBy = sortBy;
+        this.sortDirection = "DESC".equalsIgnoreCase(sortDirection) ? "DESC" : "ASC";
+        this.value = value;
+        this.id = id;
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public String getSortDirection() {
+        return sortDirection;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Encodes this cursor as an opaque token.
+     *
+     * @return a URL-safe token that can be passed back to {@link #decode(String)}
+     */
+    public String encode() {
+        String raw = sortBy + "\n" + sortDirection + "\n" + id + "\n" + (value == null ? "" : value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the token sent by the client
+     * @return the decoded cursor, or null if the token is null or blank (the first page)
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new Cursor(parts[0], parts[1], parts[3], Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+
+    /**
+     * Builds the seek predicate selecting the rows after this cursor.
+     *
+     * @param orderColumn the whitelisted column the query orders by
+     * @param idColumn    the id column used as the tie-breaker
+     * @return the predicate, to be bound with {@link #bind(PreparedStatement, int, String, String)}
+     */
+    public String predicate(String orderColumn, String idColumn) {
+        return predicate(orderColumn, idColumn, sortDirection);
+    }
+
+    /**
+     * Builds the seek predicate for any cursor with the given sort direction, so statements
+     * can be built ahead of time.
+     *
+     * @param orderColumn   the whitelisted column the query orders by
+     * @param idColumn      the id column used as the tie-breaker
+     * @param sortDirection "ASC" or "DESC"
+     * @return the predicate, to be bound with {@link #bind(PreparedStatement, int, String, String)}
+     */
+    public static String predicate(String orderColumn, String idColumn, String sortDirection) {
+        String op = "DESC".equals(sortDirection) ? "<" : ">";
+        if (orderColumn.equals(idColumn)) {
+            return idColumn + " " + op + " ?";
+        }
+        return "(" + orderColumn + " " + op + " ? OR (" + orderColumn + " = ? AND " + idColumn + " " + op + " ?))";
+    }
+
+    /**
+     * Binds the parameters of the predicate built by {@link #predicate(String, String)}.
+     *
+     * @param ps          the statement to bind to
+     * @param index       the index of the first placeholder
+     * @param orderColumn the column passed to {@link #predicate(String, String)}
+     * @param idColumn    the id column passed to {@link #predicate(String, String)}
+     * @return the index of the next unbound placeholder
+     * @throws SQLException if binding fails
+     */
+    public int bind(PreparedStatement ps, int index, String orderColumn, String idColumn) throws SQLException {
+        if (!orderColumn.equals(idColumn)) {
+            ps.setString(index++, value);
+            ps.setString(index++, value);
+        }
+        ps.setInt(index++, id);
+        return index;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sortBy, sortDirection, value, id);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        Cursor cursor = (Cursor) obj;
+        return id == cursor.id &&
+               Objects.equals(sortBy, cursor.sortBy) &&
+               Objects.equals(sortDirection, cursor.sortDirection) &&
+               Objects.equals(value, cursor.value);
+    }
+}
@@ -0,0 +1,78 @@
+package com.revature.util;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The CursorPage class represents one page of a keyset-paginated collection. Unlike
+ * {@link Page}, it carries no page number or totals; instead it holds an opaque cursor
+ * that the client sends back to fetch the following page.
+ *
+ * @param <E> the type of elements in the page
+ */
+public class CursorPage<E> {
+
+    // fields
+
+    /** The maximum number of items per page. */
+    private int pageSize;
+    /** The token to request the next page with, or null if this is the last page. */
+    private String nextCursor;
+    /** The items on this page. */
+    private List<E> items;
+
+    // constructors
+    public CursorPage() {
+
+    }
+
+    public CursorPage(int pageSize, String nextCursor, List<E> items) {
+        this.pageSize = pageSize;
+        this.nextCursor = nextCursor;
+        this.items = items;
+    }
+
+    // getters and setters
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = pageSize;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public List<E> getItems() {
+        return items;
+    }
+
+    public void setItems(List<E> items) {
+        this.items = items;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(pageSize, nextCursor, items);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        CursorPage<?> page = (CursorPage<?>) obj;
+        return pageSize == page.pageSize &&
+               Objects.equals(nextCursor, page.nextCursor) &&
+               Objects.equals(items, page.items);
+    }
+}
@@ -1,46 +1,25 @@
 package com.revature.util;
 
-import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.Scanner;
 
 /**
-The DBUtil class is a utility designed to handle database setup and reset operations by reading SQL commands from a file and executing them. This can be useful in scenarios where you need to reinitialize the database with a specific schema and data set.
+The DBUtil class is a utility designed to handle database reset operations. It drops every object in the database and rebuilds the schema and seed data by running all migrations from scratch, which gives tests a known data set.
 
-You do not need to edit this class.
+Applications should run {@link MigrationRunner} directly instead, which keeps existing data.
 
  */
 public class DBUtil {
-	
-	/** A mutable text object that will contain the contents of a file once initialized. */
-	private static StringBuilder sqlScript = new StringBuilder();
-	private static InputStream inputStream =  DBUtil.class.getResourceAsStream("/sqlScript.sql");
-	
 
 	/**
-	 * static initialization block to initialize the `sqlScript` field with the content within the `sqlScript.sql` file. Any lines starting with comment syntax are ignored.
-	 */
-	static {
-			Scanner sc = new Scanner(inputStream);
-			while (sc.hasNextLine()) {
-				String nextLine = sc.nextLine();
-				if (!nextLine.startsWith("--")) {
-					sqlScript.append(nextLine + " ");
-				}
-			}
-			sc.close();
-	}
-
-	/**
-	 * This method resets and re-initializes the database by first dropping all existing objects (tables, views, procedures, etc.) and then executing the SQL script with the `sqlScript.sql` file.
+	 * This method resets and re-initializes the database by first dropping all existing objects (tables, views, procedures, etc.) and then applying every migration in `db/migration`.
 	 */
 	public static void RUN_SQL() {
 		try(Connection conn = new ConnectionUtil().getConnection()) {
 			conn.prepareStatement("DROP ALL OBJECTS").executeUpdate();
-			conn.prepareStatement(sqlScript.toString()).executeUpdate();
 		} catch (SQLException e) {
 			e.printStackTrace();
 		}
+		new MigrationRunner(new ConnectionUtil()).migrate();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.revature.util;
+
+import java.sql.SQLException;
+
+/**
+ * The DatabaseUnavailableException is thrown instead of handing out a connection when none
+ * can be had, such as when the pool's wait queue is full or the wait for a connection times
+ * out, and when a queued write is not made in time. It is unchecked so that it passes through the DAOs, which handle SQLExceptions
+ * themselves, and reaches {@link JavalinAppUtil}, which answers 503 Service Unavailable.
+ */
+public class DatabaseUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * @param cause the reason no connection could be borrowed or the write was not made
+     */
+    public DatabaseUnavailableException(SQLException cause) {
+        super(cause.getMessage(), cause);
+    }
+}
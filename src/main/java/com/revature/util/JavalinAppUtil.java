@@ -3,8 +3,18 @@ import com.revature.controller.RecipeController;
 
 import io.javalin.Javalin;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
 import com.revature.controller.AuthenticationController;
 import com.revature.controller.IngredientController;
+import com.revature.controller.MetricsController;
+import com.revature.controller.RecipeBulkController;
+import com.revature.service.AuthenticationService;
 
 
 /**
@@ -15,6 +25,19 @@ import com.revature.controller.IngredientController;
  * to create and configure the Javalin app instance, including defining 
  * the routes for each controller and applying any necessary middleware, 
  * such as admin middleware.
+ *
+ * Requests run on a bounded pool of platform threads by default. Setting
+ * "recipe.http.virtualThreads" to true hands each request to its own virtual
+ * thread instead, so a burst of slow clients no longer exhausts the pool; the
+ * database connection pool then becomes the limit on how many requests do
+ * JDBC work at once.
+ *
+ * Unless "recipe.db.requestScope" is false, each request is handled in a
+ * {@link TransactionManager} request scope: all of its DAO calls share one
+ * pooled connection, borrowed on first use and returned when the request ends.
+ * A request that cannot borrow one, because the pool's wait queue is full or
+ * the wait timed out, is answered 503 with a "Retry-After" of
+ * "recipe.http.retryAfterSeconds" (default 1).
  */
 
 public class JavalinAppUtil {
@@ -37,6 +60,24 @@ public class JavalinAppUtil {
 
     private IngredientController ingredientController;
 
+    /**
+     * The RecipeBulkController for bulk recipe routes, or null if they are not served.
+     */
+
+    private RecipeBulkController recipeBulkController;
+
+    /**
+     * The MetricsController timing every request and serving /metrics, or null if metrics are off.
+     */
+
+    private MetricsController metricsController;
+
+    /**
+     * The resources closed once the server has stopped, in registration order.
+     */
+
+    private final List<AutoCloseable> closeOnStop = new CopyOnWriteArrayList<>();
+
     /**
      * Constructs a JavalinAppUtil with the specified controllers.
      *
@@ -46,9 +87,51 @@ public class JavalinAppUtil {
      */
 
     public JavalinAppUtil(RecipeController recipeController, AuthenticationController authController, IngredientController ingredientController) {
+        this(recipeController, authController, ingredientController, null);
+    }
+
+    /**
+     * Constructs a JavalinAppUtil that also serves the bulk recipe routes.
+     *
+     * @param recipeController the controller for handling recipe operations
+     * @param authController the controller for handling authentication operations
+     * @param ingredientController the controller for handling ingredient operations
+     * @param recipeBulkController the controller for bulk recipe operations, or null to leave them out
+     */
+
+    public JavalinAppUtil(RecipeController recipeController, AuthenticationController authController, IngredientController ingredientController,
+            RecipeBulkController recipeBulkController) {
+        this(recipeController, authController, ingredientController, recipeBulkController, null);
+    }
+
+    /**
+     * Constructs a JavalinAppUtil that also serves the bulk recipe routes and request metrics.
+     *
+     * @param recipeController the controller for handling recipe operations
+     * @param authController the controller for handling authentication operations
+     * @param ingredientController the controller for handling ingredient operations
+     * @param recipeBulkController the controller for bulk recipe operations, or null to leave them out
+     * @param metricsController the controller recording request metrics, or null to leave them out
+     */
+
+    public JavalinAppUtil(RecipeController recipeController, AuthenticationController authController, IngredientController ingredientController,
+            RecipeBulkController recipeBulkController, MetricsController metricsController) {
         this.recipeController = recipeController;
         this.authenticationController = authController;
         this.ingredientController = ingredientController;
+        this.recipeBulkController = recipeBulkController;
+        this.metricsController = metricsController;
+    }
+
+    /**
+     * Registers a resource to be closed once a server built by {@link #getApp()} has stopped,
+     * such as a background writer that should finish its queued work.
+     *
+     * @param resource the resource to close
+     */
+
+    public void closeOnStop(AutoCloseable resource) {
+        closeOnStop.add(resource);
     }
 
     /**
@@ -59,6 +142,8 @@ public class JavalinAppUtil {
      */
 	
     public Javalin getApp() {
+        boolean virtualThreads = Config.getBoolean("recipe.http.virtualThreads", false);
+        int maxThreads = Config.getInt("recipe.http.maxThreads", 250);
         Javalin app = Javalin.create(config -> {
             config.plugins.enableCors(cors -> {
                 cors.add(it -> {
@@ -67,19 +152,77 @@ public class JavalinAppUtil {
 
             });
 
-            
+            config.jetty.server(() -> new Server(createThreadPool(virtualThreads, maxThreads)));
+        });
+        // Javalin only falls back to port 8080 for a server it builds itself
+        app.jettyServer().setServerPort(8080);
+
+        // Requests have been answered by the time the server reports it has stopped
+        app.events(event -> event.serverStopped(() -> {
+            for (AutoCloseable resource : closeOnStop) {
+                try {
+                    resource.close();
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }));
+
+        // Metrics go first so their timer wraps every other handler, middleware included
+        if (metricsController != null) {
+            metricsController.configureRoutes(app);
+        }
+
+        // A request that cannot get a database connection is told to come back shortly
+        int retryAfterSeconds = Config.getInt("recipe.http.retryAfterSeconds", 1);
+        app.exception(DatabaseUnavailableException.class, (e, ctx) -> {
+            ctx.status(503);
+            ctx.header("Retry-After", String.valueOf(retryAfterSeconds));
+            ctx.result("Database busy, try again later");
         });
 
-        // Configure routes for each controller
+        // One connection per request, shared by every DAO call the request makes
+        if (Config.getBoolean("recipe.db.requestScope", true)) {
+            app.before(ctx -> TransactionManager.beginRequest());
+            app.after(ctx -> TransactionManager.endRequest());
+        }
+
+        // Configure routes for each controller; the bulk routes go first so that
+        // "/recipes/bulk" is not matched as "/recipes/{id}"
+        if (recipeBulkController != null) {
+            recipeBulkController.configureRoutes(app);
+        }
         recipeController.configureRoutes(app);
         authenticationController.configureRoutes(app);
         ingredientController.configureRoutes(app);
 
-        app.before("/recipes/*", new AdminMiddleware("DELETE"));
-        app.before("/ingredients/*", new AdminMiddleware("UPDATE", "CREATE", "DELETE"));
+        // The middleware checks sessions against the same service that logs chefs in
+        AuthenticationService authService = authenticationController.getAuthService();
+        app.before("/recipes/*", new AdminMiddleware(authService, "DELETE"));
+        app.before("/ingredients/*", new AdminMiddleware(authService, "UPDATE", "CREATE", "DELETE"));
 
         return app;
     }
 
+    /**
+     * Creates the Jetty thread pool. Jetty's selectors and acceptors always run on the
+     * platform threads; in virtual mode the pool hands each request's handler invocation
+     * to a new virtual thread, so maxThreads no longer limits concurrent requests.
+     *
+     * @param virtualThreads whether handlers run on virtual threads
+     * @param maxThreads the maximum number of platform threads
+     * @return the configured thread pool
+     */
+
+    private static QueuedThreadPool createThreadPool(boolean virtualThreads, int maxThreads) {
+        QueuedThreadPool threadPool = new QueuedThreadPool(Math.max(maxThreads, 8), 8);
+        threadPool.setName("JettyServerThreadPool");
+        if (virtualThreads) {
+            threadPool.setVirtualThreadsExecutor(
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("JettyVirtualThread-", 0).factory()));
+        }
+        return threadPool;
+    }
+
 
 }
@@ -0,0 +1,249 @@
+package com.revature.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.javalin.http.HandlerType;
+
+/**
+ * The MetricsRegistry class collects request metrics per HTTP method and route, and renders
+ * them together with the connection pool's acquire, queue and query timings in the
+ * Prometheus text exposition format.
+ *
+ * Routes are keyed by their template, such as "/recipes/{id}", so the number of series is
+ * bounded by the number of routes. Once a route has been seen, recording a request is a map
+ * lookup and a few atomic increments, with no locks and no allocation of its own. The pool's
+ * query timings are not as cheap: see {@link ConnectionPool}.
+ *
+ * Other components, such as the recipe write coalescer, report through a {@link MetricsSource}
+ * that renders its own metrics with the helpers below.
+ */
+public class MetricsRegistry {
+
+    /** The route recorded for requests that matched no endpoint. */
+    public static final String UNMATCHED_ROUTE = "unmatched";
+
+    /** The content type of {@link #scrape()}. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.95, 0.99, 0.999 };
+
+    private final ConnectionPool pool;
+    private final MetricsSource source;
+    private final Map<HandlerType, ConcurrentHashMap<String, RouteMetrics>> routes = new EnumMap<>(HandlerType.class);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * @param pool the connection pool to report on, or null to report request metrics only
+     */
+    public MetricsRegistry(ConnectionPool pool) {
+        this(pool, null);
+    }
+
+    /**
+     * @param pool   the connection pool to report on, or null to report request metrics only
+     * @param source another component to report on, or null if there is none
+     */
+    public MetricsRegistry(ConnectionPool pool, MetricsSource source) {
+        this.pool = pool;
+        this.source = source;
+        for (HandlerType type : HandlerType.values()) {
+            routes.put(type, new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Marks the start of a request.
+     */
+    public void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Records a completed request.
+     *
+     * @param method the request method
+     * @param route  the matched route template, or null if no endpoint matched
+     * @param status the response status code
+     * @param nanos  the time taken to handle the request
+     */
+    public void requestFinished(HandlerType method, String route, int status, long nanos) {
+        inFlight.decrementAndGet();
+        route(method, route).record(status, nanos);
+    }
+
+    /**
+     * @param method the request method
+     * @param route  the route template, or null for unmatched requests
+     * @return the metrics for the route, created on first use
+     */
+    public RouteMetrics route(HandlerType method, String route) {
+        String key = route != null ? route : UNMATCHED_ROUTE;
+        ConcurrentHashMap<String, RouteMetrics> byRoute = routes.get(method);
+        RouteMetrics metrics = byRoute.get(key);
+        return metrics != null ? metrics : byRoute.computeIfAbsent(key, k -> new RouteMetrics(method.name(), k));
+    }
+
+    /**
+     * @return the number of requests currently being handled
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Renders every metric in the Prometheus text format.
+     *
+     * @return the exposition text
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        List<RouteMetrics> all = new ArrayList<>();
+        for (ConcurrentHashMap<String, RouteMetrics> byRoute : routes.values()) {
+            all.addAll(byRoute.values());
+        }
+        all.sort(Comparator.comparing(RouteMetrics::getRoute).thenComparing(RouteMetrics::getMethod));
+
+        header(out, "recipe_http_requests_total", "counter", "HTTP requests by method, route and status code.");
+        for (RouteMetrics metrics : all) {
+            for (int status = 100; status <= 599; status++) {
+                long count = metrics.getStatusCount(status);
+                if (count > 0) {
+                    out.append("recipe_http_requests_total{method=\"").append(metrics.getMethod())
+                            .append("\",route=\"").append(escape(metrics.getRoute()))
+                            .append("\",status=\"").append(status).append("\"} ").append(count).append('\n');
+                }
+            }
+        }
+
+        header(out, "recipe_http_request_duration_seconds", "summary", "HTTP request handling time by method and route.");
+        for (RouteMetrics metrics : all) {
+            summary(out, "recipe_http_request_duration_seconds",
+                    "method=\"" + metrics.getMethod() + "\",route=\"" + escape(metrics.getRoute()) + "\"", metrics.getLatency());
+        }
+
+        header(out, "recipe_http_requests_in_flight", "gauge", "HTTP requests currently being handled.");
+        sample(out, "recipe_http_requests_in_flight", null, inFlight.get());
+
+        if (pool != null) {
+            writePool(out);
+        }
+        if (source != null) {
+            source.writeMetrics(out);
+        }
+        return out.toString();
+    }
+
+    private void writePool(StringBuilder out) {
+        header(out, "recipe_db_query_duration_seconds", "summary", "SQL statement execution time by statement type.");
+        for (QueryType type : QueryType.all()) {
+            summary(out, "recipe_db_query_duration_seconds", "type=\"" + type.name().toLowerCase() + "\"",
+                    pool.getQueryLatency(type));
+        }
+        header(out, "recipe_db_query_errors_total", "counter", "SQL statement executions that threw, by statement type.");
+        for (QueryType type : QueryType.all()) {
+            sample(out, "recipe_db_query_errors_total", "type=\"" + type.name().toLowerCase() + "\"",
+                    pool.getQueryErrorCount(type));
+        }
+
+        header(out, "recipe_db_pool_acquire_duration_seconds", "summary", "Time taken by successful connection borrows.");
+        summary(out, "recipe_db_pool_acquire_duration_seconds", null, pool.getAcquireLatency());
+        header(out, "recipe_db_pool_queue_duration_seconds", "summary", "Time borrowers spent queued for a free connection.");
+        summary(out, "recipe_db_pool_queue_duration_seconds", null, pool.getQueueLatency());
+
+        header(out, "recipe_db_pool_connections", "gauge", "Pooled connections by state.");
+        sample(out, "recipe_db_pool_connections", "state=\"active\"", pool.getActiveCount());
+        sample(out, "recipe_db_pool_connections", "state=\"idle\"", pool.getIdleCount());
+        sample(out, "recipe_db_pool_connections", "state=\"open\"", pool.getOpenCount());
+        sample(out, "recipe_db_pool_connections", "state=\"max\"", pool.getMaxSize());
+        header(out, "recipe_db_pool_waiting", "gauge", "Borrowers currently queued for a connection.");
+        sample(out, "recipe_db_pool_waiting", null, pool.getWaitingCount());
+
+        header(out, "recipe_db_pool_borrows_total", "counter", "Connection borrows that queued, timed out or were rejected.");
+        sample(out, "recipe_db_pool_borrows_total", "outcome=\"queued\"", pool.getQueuedCount());
+        sample(out, "recipe_db_pool_borrows_total", "outcome=\"timeout\"", pool.getTimeoutCount());
+        sample(out, "recipe_db_pool_borrows_total", "outcome=\"rejected\"", pool.getRejectedCount());
+        header(out, "recipe_db_statement_cache_total", "counter", "Prepares answered from the statement cache, or not.");
+        sample(out, "recipe_db_statement_cache_total", "result=\"hit\"", pool.getStatementCacheHits());
+        sample(out, "recipe_db_statement_cache_total", "result=\"miss\"", pool.getStatementCacheMisses());
+        header(out, "recipe_db_pool_connections_created_total", "counter", "Physical connections opened.");
+        sample(out, "recipe_db_pool_connections_created_total", null, pool.getCreatedCount());
+        header(out, "recipe_db_pool_connections_destroyed_total", "counter", "Physical connections closed.");
+        sample(out, "recipe_db_pool_connections_destroyed_total", null, pool.getDestroyedCount());
+    }
+
+    /**
+     * Appends the HELP and TYPE lines of a metric.
+     *
+     * @param out  the scrape being written
+     * @param name the metric name
+     * @param type the metric type, such as "counter", "gauge" or "summary"
+     * @param help the metric description
+     */
+    public static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Appends a summary of durations, in seconds, with its quantiles, sum and count.
+     *
+     * @param out       the scrape being written
+     * @param name      the metric name
+     * @param labels    the labels, such as "type=\"select\"", or null for none
+     * @param histogram the recorded durations, in nanoseconds
+     */
+    public static void summary(StringBuilder out, String name, String labels, LatencyHistogram histogram) {
+        String prefix = labels != null ? labels + "," : "";
+        for (double quantile : QUANTILES) {
+            out.append(name).append('{').append(prefix).append("quantile=\"").append(quantile).append("\"} ")
+                    .append(seconds(histogram.getPercentile(quantile * 100))).append('\n');
+        }
+        sample(out, name + "_sum", labels, seconds(histogram.getSum()));
+        sample(out, name + "_count", labels, histogram.getCount());
+    }
+
+    /**
+     * Appends a summary of plain values, such as sizes, with its quantiles, sum and count.
+     *
+     * @param out       the scrape being written
+     * @param name      the metric name
+     * @param histogram the recorded values
+     */
+    public static void countSummary(StringBuilder out, String name, LatencyHistogram histogram) {
+        for (double quantile : QUANTILES) {
+            sample(out, name, "quantile=\"" + quantile + "\"", histogram.getPercentile(quantile * 100));
+        }
+        sample(out, name + "_sum", null, histogram.getSum());
+        sample(out, name + "_count", null, histogram.getCount());
+    }
+
+    /**
+     * Appends one sample.
+     *
+     * @param out    the scrape being written
+     * @param name   the metric name
+     * @param labels the labels, or null for none
+     * @param value  the value
+     */
+    public static void sample(StringBuilder out, String name, String labels, Object value) {
+        out.append(name);
+        if (labels != null) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
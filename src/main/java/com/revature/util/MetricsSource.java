@@ -0,0 +1,17 @@
+package com.revature.util;
+
+/**
+ * A MetricsSource is a component that writes its own metrics into a {@link MetricsRegistry}
+ * scrape, so the registry does not need to know about the components it reports on.
+ */
+public interface MetricsSource {
+
+    /**
+     * Appends this source's metrics in the Prometheus text format, normally through
+     * {@link MetricsRegistry#header}, {@link MetricsRegistry#sample} and
+     * {@link MetricsRegistry#summary}.
+     *
+     * @param out the scrape being written
+     */
+    void writeMetrics(StringBuilder out);
+}
@@ -0,0 +1,146 @@
+package com.revature.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The MigrationRunner class brings the database schema up to date by applying the versioned
+ * scripts in src/main/resources/db/migration in order. Applied versions are recorded in the
+ * SCHEMA_VERSION table, so restarting the application applies only what is new and never
+ * wipes existing data.
+ *
+ * Migrations are named V{version}__{description}.sql and listed in {@link #MIGRATIONS}, since
+ * a classpath directory cannot be listed reliably from inside a jar. H2 commits DDL
+ * implicitly, so migrations use IF NOT EXISTS to stay safe to re-run after a failure.
+ */
+public class MigrationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(MigrationRunner.class);
+
+    /** The migration scripts, in the order they are applied. */
+    static final String[] MIGRATIONS = {
+            "V1__create_schema.sql",
+            "V2__seed_data.sql",
+            "V3__add_join_indexes.sql",
+            "V4__add_recipe_summary_index.sql",
+            "V5__drop_recipe_summary_index.sql"
+    };
+
+    /** Databases created by the former sqlScript.sql already match this version. */
+    private static final int BASELINE_VERSION = 2;
+
+    private final ConnectionUtil connectionUtil;
+
+    public MigrationRunner(ConnectionUtil connectionUtil) {
+        this.connectionUtil = connectionUtil;
+    }
+
+    /**
+     * Applies every migration newer than the database's current version. Migrations applied
+     * before a failing one stay applied, and the failing one is rolled back.
+     *
+     * @return the number of migrations applied
+     * @throws IllegalStateException if a migration fails, so the application does not start
+     *         on a schema that is only partly migrated
+     */
+    public int migrate() {
+        int applied = 0;
+        long start = System.nanoTime();
+        try (Connection conn = connectionUtil.getConnection()) {
+            int current = currentVersion(conn);
+            for (String script : MIGRATIONS) {
+                int version = versionOf(script);
+                if (version > current) {
+                    apply(conn, script, version);
+                    applied++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Database migration failed after applying " + applied + " migration(s)", e);
+        }
+        logger.info("Database schema is up to date; applied {} migration(s) in {} ms",
+                applied, (System.nanoTime() - start) / 1_000_000);
+        return applied;
+    }
+
+    /**
+     * Reads the current schema version, creating the SCHEMA_VERSION table if needed. A
+     * database that has the tables but no version table was set up by the former
+     * sqlScript.sql and is recorded at the baseline version.
+     */
+    private int currentVersion(Connection conn) throws SQLException {
+        boolean tracked = tableExists(conn, "SCHEMA_VERSION");
+        if (!tracked) {
+            try (Statement st = conn.createStatement()) {
+                st.executeUpdate("CREATE TABLE IF NOT EXISTS SCHEMA_VERSION ("
+                        + "version INT PRIMARY KEY, "
+                        + "script VARCHAR(200) NOT NULL, "
+                        + "execution_ms BIGINT NOT NULL, "
+                        + "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+            }
+            if (tableExists(conn, "CHEF")) {
+                for (String script : MIGRATIONS) {
+                    if (versionOf(script) <= BASELINE_VERSION) {
+                        record(conn, versionOf(script), script + " (baseline)", 0);
+                    }
+                }
+                logger.info("Recorded existing schema at baseline version {}", BASELINE_VERSION);
+            }
+        }
+        try (Statement st = conn.createStatement();
+                ResultSet rs = st.executeQuery("SELECT COALESCE(MAX(version), 0) FROM SCHEMA_VERSION")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private void apply(Connection conn, String script, int version) throws SQLException {
+        long start = System.nanoTime();
+        boolean autoCommit = conn.getAutoCommit();
+        conn.setAutoCommit(false);
+        try (Statement st = conn.createStatement()) {
+            st.execute("RUNSCRIPT FROM 'classpath:/db/migration/" + script + "'");
+            long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+            record(conn, version, script, elapsedMs);
+            conn.commit();
+            logger.info("Applied migration {} in {} ms", script, elapsedMs);
+        } catch (SQLException e) {
+            conn.rollback();
+            logger.error("Migration {} failed", script);
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void record(Connection conn, int version, String script, long elapsedMs) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO SCHEMA_VERSION(version, script, execution_ms) VALUES (?,?,?)")) {
+            ps.setInt(1, version);
+            ps.setString(2, script);
+            ps.setLong(3, elapsedMs);
+            ps.executeUpdate();
+        }
+    }
+
+    private boolean tableExists(Connection conn, String table) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ?")) {
+            ps.setString(1, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1) > 0;
+            }
+        }
+    }
+
+    static int versionOf(String script) {
+        return Integer.parseInt(script.substring(1, script.indexOf("__")));
+    }
+}
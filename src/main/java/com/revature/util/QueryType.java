@@ -0,0 +1,49 @@
+package com.revature.util;
+
+/**
+ * The QueryType enum classifies SQL statements by their leading keyword, so query timings can
+ * be grouped without keeping a timer per distinct SQL string.
+ */
+public enum QueryType {
+    SELECT, INSERT, UPDATE, DELETE, OTHER;
+
+    private static final QueryType[] VALUES = values();
+
+    /**
+     * @return every query type, in declaration order; callers must not modify the array
+     */
+    static QueryType[] all() {
+        return VALUES;
+    }
+
+    /**
+     * Classifies a statement by its first keyword, skipping leading whitespace and opening
+     * parentheses. A WITH clause counts as a SELECT. Nothing is allocated.
+     *
+     * @param sql the statement text, may be null
+     * @return the statement's type, or OTHER if it is not recognised
+     */
+    public static QueryType of(String sql) {
+        if (sql == null) {
+            return OTHER;
+        }
+        int i = 0;
+        while (i < sql.length() && (Character.isWhitespace(sql.charAt(i)) || sql.charAt(i) == '(')) {
+            i++;
+        }
+        if (startsWith(sql, i, "SELECT") || startsWith(sql, i, "WITH")) {
+            return SELECT;
+        } else if (startsWith(sql, i, "INSERT")) {
+            return INSERT;
+        } else if (startsWith(sql, i, "UPDATE")) {
+            return UPDATE;
+        } else if (startsWith(sql, i, "DELETE")) {
+            return DELETE;
+        }
+        return OTHER;
+    }
+
+    private static boolean startsWith(String sql, int offset, String keyword) {
+        return sql.regionMatches(true, offset, keyword, 0, keyword.length());
+    }
+}
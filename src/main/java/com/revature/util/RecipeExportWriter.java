@@ -0,0 +1,162 @@
+package com.revature.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.revature.dao.RecipeRowHandler;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+
+/**
+ * The RecipeExportWriter class writes recipes to an output stream as they are handed to it,
+ * either as newline-delimited JSON or as CSV. Each recipe is written and forgotten, so an
+ * export needs the same memory for five recipes as for five million.
+ *
+ * Authors are exported by id and username only; chef emails and passwords never leave the
+ * database through an export.
+ */
+public class RecipeExportWriter implements RecipeRowHandler, Closeable {
+
+    /** The supported export formats. */
+    public enum Format {
+        NDJSON("application/x-ndjson"),
+        CSV("text/csv");
+
+        private final String contentType;
+
+        Format(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * @param name the requested format, such as "csv"
+         * @return the matching format, NDJSON when none is given
+         * @throws IllegalArgumentException if the format is not supported
+         */
+        public static Format of(String name) {
+            if (name == null || name.isBlank()) {
+                return NDJSON;
+            }
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name.trim())) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported format: " + name);
+        }
+    }
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String CSV_HEADER = "id,name,instructions,author_id,author_username\r\n";
+
+    private final Format format;
+    private final Writer writer;
+    private final JsonGenerator json;
+
+    /**
+     * @param format the format to write
+     * @param out    the stream to write to; it is flushed but not closed by {@link #close()}
+     * @throws IOException if the CSV header cannot be written
+     */
+    public RecipeExportWriter(Format format, OutputStream out) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        if (format == Format.NDJSON) {
+            this.json = JSON_FACTORY.createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+        } else {
+            this.json = null;
+            writer.write(CSV_HEADER);
+        }
+    }
+
+    @Override
+    public void handle(Recipe recipe) throws IOException {
+        if (format == Format.NDJSON) {
+            writeJson(recipe);
+        } else {
+            writeCsv(recipe);
+        }
+    }
+
+    /**
+     * Flushes everything written so far to the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        if (json != null) {
+            json.flush();
+        }
+        writer.flush();
+    }
+
+    private void writeJson(Recipe recipe) throws IOException {
+        json.writeStartObject();
+        json.writeNumberField("id", recipe.getId());
+        json.writeStringField("name", recipe.getName());
+        json.writeStringField("instructions", recipe.getInstructions());
+        Chef author = recipe.getAuthor();
+        if (author != null) {
+            json.writeObjectFieldStart("author");
+            json.writeNumberField("id", author.getId());
+            json.writeStringField("username", author.getUsername());
+            json.writeEndObject();
+        } else {
+            json.writeNullField("author");
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    private void writeCsv(Recipe recipe) throws IOException {
+        Chef author = recipe.getAuthor();
+        writer.write(Integer.toString(recipe.getId()));
+        writer.write(',');
+        writeCsvField(recipe.getName());
+        writer.write(',');
+        writeCsvField(recipe.getInstructions());
+        writer.write(',');
+        if (author != null) {
+            writer.write(Integer.toString(author.getId()));
+            writer.write(',');
+            writeCsvField(author.getUsername());
+        } else {
+            writer.write(',');
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Writes a field, quoting it as RFC 4180 requires when it holds a comma, quote or line break.
+     */
+    private void writeCsvField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
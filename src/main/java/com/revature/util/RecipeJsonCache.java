@@ -0,0 +1,146 @@
+package com.revature.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import com.revature.model.Recipe;
+import com.revature.service.RecipeChangeListener;
+
+/**
+ * The RecipeJsonCache class holds single recipes already serialized to JSON, together with
+ * an ETag, so GET /recipes/{id} can answer a hot recipe without a query or a Jackson pass,
+ * and answer a client that already has it with 304 Not Modified.
+ *
+ * Entries are dropped when RecipeService reports that the recipe was saved or deleted. A
+ * change to a recipe's author shows up once the entry expires.
+ */
+public class RecipeJsonCache implements RecipeChangeListener {
+
+    private final TtlCache<Integer, Entry> cache;
+    /** Counts recipe writes, so a load that raced with a write is not cached. */
+    private final AtomicLong writes = new AtomicLong();
+
+    /**
+     * @param maxSize   the maximum number of recipes held
+     * @param ttlMillis how long a cached recipe stays valid
+     */
+    public RecipeJsonCache(int maxSize, long ttlMillis) {
+        this.cache = new TtlCache<>(maxSize, ttlMillis);
+    }
+
+    /**
+     * Creates a cache as configured by "recipe.cache.recipes.*".
+     *
+     * @return the configured cache, or null if it is disabled
+     */
+    public static RecipeJsonCache fromConfig() {
+        if (!Config.getBoolean("recipe.cache.recipes.enabled", true)) {
+            return null;
+        }
+        return new RecipeJsonCache(
+                Config.getInt("recipe.cache.recipes.maxSize", 10_000),
+                TimeUnit.SECONDS.toMillis(Config.getLong("recipe.cache.recipes.ttlSeconds", 300)));
+    }
+
+    /**
+     * Returns the cached JSON for a recipe, serializing and caching it on a miss.
+     *
+     * @param id     the recipe id
+     * @param loader reads and serializes the recipe; returns null if it does not exist
+     * @return the cached entry, or null if the recipe does not exist
+     */
+    public Entry get(int id, IntFunction<String> loader) {
+        Entry entry = cache.getIfPresent(id);
+        if (entry != null) {
+            return entry;
+        }
+        long stamp = writes.get();
+        String json = loader.apply(id);
+        if (json == null) {
+            return null;
+        }
+        entry = new Entry(json.getBytes(StandardCharsets.UTF_8));
+        if (writes.get() == stamp) {
+            cache.put(id, entry);
+        }
+        return entry;
+    }
+
+    @Override
+    public void recipeSaved(Recipe recipe) {
+        writes.incrementAndGet();
+        cache.invalidate(recipe.getId());
+    }
+
+    @Override
+    public void recipeDeleted(int id) {
+        writes.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    /**
+     * @return the underlying cache, for its hit, miss and eviction counts
+     */
+    public TtlCache<Integer, Entry> getCache() {
+        return cache;
+    }
+
+    /**
+     * A serialized recipe and its ETag.
+     */
+    public static class Entry {
+
+        private final byte[] json;
+        private final String etag;
+
+        Entry(byte[] json) {
+            this.json = json;
+            this.etag = "\"" + digest(json) + "\"";
+        }
+
+        public byte[] getJson() {
+            return json;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Checks an If-None-Match header against this entry's ETag.
+         *
+         * @param ifNoneMatch the header value, may be null
+         * @return true if the client already holds this representation
+         */
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null) {
+                return false;
+            }
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) {
+                    candidate = candidate.substring(2);
+                }
+                if (candidate.equals("*") || candidate.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String digest(byte[] json) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 12));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.revature.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The RouteMetrics class holds the counters for one HTTP method and route: a latency
+ * histogram, whose count is also the request count, and a counter per status code.
+ * Recording is lock-free and allocates nothing.
+ */
+public class RouteMetrics {
+
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 599;
+
+    private final String method;
+    private final String route;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLongArray statusCounts = new AtomicLongArray(MAX_STATUS - MIN_STATUS + 1);
+
+    /**
+     * @param method the HTTP method, such as "GET"
+     * @param route  the route template, such as "/recipes/{id}"
+     */
+    public RouteMetrics(String method, String route) {
+        this.method = method;
+        this.route = route;
+    }
+
+    /**
+     * Records one completed request.
+     *
+     * @param status the response status code; codes outside 100-599 are counted as 599
+     * @param nanos  the time taken to handle the request
+     */
+    public void record(int status, long nanos) {
+        latency.record(nanos);
+        statusCounts.incrementAndGet(indexOf(status));
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * @return the handling time of every recorded request
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return the number of recorded requests
+     */
+    public long getRequestCount() {
+        return latency.getCount();
+    }
+
+    /**
+     * @param status the response status code
+     * @return the number of recorded requests that ended with that status
+     */
+    public long getStatusCount(int status) {
+        return statusCounts.get(indexOf(status));
+    }
+
+    private static int indexOf(int status) {
+        return (status < MIN_STATUS || status > MAX_STATUS ? MAX_STATUS : status) - MIN_STATUS;
+    }
+}
@@ -0,0 +1,58 @@
+package com.revature.util;
+
+import java.util.Optional;
+
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+
+import io.javalin.http.Context;
+
+/**
+ * The SessionResolver class resolves the chef making a request from its Authorization
+ * header. The result is cached on the Javalin Context, so the middleware and the handlers
+ * of one request share a single session lookup.
+ */
+public class SessionResolver {
+
+    /** The Context attribute holding the resolved chef, wrapped in an Optional. */
+    public static final String CHEF_ATTRIBUTE = "sessionChef";
+
+    private SessionResolver() {
+    }
+
+    /**
+     * Resolves the chef that sent the request, looking up the session at most once per request.
+     *
+     * @param ctx         the Javalin context
+     * @param authService the service holding the sessions
+     * @return the logged in chef, or null if the request has no valid session token
+     */
+    public static Chef resolveChef(Context ctx, AuthenticationService authService) {
+        Optional<Chef> cached = ctx.attribute(CHEF_ATTRIBUTE);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        String token = extractToken(ctx.header("Authorization"));
+        Chef chef = token == null ? null : authService.getChefFromSessionToken(token);
+        ctx.attribute(CHEF_ATTRIBUTE, Optional.ofNullable(chef));
+        return chef;
+    }
+
+    /**
+     * Strips an optional "Bearer" scheme from an Authorization header. The space after the
+     * scheme is optional, since session tokens are UUIDs and never start with "Bearer".
+     *
+     * @param header the Authorization header, may be null
+     * @return the token, or null if there is none
+     */
+    public static String extractToken(String header) {
+        if (header == null) {
+            return null;
+        }
+        String value = header.trim();
+        if (value.regionMatches(true, 0, "Bearer", 0, 6)) {
+            value = value.substring(6).trim();
+        }
+        return value.isEmpty() ? null : value;
+    }
+}
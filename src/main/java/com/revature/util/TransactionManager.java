@@ -0,0 +1,446 @@
+package com.revature.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The TransactionManager class binds one pooled connection to the current thread, so that
+ * every DAO call made within a request or a transaction shares it instead of borrowing a
+ * connection of its own. {@link ConnectionUtil#getConnection()} hands out the bound
+ * connection whenever there is one.
+ *
+ * A scope is opened either for a whole HTTP request ({@link #beginRequest()} and
+ * {@link #endRequest()}) or for a unit of work ({@link #inTransaction(Work)}). The
+ * connection is only borrowed when a DAO first asks for one, so a scope that never touches
+ * the database costs nothing. Closing the bound connection does nothing; it goes back to the
+ * pool when the outermost scope ends.
+ *
+ * Inside a transaction the DAOs' own commit, rollback and auto-commit calls are absorbed: a
+ * DAO that manages its own transaction simply joins the enclosing one, and a rollback marks
+ * it for rollback. Because the DAOs report SQL errors by logging them and returning an empty
+ * result, a statement that fails within a transaction also marks it for rollback. A
+ * transaction rolled back by an H2 lock timeout or deadlock is run again, up to
+ * "recipe.tx.maxRetries" times, after an exponential backoff starting at
+ * "recipe.tx.retryBackoffMillis".
+ */
+public class TransactionManager {
+
+    /** The SQL states of H2's lock timeout and deadlock errors. */
+    private static final String LOCK_TIMEOUT_STATE = "HYT00";
+    private static final String DEADLOCK_STATE = "40001";
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder rollbacks = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    /**
+     * @param maxRetries         how many times a transaction that hit a lock timeout or deadlock is run again
+     * @param retryBackoffMillis the wait before the first retry; each further retry waits twice as long
+     */
+    public TransactionManager(int maxRetries, long retryBackoffMillis) {
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+    }
+
+    /**
+     * Creates a TransactionManager configured from "recipe.tx.maxRetries" (default 3) and
+     * "recipe.tx.retryBackoffMillis" (default 20).
+     *
+     * @return the configured transaction manager
+     */
+    public static TransactionManager fromConfig() {
+        return new TransactionManager(Config.getInt("recipe.tx.maxRetries", 3),
+                Config.getLong("recipe.tx.retryBackoffMillis", 20));
+    }
+
+    /**
+     * A unit of work run in a transaction.
+     *
+     * @param <T> the type of the work's result
+     */
+    public interface Work<T> {
+        T run() throws SQLException;
+    }
+
+    /**
+     * Opens a request scope on the current thread. Every connection requested until the
+     * matching {@link #endRequest()} is the same pooled connection. Scopes nest.
+     */
+    public static void beginRequest() {
+        open().depth++;
+    }
+
+    /**
+     * Closes the request scope opened by {@link #beginRequest()}, returning the bound
+     * connection to the pool if this was the outermost scope. Does nothing if no scope is open.
+     */
+    public static void endRequest() {
+        Scope scope = SCOPE.get();
+        if (scope != null) {
+            close(scope);
+        }
+    }
+
+    /**
+     * @param pool the pool to borrow from when the scope has no connection yet
+     * @return the connection bound to the current thread, or null if no scope is open
+     * @throws SQLException if the connection cannot be borrowed
+     */
+    static Connection boundConnection(ConnectionPool pool) throws SQLException {
+        Scope scope = SCOPE.get();
+        return scope != null ? scope.connection(pool) : null;
+    }
+
+    /**
+     * @return whether the current thread is inside {@link #inTransaction(Work)}
+     */
+    public static boolean isTransactionActive() {
+        Scope scope = SCOPE.get();
+        return scope != null && scope.transactionDepth > 0;
+    }
+
+    /**
+     * Runs an action once the current thread's transaction has committed or rolled back, or
+     * at once if there is no transaction. Caches use this to drop entries only after the
+     * write that made them stale is visible to other connections.
+     *
+     * @param action the action to run
+     */
+    public static void afterTransaction(Runnable action) {
+        Scope scope = SCOPE.get();
+        if (scope != null && scope.transactionDepth > 0) {
+            scope.afterCompletion.add(action);
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs work in a transaction on the current thread's connection and commits it. Work
+     * started inside another transaction joins that transaction instead, and is only
+     * committed with it.
+     *
+     * @param work the work to run
+     * @return the work's result
+     * @throws SQLException if the work failed, or a statement in it failed, and the
+     *                      transaction was rolled back, or if the commit failed
+     * @throws DatabaseUnavailableException if no connection could be borrowed for the transaction
+     */
+    public <T> T inTransaction(Work<T> work) throws SQLException {
+        Scope joined = SCOPE.get();
+        if (joined != null && joined.transactionDepth > 0) {
+            joined.transactionDepth++;
+            try {
+                return work.run();
+            } finally {
+                joined.transactionDepth--;
+            }
+        }
+        for (int attempt = 0;; attempt++) {
+            Scope scope = open();
+            scope.depth++;
+            SQLException failure;
+            try {
+                scope.begin();
+                try {
+                    T result = work.run();
+                    failure = scope.failure;
+                    if (failure == null && !scope.rollbackOnly) {
+                        scope.commit();
+                        commits.increment();
+                        return result;
+                    }
+                } catch (SQLException e) {
+                    failure = e;
+                } catch (RuntimeException | Error e) {
+                    rollback(scope);
+                    throw e;
+                }
+                rollback(scope);
+            } catch (SQLException e) {
+                // the transaction could not be started
+                rollback(scope);
+                failure = e;
+            } finally {
+                List<Runnable> actions = scope.end();
+                close(scope);
+                for (Runnable action : actions) {
+                    action.run();
+                }
+            }
+            if (failure == null) {
+                throw new SQLException("Transaction was marked for rollback");
+            }
+            if (failure instanceof SQLTransientConnectionException) {
+                // no connection to start the transaction on
+                throw new DatabaseUnavailableException(failure);
+            }
+            if (attempt >= maxRetries || !isRetryable(failure)) {
+                throw failure;
+            }
+            retries.increment();
+            backOff(attempt);
+        }
+    }
+
+    /**
+     * @return the number of transactions committed
+     */
+    public long getCommitCount() {
+        return commits.sum();
+    }
+
+    /**
+     * @return the number of transactions rolled back, counting each failed attempt
+     */
+    public long getRollbackCount() {
+        return rollbacks.sum();
+    }
+
+    /**
+     * @return the number of times a transaction was run again after a lock timeout or deadlock
+     */
+    public long getRetryCount() {
+        return retries.sum();
+    }
+
+    private void rollback(Scope scope) {
+        rollbacks.increment();
+        try {
+            scope.rollback();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void backOff(int attempt) throws SQLException {
+        long wait = retryBackoffMillis << Math.min(attempt, 16);
+        wait = wait / 2 + ThreadLocalRandom.current().nextLong(wait / 2 + 1);
+        try {
+            Thread.sleep(wait);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting to retry a transaction", e);
+        }
+    }
+
+    /**
+     * @param e a failure, possibly wrapping another
+     * @return whether the failure, or one it wraps, is a lock timeout or deadlock
+     */
+    static boolean isRetryable(SQLException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                if (LOCK_TIMEOUT_STATE.equals(state) || DEADLOCK_STATE.equals(state)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Scope open() {
+        Scope scope = SCOPE.get();
+        if (scope == null) {
+            scope = new Scope();
+            SCOPE.set(scope);
+        }
+        return scope;
+    }
+
+    private static void close(Scope scope) {
+        if (--scope.depth > 0) {
+            return;
+        }
+        SCOPE.remove();
+        scope.release();
+    }
+
+    /**
+     * The connection bound to one thread, and the state of its transaction.
+     */
+    private static final class Scope implements InvocationHandler {
+
+        /** The number of open request scopes and outermost transactions. */
+        int depth;
+        /** The number of nested transactions; 0 when there is none. */
+        int transactionDepth;
+        /** Whether a DAO asked for the transaction to be rolled back. */
+        boolean rollbackOnly;
+        /** The first statement failure in the transaction. */
+        SQLException failure;
+        /** Actions to run once the transaction has committed or rolled back. */
+        List<Runnable> afterCompletion = new ArrayList<>();
+
+        private Connection pooled;
+        private Connection proxy;
+
+        Connection connection(ConnectionPool pool) throws SQLException {
+            if (pooled == null) {
+                pooled = pool.getConnection();
+                if (transactionDepth > 0) {
+                    pooled.setAutoCommit(false);
+                }
+                proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[] { Connection.class }, this);
+            }
+            return proxy;
+        }
+
+        void begin() throws SQLException {
+            transactionDepth = 1;
+            afterCompletion.clear();
+            rollbackOnly = false;
+            failure = null;
+            if (pooled != null) {
+                pooled.setAutoCommit(false);
+            }
+        }
+
+        void commit() throws SQLException {
+            if (pooled != null) {
+                pooled.commit();
+            }
+        }
+
+        void rollback() throws SQLException {
+            if (pooled != null) {
+                pooled.rollback();
+            }
+        }
+
+        /**
+         * @return the actions waiting for the transaction to complete
+         */
+        List<Runnable> end() {
+            transactionDepth = 0;
+            rollbackOnly = false;
+            failure = null;
+            if (pooled != null) {
+                try {
+                    pooled.setAutoCommit(true);
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+            }
+            List<Runnable> actions = afterCompletion;
+            afterCompletion = actions.isEmpty() ? actions : new ArrayList<>();
+            return actions;
+        }
+
+        void release() {
+            if (pooled != null) {
+                try {
+                    pooled.close();
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+                pooled = null;
+                proxy = null;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "BoundConnection[" + pooled + "]";
+                default:
+                    break;
+            }
+            if (transactionDepth > 0) {
+                switch (method.getName()) {
+                    case "setAutoCommit":
+                    case "commit":
+                        return null;
+                    case "rollback":
+                        if (args == null) {
+                            rollbackOnly = true;
+                            return null;
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            Object result;
+            try {
+                result = method.invoke(pooled, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement) {
+                return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { method.getReturnType() },
+                        new BoundStatement(this, (Statement) result, (Connection) proxy));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Records the first failed execute call of a statement made within a transaction, so the
+     * transaction is rolled back even if the DAO swallows the exception.
+     */
+    private static final class BoundStatement implements InvocationHandler {
+
+        private final Scope scope;
+        private final Statement statement;
+        private final Connection connection;
+
+        BoundStatement(Scope scope, Statement statement, Connection connection) {
+            this.scope = scope;
+            this.statement = statement;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getConnection":
+                    return connection;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : statement.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || statement.isWrapperFor((Class<?>) args[0]);
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof SQLException && scope.transactionDepth > 0 && scope.failure == null
+                        && method.getName().startsWith("execute")) {
+                    scope.failure = (SQLException) cause;
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.revature.util;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * The TtlCache class is a bounded, concurrent read-through cache. Entries expire a fixed
+ * time after they were loaded. When the cache grows past its maximum size, expired entries
+ * are dropped first; otherwise the entry closest to expiry among a small sample is evicted,
+ * which approximates oldest-first eviction without keeping an ordered structure.
+ *
+ * Null values are never cached, so a miss on a missing row is retried on the next lookup.
+ * A value loaded while the cache was being written to or invalidated is returned but not
+ * cached, so a load that raced with a write cannot put the old value back.
+ * Hit, miss and eviction counts are kept with LongAdders, so counting does not contend.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public class TtlCache<K, V> {
+
+    /** How many entries are inspected when choosing one to evict. */
+    private static final int EVICTION_SAMPLE = 16;
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    /** Counts puts and invalidations, so a load that raced with one is not cached. */
+    private final AtomicLong writes = new AtomicLong();
+
+    /**
+     * Creates a cache using the system clock.
+     *
+     * @param maxSize   the maximum number of entries
+     * @param ttlMillis how long an entry stays valid after it is loaded
+     */
+    public TtlCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    /**
+     * Creates a cache using the given clock.
+     *
+     * @param maxSize   the maximum number of entries
+     * @param ttlMillis how long an entry stays valid after it is loaded
+     * @param clock     the source of the current time in milliseconds
+     */
+    public TtlCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value for a key, loading and caching it on a miss.
+     *
+     * @param key    the key to look up
+     * @param loader computes the value on a miss; may return null
+     * @return the cached or loaded value, or null if the loader returned null
+     */
+    public V get(K key, Function<K, V> loader) {
+        long now = clock.getAsLong();
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        long stamp = writes.get();
+        V value = loader.apply(key);
+        if (value != null) {
+            if (writes.get() != stamp) {
+                return value;
+            }
+            Entry<V> loaded = new Entry<>(value, now + ttlMillis);
+            entries.put(key, loaded);
+            if (writes.get() != stamp) {
+                // a write or invalidation ran between the check and the put
+                entries.remove(key, loaded);
+                return value;
+            }
+            if (entries.size() > maxSize) {
+                evict(now);
+            }
+        } else if (entry != null) {
+            entries.remove(key, entry);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the cached value for a key without loading it.
+     *
+     * @param key the key to look up
+     * @return the cached value, or null if absent or expired
+     */
+    public V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry != null && entry.expiresAt > clock.getAsLong()) {
+            hits.increment();
+            return entry.value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Caches a value, replacing any previous value for the key.
+     *
+     * @param key   the key to cache the value under
+     * @param value the value to cache; null values are ignored
+     */
+    public void put(K key, V value) {
+        if (value == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        writes.incrementAndGet();
+        entries.put(key, new Entry<>(value, now + ttlMillis));
+        if (entries.size() > maxSize) {
+            evict(now);
+        }
+    }
+
+    /**
+     * Removes a single entry.
+     *
+     * @param key the key to remove
+     */
+    public void invalidate(K key) {
+        if (key != null) {
+            writes.incrementAndGet();
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void invalidateAll() {
+        writes.incrementAndGet();
+        entries.clear();
+    }
+
+    /**
+     * @return the number of entries, including any expired ones not yet dropped
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private void evict(long now) {
+        K victim = null;
+        long victimExpiry = Long.MAX_VALUE;
+        int sampled = 0;
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext() && sampled++ < EVICTION_SAMPLE) {
+            Map.Entry<K, Entry<V>> candidate = it.next();
+            if (candidate.getValue().expiresAt <= now) {
+                it.remove();
+                evictions.increment();
+                return;
+            }
+            if (candidate.getValue().expiresAt < victimExpiry) {
+                victimExpiry = candidate.getValue().expiresAt;
+                victim = candidate.getKey();
+            }
+        }
+        if (victim != null && entries.remove(victim) != null) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * A cached value and the time it stops being valid.
+     */
+    private static class Entry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
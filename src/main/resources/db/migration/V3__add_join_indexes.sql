@@ -0,0 +1,10 @@
+-- Composite indexes for the RECIPE_INGREDIENT join table.
+--
+-- H2 already backs each foreign key column (RECIPE.chef_id, RECIPE_INGREDIENT.recipe_id and
+-- RECIPE_INGREDIENT.ingredient_id) with a single-column index. These composite indexes answer
+-- "ingredients of these recipes" and "recipes using this ingredient" from the index alone,
+-- without reading the join table rows.
+
+CREATE INDEX IF NOT EXISTS idx_recipe_ingredient_recipe ON RECIPE_INGREDIENT(recipe_id, ingredient_id);
+
+CREATE INDEX IF NOT EXISTS idx_recipe_ingredient_ingredient ON RECIPE_INGREDIENT(ingredient_id, recipe_id);
@@ -0,0 +1,8 @@
+-- Covering index for recipe summaries.
+--
+-- The list and search endpoints return RecipeSummary rows: id, name and the author. Every
+-- RECIPE column they select is in this index, so summaries can be read without the rows'
+-- instructions, which can be any length. The summary statements name it in a USE INDEX hint,
+-- which also keeps H2 from driving the join from CHEF.
+
+CREATE INDEX IF NOT EXISTS idx_recipe_summary ON RECIPE(id, name, chef_id);
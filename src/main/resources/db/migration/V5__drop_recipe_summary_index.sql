@@ -0,0 +1,8 @@
+-- Drops idx_recipe_summary, added by V4.
+--
+-- H2 never read the index: EXPLAIN shows the summary statements walking RECIPE's primary key
+-- or its unique name index even when a USE INDEX hint named it, so it only duplicated those
+-- indexes and slowed every recipe write. What the hint did achieve, driving the join from
+-- RECIPE rather than from a CHEF table scan, now comes from the summaries' LEFT JOIN.
+
+DROP INDEX IF EXISTS idx_recipe_summary;
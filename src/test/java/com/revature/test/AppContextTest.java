@@ -0,0 +1,17 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.AppContext;
+
+public class AppContextTest {
+
+    @Test
+    public void componentsShareOneAuthenticationService() {
+        AppContext context = new AppContext();
+
+        assertSame(context.getAuthService(), context.getAuthController().getAuthService());
+    }
+}
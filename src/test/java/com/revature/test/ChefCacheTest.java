@@ -0,0 +1,117 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.CachingChefDAO;
+import com.revature.model.Chef;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.TransactionManager;
+import com.revature.util.TtlCache;
+
+public class ChefCacheTest {
+
+    private CachingChefDAO chefDAO;
+
+    @BeforeEach
+    void setUp() {
+        DBUtil.RUN_SQL();
+        chefDAO = new CachingChefDAO(new ConnectionUtil(), 100, 60_000);
+    }
+
+    @Test
+    public void cacheExpiresAndEvictsEntries() {
+        AtomicLong now = new AtomicLong(0);
+        AtomicInteger loads = new AtomicInteger();
+        TtlCache<Integer, String> cache = new TtlCache<>(2, 1_000, now::get);
+
+        cache.get(1, k -> "one" + loads.incrementAndGet());
+        assertEquals("one1", cache.get(1, k -> "one" + loads.incrementAndGet()));
+        now.set(1_000);
+        assertEquals("one2", cache.get(1, k -> "one" + loads.incrementAndGet()));
+        assertNull(cache.get(9, k -> null));
+
+        cache.get(2, k -> "two");
+        cache.get(3, k -> "three");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(5, cache.getMissCount());
+    }
+
+    @Test
+    public void loadRacingAnInvalidationIsNotCached() {
+        TtlCache<Integer, String> cache = new TtlCache<>(10, 60_000);
+
+        assertEquals("old", cache.get(1, k -> {
+            // the row changes while it is being read
+            cache.invalidate(1);
+            return "old";
+        }));
+        assertEquals(0, cache.size(), "The stale value should not have been cached");
+        assertEquals("new", cache.get(1, k -> "new"));
+        assertEquals("new", cache.getIfPresent(1));
+    }
+
+    @Test
+    public void updateInATransactionInvalidatesAfterCommit() throws SQLException {
+        TransactionManager transactions = new TransactionManager(0, 1);
+        Chef chef = chefDAO.getChefById(1);
+
+        transactions.inTransaction(() -> {
+            chef.setEmail("woodstock@null.com");
+            chefDAO.updateChef(chef);
+            // another request reads the row before the update commits
+            assertEquals("snoopy@null.com", readElsewhere(1));
+            return null;
+        });
+
+        assertEquals("woodstock@null.com", chefDAO.getChefById(1).getEmail());
+    }
+
+    /** Looks a chef up through the cache on another thread, so on another connection. */
+    private String readElsewhere(int id) throws SQLException {
+        try {
+            return CompletableFuture.supplyAsync(() -> chefDAO.getChefById(id).getEmail()).get();
+        } catch (Exception e) {
+            throw new SQLException(e);
+        }
+    }
+
+    @Test
+    public void repeatedLookupsAreServedFromCache() {
+        Chef first = chefDAO.getChefByUsername("JoeCool");
+        Chef second = chefDAO.getChefByUsername("JoeCool");
+
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(1, chefDAO.getUsernameCache().getHitCount());
+        assertEquals(1, chefDAO.getUsernameCache().getMissCount());
+    }
+
+    @Test
+    public void writesInvalidateCachedChefs() {
+        Chef chef = chefDAO.getChefById(1);
+        chefDAO.getChefByUsername(chef.getUsername());
+        chef.setEmail("woodstock@null.com");
+        chefDAO.updateChef(chef);
+
+        assertEquals("woodstock@null.com", chefDAO.getChefById(1).getEmail());
+        assertEquals("woodstock@null.com", chefDAO.getChefByUsername(chef.getUsername()).getEmail());
+
+        chefDAO.deleteChef(new Chef(5, "Nobody", "nobody@null.com", "pw", false));
+        Chef created = new Chef("Woodstock", "bird@null.com", "tweet", false);
+        chefDAO.createChef(created);
+        assertEquals(created.getId(), chefDAO.getChefByUsername("Woodstock").getId());
+    }
+}
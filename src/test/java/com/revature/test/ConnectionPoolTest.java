@@ -0,0 +1,205 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.AppContext;
+import com.revature.util.ConnectionPool;
+import com.revature.util.ConnectionUtil;
+
+import io.javalin.testtools.JavalinTest;
+import okhttp3.Response;
+
+class ConnectionPoolTest {
+
+	private ConnectionPool pool;
+
+	@BeforeEach
+	void setUp() {
+		pool = new ConnectionPool("jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1", "sa", "", 0, 2, 100, 60_000, 1, 60_000);
+	}
+
+	@AfterEach
+	void tearDown() {
+		pool.close();
+	}
+
+	@Test
+	void closedConnectionsAreReused() throws SQLException {
+		Connection first = pool.getConnection();
+		Connection physical = first.unwrap(org.h2.jdbc.JdbcConnection.class);
+		first.close();
+
+		Connection second = pool.getConnection();
+		assertSame(physical, second.unwrap(org.h2.jdbc.JdbcConnection.class), "The idle connection should be reused");
+		assertEquals(1, pool.getCreatedCount(), "Only one physical connection should have been opened");
+		second.close();
+	}
+
+	@Test
+	void borrowTimesOutWhenPoolIsExhausted() throws SQLException {
+		Connection first = pool.getConnection();
+		Connection second = pool.getConnection();
+		assertEquals(2, pool.getActiveCount());
+
+		assertThrows(SQLTransientConnectionException.class, pool::getConnection);
+		assertEquals(1, pool.getTimeoutCount());
+
+		first.close();
+		Connection third = pool.getConnection();
+		assertEquals(2, pool.getActiveCount());
+		assertEquals(0, pool.getIdleCount());
+		second.close();
+		third.close();
+		assertEquals(0, pool.getActiveCount());
+		assertEquals(2, pool.getIdleCount());
+		assertEquals(3, pool.getAcquireLatency().getCount());
+	}
+
+	@Test
+	void returnedConnectionIsResetAndUnusable() throws SQLException {
+		Connection first = pool.getConnection();
+		first.setAutoCommit(false);
+		first.close();
+		first.close();
+
+		assertTrue(first.isClosed());
+		assertThrows(SQLException.class, first::createStatement);
+
+		Connection second = pool.getConnection();
+		assertTrue(second.getAutoCommit(), "Auto-commit should be restored before reuse");
+		assertFalse(second.isClosed());
+		second.close();
+	}
+
+	@Test
+	void queuedBorrowsAreCountedAndTimed() throws Exception {
+		Connection first = pool.getConnection();
+		Connection second = pool.getConnection();
+		assertEquals(0, pool.getQueuedCount(), "Borrows that found a free connection should not count as queued");
+
+		try (ConnectionPool slow = new ConnectionPool("jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1", "sa", "", 0, 1, 2_000, 60_000, 1,
+				60_000, 1)) {
+			Connection held = slow.getConnection();
+			CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+				try {
+					return slow.getConnection();
+				} catch (SQLException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			while (slow.getWaitingCount() == 0) {
+				Thread.sleep(5);
+			}
+
+			assertThrows(SQLTransientConnectionException.class, slow::getConnection, "A full wait queue should reject at once");
+			assertEquals(1, slow.getRejectedCount());
+			assertEquals(0, slow.getTimeoutCount());
+
+			held.close();
+			waiter.get(2, TimeUnit.SECONDS).close();
+			assertEquals(1, slow.getQueuedCount());
+			assertEquals(1, slow.getQueueLatency().getCount());
+			assertEquals(0, slow.getWaitingCount());
+		}
+
+		first.close();
+		second.close();
+	}
+
+	@Test
+	void preparedStatementsAreReusedAcrossBorrows() throws SQLException {
+		try (ConnectionPool cached = new ConnectionPool("jdbc:h2:mem:stmtcache;DB_CLOSE_DELAY=-1", "sa", "", 0, 1, 1_000, 60_000, 1,
+				60_000, 0, 2)) {
+			try (Connection conn = cached.getConnection()) {
+				conn.createStatement().execute("CREATE TABLE t (id INT PRIMARY KEY)");
+				conn.createStatement().execute("INSERT INTO t VALUES (1), (2)");
+			}
+			String select = "SELECT id FROM t WHERE id = ?";
+			PreparedStatement first;
+			int defaultFetchSize;
+			try (Connection conn = cached.getConnection(); PreparedStatement ps = conn.prepareStatement(select)) {
+				first = ps.unwrap(org.h2.jdbc.JdbcPreparedStatement.class);
+				defaultFetchSize = ps.getFetchSize();
+				ps.setInt(1, 1);
+				ps.setFetchSize(defaultFetchSize + 1);
+				try (ResultSet rs = ps.executeQuery()) {
+					assertTrue(rs.next());
+				}
+			}
+			assertEquals(0, cached.getStatementCacheHits());
+			assertEquals(1, cached.getStatementCacheMisses());
+
+			try (Connection conn = cached.getConnection(); PreparedStatement ps = conn.prepareStatement(select)) {
+				assertSame(first, ps.unwrap(org.h2.jdbc.JdbcPreparedStatement.class), "The open statement should be handed out again");
+				assertFalse(first.isClosed());
+				assertEquals(defaultFetchSize, first.getFetchSize(), "The fetch size should be restored");
+				// a second prepare of the same SQL while the first is in use gets its own statement
+				try (PreparedStatement other = conn.prepareStatement(select)) {
+					assertNotSame(first, other.unwrap(org.h2.jdbc.JdbcPreparedStatement.class));
+				}
+				assertThrows(SQLException.class, ps::executeQuery, "Parameters should be cleared between borrowers");
+				ps.setInt(1, 2);
+				try (ResultSet rs = ps.executeQuery()) {
+					assertTrue(rs.next());
+					assertEquals(2, rs.getInt(1));
+				}
+			}
+			assertEquals(1, cached.getStatementCacheHits());
+			assertEquals(2, cached.getStatementCacheMisses());
+
+			// the least recently used statement is closed once the cache is full
+			try (Connection conn = cached.getConnection()) {
+				conn.prepareStatement("SELECT COUNT(*) FROM t").close();
+				conn.prepareStatement("SELECT MAX(id) FROM t").close();
+			}
+			assertTrue(first.isClosed());
+		}
+	}
+
+	@Test
+	void rejectedBorrowAnswersServiceUnavailable() throws Exception {
+		try (ConnectionPool busy = new ConnectionPool("jdbc:h2:mem:busytest;DB_CLOSE_DELAY=-1", "sa", "", 0, 1, 2_000, 60_000, 1,
+				60_000, 1)) {
+			Connection held = busy.getConnection();
+			CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+				try {
+					return busy.getConnection();
+				} catch (SQLException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+			while (busy.getWaitingCount() == 0) {
+				Thread.sleep(5);
+			}
+
+			AppContext context = new AppContext(new ConnectionUtil(busy));
+			JavalinTest.test(context.getJavalinAppUtil().getApp(), (server, client) -> {
+				try (Response response = client.get("/recipes/1")) {
+					assertEquals(503, response.code());
+					assertEquals("1", response.header("Retry-After"));
+				}
+			});
+			assertEquals(1, busy.getRejectedCount());
+
+			held.close();
+			waiter.get(2, TimeUnit.SECONDS).close();
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.DataGenerator;
+import com.revature.dao.ChefDAO;
+import com.revature.model.Chef;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+
+public class DataGeneratorTest {
+
+    private ConnectionUtil connectionUtil;
+
+    @BeforeEach
+    void setUp() {
+        DBUtil.RUN_SQL();
+        connectionUtil = new ConnectionUtil();
+    }
+
+    @Test
+    public void generatesRequestedCounts() throws SQLException {
+        new DataGenerator(connectionUtil, 1, 50).generate(20, 100, 1_000, "secret");
+
+        assertEquals(4 + 20, count("SELECT COUNT(*) FROM chef"));
+        assertEquals(5 + 1_000, count("SELECT COUNT(*) FROM recipe"));
+        assertEquals(6 + 100, count("SELECT COUNT(*) FROM ingredient"));
+        // every generated recipe has between 2 and 12 distinct ingredients
+        assertEquals(0, count("SELECT COUNT(*) FROM (SELECT recipe_id FROM recipe_ingredient WHERE recipe_id > 5"
+                + " GROUP BY recipe_id HAVING COUNT(*) < 2 OR COUNT(*) > 12 OR COUNT(DISTINCT ingredient_id) <> COUNT(*))"));
+        assertEquals(1_000, count("SELECT COUNT(DISTINCT recipe_id) FROM recipe_ingredient WHERE recipe_id > 5"));
+
+        Chef chef = new ChefDAO(connectionUtil).getChefByUsername(DataGenerator.username(4));
+        assertEquals("secret", chef.getPassword());
+    }
+
+    @Test
+    public void skewsChefPopularity() throws SQLException {
+        DataGenerator generator = new DataGenerator(connectionUtil, 7, 500);
+        generator.reset();
+        generator.generate(100, 200, 5_000, "secret");
+
+        // under a Zipf distribution the busiest tenth of chefs writes most recipes
+        int topTen = count("SELECT SUM(n) FROM (SELECT COUNT(*) AS n FROM recipe GROUP BY chef_id ORDER BY n DESC LIMIT 10)");
+        assertTrue(topTen > 2_500, "top chefs wrote " + topTen);
+        assertEquals(1, count("SELECT MIN(id) FROM recipe"));
+        assertEquals(5_000, count("SELECT MAX(id) FROM recipe"));
+    }
+
+    @Test
+    public void sameSeedGeneratesSameCatalog() throws SQLException {
+        DataGenerator generator = new DataGenerator(connectionUtil, 99, 100);
+        generator.reset();
+        generator.generate(10, 50, 300, "secret");
+        List<String> first = recipes();
+
+        generator.reset();
+        generator.generate(10, 50, 300, "secret");
+        assertEquals(first, recipes());
+    }
+
+    private List<String> recipes() throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection conn = connectionUtil.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT id, name, instructions, chef_id FROM recipe ORDER BY id")) {
+            while (rs.next()) {
+                rows.add(rs.getInt(1) + "|" + rs.getString(2) + "|" + rs.getString(3) + "|" + rs.getInt(4));
+            }
+        }
+        return rows;
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection conn = connectionUtil.getConnection();
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
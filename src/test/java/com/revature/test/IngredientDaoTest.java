@@ -11,12 +11,16 @@ import org.junit.jupiter.api.Test;
 import com.revature.model.Ingredient;
 import com.revature.dao.IngredientDAO;
 import com.revature.util.ConnectionUtil;
+import com.revature.util.Cursor;
+import com.revature.util.CursorPage;
 import com.revature.util.DBUtil;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
 import static com.revature.test.utils.TestingUtils.assertCountDifference;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public class IngredientDaoTest {
     private List<Ingredient> ingredientList = new ArrayList<>();
@@ -132,4 +136,32 @@ public class IngredientDaoTest {
                 "The returned ingredients don't match the expected ingredients.");
     }
 
+    @Test
+    void scrollAllIngredientsByNameTest() {
+        PageOptions pageOptions = new PageOptions(1, 4, "name", "ASC");
+
+        CursorPage<Ingredient> first = ingredientDao.getAllIngredients(pageOptions, null);
+        assertIterableEquals(Arrays.asList(ingredientList.get(0), ingredientList.get(3), ingredientList.get(1),
+                ingredientList.get(4)), first.getItems(), "The first page should hold the first four names");
+        assertNotNull(first.getNextCursor(), "A cursor should be returned while more ingredients remain");
+
+        CursorPage<Ingredient> second = ingredientDao.getAllIngredients(pageOptions, Cursor.decode(first.getNextCursor()));
+        assertIterableEquals(Arrays.asList(ingredientList.get(5), ingredientList.get(2)), second.getItems(),
+                "The second page should continue after the cursor");
+        assertNull(second.getNextCursor(), "No cursor should be returned on the last page");
+    }
+
+    @Test
+    void scrollSearchedIngredientsTest() {
+        PageOptions pageOptions = new PageOptions(1, 2, "id", "DESC");
+
+        CursorPage<Ingredient> first = ingredientDao.searchIngredients("to", pageOptions, null);
+        assertIterableEquals(Arrays.asList(ingredientList.get(5), ingredientList.get(2)), first.getItems());
+
+        CursorPage<Ingredient> second = ingredientDao.searchIngredients("to", pageOptions,
+                Cursor.decode(first.getNextCursor()));
+        assertIterableEquals(Arrays.asList(ingredientList.get(1)), second.getItems());
+        assertNull(second.getNextCursor());
+    }
+
 }
@@ -69,6 +69,14 @@ public class IngredientIntegrationTest {
         });
     }
 
+    @Test
+    void testUpdateToTakenName() {
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(409, client.put("/ingredients/1", "{\"id\": 1, \"name\": \"potato\"}").code());
+            assertEquals("{\"id\":1,\"name\":\"carrot\"}", client.get("/ingredients/1").body().string());
+        });
+    }
+
     @Test
     void testCreateIngredient() {
         JavalinTest.test(app, (server, client) -> {
@@ -109,4 +117,4 @@ public class IngredientIntegrationTest {
         });
     }
     
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,107 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Ingredient;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.service.IngredientRecipeIndex;
+
+public class IngredientRecipeIndexTest {
+
+    private static final RecipeIngredient CARROT = new RecipeIngredient(1, "carrot", 1, "cups");
+    private static final RecipeIngredient POTATO = new RecipeIngredient(2, "potato", 2, "cups");
+    private static final RecipeIngredient ONION = new RecipeIngredient(3, "onion", 1, "whole");
+    private static final RecipeIngredient SALT = new RecipeIngredient(4, "salt", 1, "tsp");
+    private static final Map<Integer, String> NAMES = Map.of(1, "Carrot", 2, "potato", 3, "onion", 4, "salt", 5, "pepper");
+
+    private IngredientRecipeIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        Map<Integer, List<RecipeIngredient>> rows = new HashMap<>();
+        rows.put(1, List.of(CARROT, SALT));
+        rows.put(2, List.of(POTATO, ONION, SALT));
+        rows.put(3, List.of(CARROT, POTATO, SALT));
+        rows.put(4, List.of(ONION));
+        index = new IngredientRecipeIndex();
+        index.ensureBuilt(() -> NAMES, () -> rows);
+    }
+
+    @Test
+    public void includesAndExcludesIngredients() {
+        assertEquals(List.of(1, 3), index.findRecipes(List.of("Carrot", "salt"), List.of(), 10));
+        assertEquals(List.of(1), index.findRecipes(List.of("carrot"), List.of("potato"), 10));
+        assertEquals(List.of(2), index.findRecipes(List.of("salt"), List.of("carrot"), 10));
+        assertTrue(index.findRecipes(List.of("carrot", "truffle"), List.of(), 10).isEmpty());
+        assertEquals(List.of(1), index.findRecipes(List.of("salt"), List.of(), 1));
+    }
+
+    @Test
+    public void findsRecipesCookableFromPantry() {
+        assertEquals(List.of(1, 4), index.findCookable(List.of("carrot", "salt", "onion", "pepper"), 10));
+        assertEquals(List.of(1, 2, 3, 4), index.findCookable(List.of("carrot", "potato", "onion", "salt"), 10));
+        assertTrue(index.findCookable(List.of("salt"), 10).isEmpty());
+    }
+
+    @Test
+    public void followsRecipeChanges() {
+        Recipe recipe = new Recipe(4, "onion soup", "Boil onion.", null);
+        recipe.setIngredients(List.of(ONION, SALT));
+        index.recipeSaved(recipe);
+        index.recipeDeleted(1);
+        index.recipeSaved(new Recipe(2, "potato soup", "unchanged ingredients", null));
+
+        assertEquals(List.of(2, 4), index.findRecipes(List.of("onion", "salt"), List.of(), 10));
+        assertEquals(List.of(3), index.findRecipes(List.of("carrot"), List.of(), 10));
+    }
+
+    @Test
+    public void denseIngredientsStayQueryable() {
+        Map<Integer, List<RecipeIngredient>> rows = new HashMap<>();
+        for (int id = 1; id <= 5000; id++) {
+            List<RecipeIngredient> ingredients = new ArrayList<>(List.of(SALT));
+            if (id % 1000 == 0) {
+                ingredients.add(CARROT);
+            }
+            rows.put(id, ingredients);
+        }
+        IngredientRecipeIndex dense = new IngredientRecipeIndex();
+        dense.ensureBuilt(() -> NAMES, () -> rows);
+        dense.recipeDeleted(2000);
+
+        assertEquals(List.of(1000, 3000, 4000, 5000), dense.findRecipes(List.of("salt", "carrot"), List.of(), 10));
+        assertEquals(List.of(1, 2, 3), dense.findRecipes(List.of("salt"), List.of("carrot"), 3));
+        assertEquals(4999, dense.findCookable(List.of("salt", "carrot"), 10_000).size());
+    }
+
+    @Test
+    public void savedRecipesCannotRenameIngredients() {
+        Recipe recipe = new Recipe(5, "pepper steak", "Grill.", null);
+        recipe.setIngredients(List.of(new RecipeIngredient(5, "carrot", 1, "tsp")));
+        index.recipeSaved(recipe);
+
+        assertEquals(List.of(1, 3), index.findRecipes(List.of("carrot"), List.of(), 10));
+        assertEquals(List.of(5), index.findRecipes(List.of("pepper"), List.of(), 10));
+    }
+
+    @Test
+    public void followsIngredientChanges() {
+        index.ingredientSaved(new Ingredient(1, "parsnip"));
+        assertTrue(index.findRecipes(List.of("carrot"), List.of(), 10).isEmpty());
+        assertEquals(List.of(1, 3), index.findRecipes(List.of("parsnip"), List.of(), 10));
+
+        index.ingredientDeleted(4);
+        assertTrue(index.findRecipes(List.of("salt"), List.of(), 10).isEmpty());
+        assertEquals(List.of(1, 4), index.findCookable(List.of("parsnip", "onion"), 10));
+    }
+}
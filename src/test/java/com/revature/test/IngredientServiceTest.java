@@ -5,9 +5,11 @@ import static org.junit.jupiter.api.Assertions.assertIterableEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 
 import java.sql.SQLException;
@@ -23,6 +25,7 @@ import org.mockito.ArgumentCaptor;
 import com.revature.model.Ingredient;
 import com.revature.model.Recipe;
 import com.revature.dao.IngredientDAO;
+import com.revature.dao.WriteResult;
 import com.revature.service.IngredientService;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
@@ -85,12 +88,18 @@ public class IngredientServiceTest {
 
     @Test
     void delteIngredient() throws SQLException {
-        when(ingredientDao.getIngredientById(1)).thenReturn(MOCKS.get(0));
-        doNothing().when(ingredientDao).deleteIngredient(any(Ingredient.class));
-        ArgumentCaptor<Ingredient> ingredientCaptor = ArgumentCaptor.forClass(Ingredient.class);
-        ingredientService.deleteIngredient(1);
-        verify(ingredientDao).deleteIngredient(ingredientCaptor.capture());
-        verify(ingredientDao).getIngredientById(1);
+        when(ingredientDao.deleteIngredientById(1)).thenReturn(WriteResult.APPLIED);
+        assertEquals(WriteResult.APPLIED, ingredientService.deleteIngredient(1));
+        verify(ingredientDao).deleteIngredientById(1);
+        verify(ingredientDao, never()).getIngredientById(anyInt());
+    }
+
+    @Test
+    void updateIngredientWithoutReadingIt() {
+        Ingredient renamed = new Ingredient(42, "new ingredient");
+        when(ingredientDao.updateExistingIngredient(renamed)).thenReturn(WriteResult.CONFLICT);
+        assertEquals(WriteResult.CONFLICT, ingredientService.updateIngredient(renamed));
+        verify(ingredientDao, never()).getIngredientById(anyInt());
     }
 
     @Test
@@ -142,4 +151,4 @@ public class IngredientServiceTest {
         verify(ingredientDao).searchIngredients(termCaptor.capture(), optionsCaptor.capture());
         assertEquals(new Page<Recipe>(0, 0, 0, 0, Collections.emptyList()), ingredients, () -> "Service shouldn't change the page returned from the dao");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -1,6 +1,16 @@
 package com.revature.test;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,6 +29,9 @@ import com.revature.util.AdminMiddleware;
 import com.revature.util.ConnectionUtil;
 import com.revature.util.JavalinAppUtil;
 
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+
 class JavalinConfigTest {
 
 	private RecipeDAO recipeDao;
@@ -58,4 +71,35 @@ class JavalinConfigTest {
 		
 	}
 
-}
\ No newline at end of file
+	@Test
+	void virtualThreadsServeMoreSlowRequestsThanThePoolHasThreads() {
+		System.setProperty("recipe.http.virtualThreads", "true");
+		System.setProperty("recipe.http.maxThreads", "8");
+		try {
+			Javalin app = new JavalinAppUtil(recipeController, authController, ingredientController).getApp();
+			app.get("/slow", ctx -> {
+				Thread.sleep(200);
+				ctx.result(String.valueOf(Thread.currentThread().isVirtual()));
+			});
+			JavalinTest.test(app, (server, client) -> {
+				HttpClient http = HttpClient.newHttpClient();
+				HttpRequest request = HttpRequest.newBuilder(URI.create(client.getOrigin() + "/slow")).build();
+				long start = System.nanoTime();
+				List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+				for (int i = 0; i < 100; i++) {
+					responses.add(http.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+				}
+				for (CompletableFuture<HttpResponse<String>> response : responses) {
+					assertEquals("true", response.join().body());
+				}
+				long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+				// Eight platform threads would need at least 100 / 8 * 200 ms = 2.5 s
+				assertTrue(elapsedMillis < 2_000, "Requests should not queue behind the thread pool, took " + elapsedMillis + " ms");
+			});
+		} finally {
+			System.clearProperty("recipe.http.virtualThreads");
+			System.clearProperty("recipe.http.maxThreads");
+		}
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.LatencyHistogram;
+
+class LatencyHistogramTest {
+
+	@Test
+	void percentilesStayWithinBucketPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long i = 1; i <= 1000; i++) {
+			histogram.record(i * 1_000);
+		}
+
+		assertEquals(1000, histogram.getCount());
+		assertEquals(1_000_000, histogram.getMax());
+		assertEquals(500_500.0, histogram.getMean(), 0.001);
+		long p50 = histogram.getPercentile(50);
+		assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.125, () -> "p50 was " + p50);
+		long p99 = histogram.getPercentile(99);
+		assertTrue(p99 >= 990_000 && p99 <= 1_000_000, () -> "p99 was " + p99);
+		assertEquals(histogram.getCount(), histogram.getCountAtOrBelow(Long.MAX_VALUE));
+	}
+
+	@Test
+	void smallValuesAreExact() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(3);
+		histogram.record(7);
+		histogram.record(-5);
+
+		assertEquals(0, histogram.getPercentile(0));
+		assertEquals(7, histogram.getPercentile(100));
+		assertEquals(2, histogram.getCountAtOrBelow(3));
+	}
+}
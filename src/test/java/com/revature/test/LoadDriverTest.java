@@ -0,0 +1,76 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.LoadDriver;
+import com.revature.LoadDriver.Operation;
+import com.revature.util.AppContext;
+import com.revature.util.DBUtil;
+
+import io.javalin.Javalin;
+
+public class LoadDriverTest {
+
+    private AppContext context;
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        DBUtil.RUN_SQL();
+        context = new AppContext();
+        app = context.getJavalinAppUtil().getApp().start(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        app.stop();
+    }
+
+    @Test
+    public void parsesMix() {
+        assertEquals(Map.of(Operation.GET, 3, Operation.DELETE, 1), LoadDriver.parseMix("get=3, delete=1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadDriver.parseMix("get"));
+        assertThrows(IllegalArgumentException.class, () -> LoadDriver.parseMix("fetch=1"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void reportsEveryOperationAndCleansUp() throws Exception {
+        LoadDriver driver = new LoadDriver("http://localhost:" + app.port(),
+                LoadDriver.parseMix(LoadDriver.DEFAULT_MIX), "ChefTrevin", "trevature");
+
+        Map<String, Object> report = driver.run(4, 0, Duration.ofMillis(200), Duration.ofSeconds(1));
+
+        assertEquals("closed", report.get("mode"));
+        assertEquals(0L, report.get("errors"));
+        Map<String, Object> endpoints = (Map<String, Object>) report.get("endpoints");
+        assertEquals(6, endpoints.size(), endpoints.keySet().toString());
+        Map<String, Object> get = (Map<String, Object>) endpoints.get("get");
+        assertTrue((Long) get.get("requests") > 0);
+        Map<String, Object> latency = (Map<String, Object>) get.get("latencyMs");
+        assertTrue((Double) latency.get("p50") <= (Double) latency.get("p999"));
+        // recipes created by the run are deleted by the end of it
+        assertEquals(5, context.getRecipeDAO().getAllRecipes().size());
+    }
+
+    @Test
+    public void runsOpenLoopAtAFixedRate() throws Exception {
+        LoadDriver driver = new LoadDriver("http://localhost:" + app.port(),
+                LoadDriver.parseMix("get=1"), "ChefTrevin", "trevature");
+
+        Map<String, Object> report = driver.run(0, 200, Duration.ZERO, Duration.ofSeconds(1));
+
+        assertEquals("open", report.get("mode"));
+        long requests = (Long) report.get("requests");
+        assertTrue(requests >= 150 && requests <= 210, "requests: " + requests);
+    }
+}
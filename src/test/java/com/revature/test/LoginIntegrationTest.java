@@ -212,4 +212,30 @@ class LoginIntegrationTest {
 
 	}
 
-}
\ No newline at end of file
+	@Test
+	void testRegisterTakenUsername() throws IOException {
+
+		RequestBody chefBody = RequestBody.create(
+				"{\"username\": \"JoeCool\", \"password\": \"other\", \"email\": \"other@chefmail.com\"}",
+				MediaType.get("application/json; charset=utf-8"));
+		Request registerRequest = new Request.Builder().url(BASE_URL + "/register").post(chefBody).build();
+		Response registerResponse = client.newCall(registerRequest).execute();
+		assertEquals(409, registerResponse.code(), () -> "A taken username should be refused");
+		assertEquals("Username already exists", registerResponse.body().string());
+
+	}
+
+	@Test
+	void testRegisterTakenEmail() throws IOException {
+
+		RequestBody chefBody = RequestBody.create(
+				"{\"username\": \"Linus\", \"password\": \"other\", \"email\": \"snoopy@null.com\"}",
+				MediaType.get("application/json; charset=utf-8"));
+		Request registerRequest = new Request.Builder().url(BASE_URL + "/register").post(chefBody).build();
+		Response registerResponse = client.newCall(registerRequest).execute();
+		assertEquals(409, registerResponse.code(), () -> "A taken email should be refused");
+		assertEquals("Email already exists", registerResponse.body().string());
+
+	}
+
+}
\ No newline at end of file
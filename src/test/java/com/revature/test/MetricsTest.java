@@ -0,0 +1,119 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.AppContext;
+import com.revature.util.ConnectionPool;
+import com.revature.util.DBUtil;
+import com.revature.util.LatencyHistogram;
+import com.revature.util.MetricsRegistry;
+import com.revature.util.QueryType;
+
+import io.javalin.Javalin;
+import io.javalin.http.HandlerType;
+import io.javalin.testtools.JavalinTest;
+
+public class MetricsTest {
+
+    private AppContext context;
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        DBUtil.RUN_SQL();
+        context = new AppContext();
+        app = context.getJavalinAppUtil().getApp();
+    }
+
+    @Test
+    public void classifiesStatementsByLeadingKeyword() {
+        assertEquals(QueryType.SELECT, QueryType.of("  select * from recipe"));
+        assertEquals(QueryType.SELECT, QueryType.of("(SELECT 1) UNION (SELECT 2)"));
+        assertEquals(QueryType.SELECT, QueryType.of("WITH t AS (SELECT 1) SELECT * FROM t"));
+        assertEquals(QueryType.INSERT, QueryType.of("INSERT INTO recipe VALUES (?)"));
+        assertEquals(QueryType.UPDATE, QueryType.of("\nupdate recipe set name = ?"));
+        assertEquals(QueryType.DELETE, QueryType.of("DELETE FROM recipe"));
+        assertEquals(QueryType.OTHER, QueryType.of("SET LAZY_QUERY_EXECUTION TRUE"));
+        assertEquals(QueryType.OTHER, QueryType.of(null));
+    }
+
+    @Test
+    public void poolTimesStatementsByType() throws SQLException {
+        try (ConnectionPool pool = new ConnectionPool("jdbc:h2:mem:metricstest;DB_CLOSE_DELAY=-1", "sa", "", 0, 2, 1_000,
+                60_000, 1, 60_000)) {
+            try (Connection connection = pool.getConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("CREATE TABLE t (id INT PRIMARY KEY)");
+                    statement.executeUpdate("INSERT INTO t VALUES (1)");
+                    assertSame(connection, statement.getConnection(), "Statements should hand back the pooled connection");
+                }
+                try (PreparedStatement ps = connection.prepareStatement("SELECT id FROM t WHERE id = ?")) {
+                    ps.setInt(1, 1);
+                    ps.executeQuery().close();
+                    ps.executeQuery().close();
+                }
+                try (PreparedStatement ps = connection.prepareStatement("INSERT INTO t VALUES (?)")) {
+                    ps.setInt(1, 1);
+                    assertThrows(SQLException.class, ps::executeUpdate);
+                }
+            }
+            assertEquals(1, pool.getQueryLatency(QueryType.OTHER).getCount());
+            assertEquals(2, pool.getQueryLatency(QueryType.SELECT).getCount());
+            assertEquals(2, pool.getQueryLatency(QueryType.INSERT).getCount());
+            assertEquals(1, pool.getQueryErrorCount(QueryType.INSERT));
+            assertEquals(0, pool.getQueryErrorCount(QueryType.SELECT));
+            assertEquals(1, pool.getIdleCount(), "The connection should be back in the pool");
+        }
+    }
+
+    @Test
+    public void recordsRequestsPerRouteAndStatus() {
+        MetricsRegistry registry = context.getMetricsRegistry();
+        JavalinTest.test(app, (server, client) -> {
+            assertEquals(200, client.get("/recipes/1").code());
+            assertEquals(200, client.get("/recipes/2").code());
+            assertEquals(404, client.get("/recipes/999").code());
+            assertEquals(404, client.get("/no/such/route").code());
+
+            LatencyHistogram latency = registry.route(HandlerType.GET, "/recipes/{id}").getLatency();
+            assertEquals(3, latency.getCount());
+            assertTrue(latency.getMax() > 0);
+            assertEquals(2, registry.route(HandlerType.GET, "/recipes/{id}").getStatusCount(200));
+            assertEquals(1, registry.route(HandlerType.GET, "/recipes/{id}").getStatusCount(404));
+            assertEquals(1, registry.route(HandlerType.GET, null).getStatusCount(404));
+            assertEquals(0, registry.getInFlight());
+        });
+    }
+
+    @Test
+    public void servesPrometheusText() {
+        JavalinTest.test(app, (server, client) -> {
+            client.get("/recipes/1");
+            var response = client.get("/metrics");
+            assertEquals(200, response.code());
+            assertTrue(response.header("Content-Type").startsWith("text/plain; version=0.0.4"));
+            String body = response.body().string();
+
+            assertTrue(body.contains("# TYPE recipe_http_requests_total counter\n"));
+            assertTrue(body.contains("recipe_http_requests_total{method=\"GET\",route=\"/recipes/{id}\",status=\"200\"} 1\n"));
+            assertTrue(body.contains("recipe_http_request_duration_seconds{method=\"GET\",route=\"/recipes/{id}\",quantile=\"0.99\"} "));
+            assertTrue(body.contains("recipe_http_request_duration_seconds_count{method=\"GET\",route=\"/recipes/{id}\"} 1\n"));
+            assertTrue(body.contains("recipe_db_query_duration_seconds_count{type=\"select\"} "));
+            assertTrue(body.contains("recipe_db_pool_acquire_duration_seconds_count "));
+            assertTrue(body.contains("recipe_db_pool_connections{state=\"max\"} "));
+            // the scrape itself is in flight while the text is rendered
+            assertTrue(body.contains("recipe_http_requests_in_flight 1\n"));
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.MigrationRunner;
+
+public class MigrationRunnerTest {
+
+    private final ConnectionUtil connectionUtil = new ConnectionUtil();
+
+    @BeforeEach
+    void resetDatabase() {
+        DBUtil.RUN_SQL();
+    }
+
+    @Test
+    public void rerunningKeepsDataAndAppliesNothing() throws SQLException {
+        execute("INSERT INTO ingredient(name) VALUES ('saffron')");
+
+        assertEquals(0, new MigrationRunner(connectionUtil).migrate());
+        assertEquals(7, count("SELECT COUNT(*) FROM ingredient"));
+        assertEquals(5, count("SELECT COUNT(*) FROM schema_version"));
+        assertEquals(0, count("SELECT COUNT(*) FROM information_schema.indexes WHERE index_name = 'IDX_RECIPE_SUMMARY'"),
+                "V5 drops the summary index H2 never used");
+    }
+
+    @Test
+    public void existingUntrackedSchemaIsBaselined() throws SQLException {
+        execute("DROP TABLE schema_version");
+        execute("DROP INDEX idx_recipe_ingredient_recipe");
+
+        assertEquals(3, new MigrationRunner(connectionUtil).migrate());
+        assertEquals(4, count("SELECT COUNT(*) FROM chef"));
+        assertEquals(1, count("SELECT COUNT(*) FROM information_schema.indexes"
+                + " WHERE index_name = 'IDX_RECIPE_INGREDIENT_RECIPE'"));
+    }
+
+    @Test
+    public void failedMigrationStopsStartup() throws SQLException {
+        execute("DROP TABLE schema_version");
+        execute("DROP TABLE recipe_ingredient");
+
+        assertThrows(IllegalStateException.class, () -> new MigrationRunner(connectionUtil).migrate());
+        assertEquals(2, count("SELECT MAX(version) FROM schema_version"));
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = connectionUtil.getConnection()) {
+            conn.createStatement().executeUpdate(sql);
+        }
+    }
+
+    private int count(String sql) throws SQLException {
+        try (Connection conn = connectionUtil.getConnection();
+                ResultSet rs = conn.createStatement().executeQuery(sql)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.CachingChefDAO;
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.dao.RecipeImportDAO;
+import com.revature.dao.RecipeIngredientDAO;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.service.RecipeImportService;
+import com.revature.service.RecipeService;
+import com.revature.util.BulkImportResult;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+
+public class RecipeBulkImportTest {
+
+    private static final Chef JOE = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
+    private static final Chef TREVIN = new Chef(4, "ChefTrevin", "trevin@revature.com", "trevature", true);
+
+    private RecipeService recipeService;
+    private RecipeIngredientDAO recipeIngredientDAO;
+    private RecipeImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        ChefDAO chefDAO = new CachingChefDAO(connectionUtil, 100, 60_000);
+        RecipeDAO recipeDAO = new RecipeDAO(chefDAO, new IngredientDAO(connectionUtil), connectionUtil);
+        recipeIngredientDAO = new RecipeIngredientDAO(connectionUtil);
+        recipeService = new RecipeService(recipeDAO, recipeIngredientDAO);
+        // a small chunk size so the uploads below span several transactions
+        importService = new RecipeImportService(new RecipeImportDAO(connectionUtil), recipeService, 2);
+    }
+
+    @Test
+    public void importsJsonArrayWithIngredients() {
+        BulkImportResult result = importService.importRecipes(json("["
+                + "{\"name\":\"pea soup\",\"instructions\":\"Boil peas.\","
+                + " \"ingredients\":[{\"name\":\"Potato\",\"volume\":2,\"unit\":\"cups\"},{\"id\":6,\"volume\":1,\"unit\":\"whole\"}]},"
+                + "{\"name\":\"rice bowl\",\"instructions\":\"Steam rice.\"},"
+                + "{\"name\":\"lemonade\",\"instructions\":\"Squeeze.\",\"unknownField\":true}"
+                + "]"), JOE);
+
+        assertEquals(3, result.getImported());
+        assertEquals(0, result.getFailed());
+        Recipe pea = recipeService.searchRecipes("pea soup").get(0);
+        assertEquals(JOE.getId(), pea.getAuthor().getId());
+        assertEquals(2, recipeIngredientDAO.getIngredientsForRecipes(List.of(pea.getId())).get(pea.getId()).size());
+        // the service's indexes hear about imported recipes
+        assertEquals(1, recipeService.searchRecipesFullText("peas", 10).size());
+    }
+
+    @Test
+    public void importsNewlineDelimitedJson() {
+        BulkImportResult result = importService.importRecipes(json(
+                "{\"name\":\"alpha\",\"instructions\":\"a\"}\n"
+                + "{\"name\":\"bravo\",\"instructions\":\"b\",\"author\":{\"username\":\"CharlieBrown\"}}\n"
+                + "{\"name\":\"delta\",\"instructions\":\"c\",\"author\":{\"id\":2}}\n"), TREVIN);
+
+        assertEquals(3, result.getImported());
+        assertEquals(4, recipeService.searchRecipes("alpha").get(0).getAuthor().getId());
+        assertEquals(2, recipeService.searchRecipes("bravo").get(0).getAuthor().getId());
+        assertEquals(2, recipeService.searchRecipes("delta").get(0).getAuthor().getId());
+    }
+
+    @Test
+    public void reportsFailedRowsWithoutStoppingTheImport() {
+        BulkImportResult result = importService.importRecipes(json("["
+                + "{\"name\":\"carrot soup\",\"instructions\":\"taken\"},"
+                + "{\"name\":\"fresh\",\"instructions\":\"ok\"},"
+                + "{\"name\":\"fresh\",\"instructions\":\"again\"},"
+                + "{\"name\":\"no steps\"},"
+                + "{\"name\":\"odd\",\"instructions\":\"x\",\"ingredients\":[{\"name\":\"unobtainium\",\"unit\":\"g\"}]},"
+                + "{\"name\":\"ghost\",\"instructions\":\"x\",\"author\":{\"id\":999}},"
+                + "{\"name\":\"borrowed\",\"instructions\":\"x\",\"author\":{\"id\":2}},"
+                + "{\"name\":\"broken\",\"instructions\":[1,2]},"
+                + "{\"name\":\"" + "x".repeat(150) + "\",\"instructions\":\"too long\"},"
+                + "{\"name\":\"last\",\"instructions\":\"ok\"}"
+                + "]"), JOE);
+
+        assertEquals(2, result.getImported());
+        assertEquals(8, result.getFailed());
+        List<BulkImportResult.RowError> errors = result.getErrors();
+        assertEquals(List.of(0, 2, 3, 4, 5, 6, 7, 8), errors.stream().map(BulkImportResult.RowError::getIndex).toList());
+        assertEquals("A recipe with this name already exists", errors.get(0).getMessage());
+        assertEquals("Duplicate recipe name in import", errors.get(1).getMessage());
+        assertEquals("Instructions are required", errors.get(2).getMessage());
+        assertEquals("Unknown ingredient unobtainium", errors.get(3).getMessage());
+        assertEquals("Unknown author", errors.get(4).getMessage());
+        assertEquals("Only admins may import recipes for other chefs", errors.get(5).getMessage());
+        assertNull(errors.get(6).getName());
+        assertNotNull(errors.get(7).getMessage());
+        assertEquals(1, recipeService.searchRecipes("fresh").size());
+        assertEquals(1, recipeService.searchRecipes("last").size());
+    }
+
+    @Test
+    public void keepsRowsImportedBeforeMalformedJson() {
+        BulkImportResult result = importService.importRecipes(json("["
+                + "{\"name\":\"first\",\"instructions\":\"a\"},"
+                + "{\"name\":\"second\",\"instructions\":\"b\"},"
+                + "{\"name\":\"third\",\"instructions\":\"c\"},"
+                + "{\"name\": oops"), JOE);
+
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Malformed JSON"));
+        assertEquals(1, recipeService.searchRecipes("third").size());
+    }
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.Test;
 
 import com.revature.controller.RecipeController;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeSummary;
 import com.revature.service.AuthenticationService;
 import com.revature.service.RecipeService;
 
@@ -21,8 +22,8 @@ public class RecipeControllerTest {
     public void testGetRecipesWithRecipeName() throws Exception {
         RecipeService recipeService = mock(RecipeService.class);
         AuthenticationService authService = mock(AuthenticationService.class);
-        List<Recipe> mockResults = Collections.singletonList(new Recipe("Grilled Cheese", "Grill bread and cheese"));
-        when(recipeService.searchRecipes("Cheese")).thenReturn(mockResults);
+        List<RecipeSummary> mockResults = Collections.singletonList(new RecipeSummary(1, "Grilled Cheese", 1, "chef"));
+        when(recipeService.searchRecipeSummaries("Cheese")).thenReturn(mockResults);
 
         Context ctx = mock(Context.class);
         when(ctx.queryParam("name")).thenReturn("Cheese");
@@ -38,8 +39,9 @@ public class RecipeControllerTest {
     public void testGetRecipesWithNoParams() throws Exception {
         RecipeService recipeService = mock(RecipeService.class);
         AuthenticationService authService = mock(AuthenticationService.class);
-        List<Recipe> allRecipes = Arrays.asList(new Recipe("Apple Pie"), new Recipe("Grilled Cheese"), new Recipe("Steak"));
-        when(recipeService.searchRecipes(null)).thenReturn(allRecipes);
+        List<RecipeSummary> allRecipes = Arrays.asList(new RecipeSummary(1, "Apple Pie", 1, "chef"),
+                new RecipeSummary(2, "Grilled Cheese", 1, "chef"), new RecipeSummary(3, "Steak", 2, "cook"));
+        when(recipeService.searchRecipeSummaries(null)).thenReturn(allRecipes);
 
         Context ctx = mock(Context.class);
         when(ctx.queryParam("name")).thenReturn(null);
@@ -52,13 +54,30 @@ public class RecipeControllerTest {
         verify(ctx).json(allRecipes);
     }
 
-     
+    @Test
+    public void testGetFullRecipesWhenRequested() throws Exception {
+        RecipeService recipeService = mock(RecipeService.class);
+        AuthenticationService authService = mock(AuthenticationService.class);
+        List<Recipe> mockResults = Collections.singletonList(new Recipe("Grilled Cheese", "Grill bread and cheese"));
+        when(recipeService.searchRecipes("Cheese")).thenReturn(mockResults);
+
+        Context ctx = mock(Context.class);
+        when(ctx.queryParam("name")).thenReturn("Cheese");
+        when(ctx.queryParam("view")).thenReturn("full");
+
+        Handler getRecipes = new RecipeController(recipeService, authService).fetchAllRecipes;
+        getRecipes.handle(ctx);
+
+        verify(ctx).status(200);
+        verify(ctx).json(mockResults);
+        verify(recipeService, never()).searchRecipeSummaries("Cheese");
+    }
 
     @Test
     public void testGetRecipesWithNoResults() throws Exception {
         RecipeService recipeService = mock(RecipeService.class);
         AuthenticationService authService = mock(AuthenticationService.class);
-        when(recipeService.searchRecipes("Nonexistent Recipe")).thenReturn(Collections.emptyList());
+        when(recipeService.searchRecipeSummaries("Nonexistent Recipe")).thenReturn(Collections.emptyList());
 
         Context ctx = mock(Context.class);
         when(ctx.queryParam("name")).thenReturn("Nonexistent Recipe");
@@ -69,4 +88,4 @@ public class RecipeControllerTest {
         verify(ctx).status(404);
         verify(ctx).result("No recipes found");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
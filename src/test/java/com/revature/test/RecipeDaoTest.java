@@ -80,14 +80,15 @@ class RecipeDaoTest {
         when(resultSet.getInt("id")).thenReturn(expectedRecipe.getId());
         when(resultSet.getString("name")).thenReturn(expectedRecipe.getName());
         when(resultSet.getString("instructions")).thenReturn(expectedRecipe.getInstructions());
-        when(resultSet.getInt("chef_id")).thenReturn(expectedRecipe.getAuthor().getId());
-        when(chefDao.getChefById(anyInt())).thenReturn(expectedRecipe.getAuthor());
+        stubAuthorColumns(expectedRecipe.getAuthor());
 
         // Act
         Recipe actualRecipe = recipeDao.getRecipeById(1);
 
         // Assert
         assertEquals(expectedRecipe, actualRecipe);
+        assertEquals(expectedRecipe.getAuthor(), actualRecipe.getAuthor());
+        verifyNoInteractions(chefDao);
 
         verify(preparedStatement).setInt(1, 1);
     }
@@ -95,7 +96,9 @@ class RecipeDaoTest {
     @Test
     void getAllRecipes_Success() throws SQLException {
         // Arrange
-        String expectedSQL = "SELECT * FROM RECIPE ORDER BY id";
+        String expectedSQL = "SELECT recipe.id, recipe.name, recipe.instructions, recipe.chef_id, "
+                + "chef.username AS chef_username, chef.email AS chef_email, chef.password AS chef_password, "
+                + "chef.is_admin AS chef_is_admin FROM recipe JOIN chef ON chef.id = recipe.chef_id ORDER BY recipe.id";
         when(connectionUtil.getConnection()).thenReturn(connection); // Mock the connection
         when(connection.createStatement()).thenReturn(preparedStatement); // Mock the statement
         when(preparedStatement.executeQuery(expectedSQL)).thenReturn(resultSet); // Mock the query execution
@@ -110,16 +113,15 @@ class RecipeDaoTest {
         when(resultSet.getString("instructions"))
                 .thenReturn("Put carrot in water. Boil. Maybe salt.",
                         "Put potato in water. Boil. Maybe salt.");
-        when(resultSet.getInt("chef_id")).thenReturn(1, 2);
-
-        when(chefDao.getChefById(1)).thenReturn(chefList.get(0));
-        when(chefDao.getChefById(2)).thenReturn(chefList.get(1));
+        stubAuthorColumns(chefList.get(0), chefList.get(1));
 
         // Act
         List<Recipe> actualRecipes = recipeDao.getAllRecipes();
 
         // Assert
         assertEquals(recipeList, actualRecipes);
+        assertEquals(chefList.get(1), actualRecipes.get(1).getAuthor());
+        verifyNoInteractions(chefDao);
         verify(connection).createStatement(); // Verify the statement creation
         verify(preparedStatement).executeQuery(expectedSQL); // Verify the query execution
         verify(resultSet, times(3)).next(); // Verify result set navigation
@@ -188,9 +190,7 @@ class RecipeDaoTest {
         when(resultSet.getString("instructions"))
                 .thenReturn("Put carrot in water. Boil. Maybe salt.",
                         "Put potato in water. Boil. Maybe salt.");
-        when(resultSet.getInt("author_id")).thenReturn(1, 2);
-        when(chefDao.getChefById(1)).thenReturn(chefList.get(0));
-        when(chefDao.getChefById(2)).thenReturn(chefList.get(1));
+        stubAuthorColumns(chefList.get(0), chefList.get(1));
 
         // Act
         List<Recipe> results = recipeDao.searchRecipesByTerm(searchTerm);
@@ -214,9 +214,7 @@ class RecipeDaoTest {
         when(resultSet.getString("instructions"))
                 .thenReturn("Put carrot in water. Boil. Maybe salt.",
                         "Put potato in water. Boil. Maybe salt.");
-        when(resultSet.getInt("chef_id")).thenReturn(1, 2);
-        when(chefDao.getChefById(1)).thenReturn(chefList.get(0));
-        when(chefDao.getChefById(2)).thenReturn(chefList.get(1));
+        stubAuthorColumns(chefList.get(0), chefList.get(1));
 
         // Act
         Page<Recipe> recipePage = recipeDao.getAllRecipes(pageable);
@@ -225,4 +223,43 @@ class RecipeDaoTest {
         assertEquals(2, recipePage.getItems().size());
         assertEquals(2, recipePage.getPageSize());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAllRecipesPaged_ReadsOnlyRequestedPage() throws SQLException {
+        // Arrange
+        PageOptions pageable = new PageOptions(3, 2, "name", "desc");
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next())
+                .thenReturn(true)
+                .thenReturn(false);
+        when(resultSet.getInt("total_count")).thenReturn(5);
+        when(resultSet.getInt("id")).thenReturn(1);
+        when(resultSet.getString("name")).thenReturn("carrot soup");
+        when(resultSet.getString("instructions")).thenReturn("Put carrot in water. Boil. Maybe salt.");
+        stubAuthorColumns(chefList.get(0));
+
+        // Act
+        Page<Recipe> recipePage = recipeDao.getAllRecipes(pageable);
+
+        // Assert
+        verify(connection).prepareStatement(
+                "SELECT recipe.id, recipe.name, recipe.instructions, recipe.chef_id, "
+                + "chef.username AS chef_username, chef.email AS chef_email, chef.password AS chef_password, "
+                + "chef.is_admin AS chef_is_admin, COUNT(*) OVER () AS total_count "
+                + "FROM recipe JOIN chef ON chef.id = recipe.chef_id ORDER BY recipe.name DESC LIMIT ? OFFSET ?");
+        verify(preparedStatement).setInt(1, 2);
+        verify(preparedStatement).setInt(2, 4);
+        assertEquals(new Page<>(3, 2, 3, 5, List.of(recipeList.get(0))), recipePage);
+    }
+
+    /**
+     * Stubs the joined author columns, returning the given chefs for consecutive rows.
+     */
+    private void stubAuthorColumns(Chef first, Chef... rest) throws SQLException {
+        when(resultSet.getInt("chef_id")).thenReturn(first.getId(), Arrays.stream(rest).map(Chef::getId).toArray(Integer[]::new));
+        when(resultSet.getString("chef_username")).thenReturn(first.getUsername(), Arrays.stream(rest).map(Chef::getUsername).toArray(String[]::new));
+        when(resultSet.getString("chef_email")).thenReturn(first.getEmail(), Arrays.stream(rest).map(Chef::getEmail).toArray(String[]::new));
+        when(resultSet.getString("chef_password")).thenReturn(first.getPassword(), Arrays.stream(rest).map(Chef::getPassword).toArray(String[]::new));
+        when(resultSet.getBoolean("chef_is_admin")).thenReturn(first.isAdmin(), Arrays.stream(rest).map(Chef::isAdmin).toArray(Boolean[]::new));
+    }
+}
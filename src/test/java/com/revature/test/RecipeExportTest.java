@@ -0,0 +1,178 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.controller.RecipeBulkController;
+import com.revature.dao.RecipeDAO;
+import com.revature.dao.RecipeRowHandler;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.service.RecipeService;
+import com.revature.util.AppContext;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.RecipeExportWriter;
+
+import io.javalin.Javalin;
+import io.javalin.testtools.JavalinTest;
+
+public class RecipeExportTest {
+
+    private AppContext context;
+    private Javalin app;
+
+    @BeforeEach
+    void setUp() {
+        DBUtil.RUN_SQL();
+        context = new AppContext();
+        app = context.getJavalinAppUtil().getApp();
+    }
+
+    @Test
+    public void streamsRecipesInIdOrder() throws IOException {
+        RecipeDAO recipeDAO = context.getRecipeDAO();
+        List<Integer> ids = new ArrayList<>();
+
+        assertEquals(5, recipeDAO.streamRecipes(null, recipe -> ids.add(recipe.getId())));
+        assertEquals(List.of(1, 2, 3, 4, 5), ids);
+
+        // the term filter is the same case-insensitive match as the search
+        ids.clear();
+        assertEquals(1, recipeDAO.streamRecipes("STONE", recipe -> ids.add(recipe.getId())));
+        assertEquals(List.of(5), ids);
+        ids.clear();
+        assertEquals(0, recipeDAO.streamRecipes("pudding", recipe -> ids.add(recipe.getId())));
+        assertTrue(ids.isEmpty());
+    }
+
+    @Test
+    public void stopsWhenTheHandlerFails() {
+        RecipeDAO recipeDAO = context.getRecipeDAO();
+        List<Integer> ids = new ArrayList<>();
+
+        assertThrows(IOException.class, () -> recipeDAO.streamRecipes(null, recipe -> {
+            ids.add(recipe.getId());
+            if (ids.size() == 2) {
+                throw new IOException("client went away");
+            }
+        }));
+        assertEquals(List.of(1, 2), ids);
+        // the connection went back to the pool in working order
+        assertEquals(5, context.getRecipeDAO().getAllRecipes().size());
+    }
+
+    @Test
+    public void writesCsvWithQuoting() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (RecipeExportWriter writer = new RecipeExportWriter(RecipeExportWriter.Format.CSV, out)) {
+            writer.handle(new Recipe(7, "fish, chips", "Say \"when\".\nServe.", new Chef(3, "RevaBuddy", "e", "p", false)));
+        }
+        assertEquals("id,name,instructions,author_id,author_username\r\n"
+                + "7,\"fish, chips\",\"Say \"\"when\"\".\nServe.\",3,RevaBuddy\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void exportsNdjsonOverHttp() {
+        JavalinTest.test(app, (server, client) -> {
+            var response = client.get("/recipes/export?term=soup");
+            assertEquals(200, response.code());
+            assertTrue(response.header("Content-Type").startsWith("application/x-ndjson"));
+            String[] lines = response.body().string().split("\n");
+            assertEquals(5, lines.length);
+            assertEquals("{\"id\":1,\"name\":\"carrot soup\",\"instructions\":\"Put carrot in water.  Boil.  Maybe salt.\","
+                    + "\"author\":{\"id\":1,\"username\":\"JoeCool\"}}", lines[0]);
+            assertFalse(lines[4].contains("password"));
+        });
+    }
+
+    @Test
+    public void exportsCsvOverHttp() {
+        JavalinTest.test(app, (server, client) -> {
+            var response = client.get("/recipes/export?format=csv&term=lemon");
+            assertEquals(200, response.code());
+            assertEquals("id,name,instructions,author_id,author_username\r\n"
+                    + "4,lemon rice soup,Put lemon and rice in water.  Boil.  Maybe salt.,4,ChefTrevin\r\n",
+                    response.body().string());
+            assertEquals(400, client.get("/recipes/export?format=xml").code());
+        });
+    }
+
+    @Test
+    public void failedReadIsNotAShortExport() throws Exception {
+        ConnectionUtil connectionUtil = mock(ConnectionUtil.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connectionUtil.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        when(connection.prepareStatement(anyString(), anyInt(), anyInt())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, true).thenThrow(new SQLException("Connection is broken"));
+        RecipeDAO recipeDAO = new RecipeDAO(null, null, connectionUtil);
+        List<Recipe> handled = new ArrayList<>();
+
+        IOException failure = assertThrows(IOException.class, () -> recipeDAO.streamRecipes(null, handled::add));
+        assertInstanceOf(SQLException.class, failure.getCause());
+        assertEquals(2, handled.size());
+    }
+
+    @Test
+    public void failedExportAbortsTheResponse() throws IOException {
+        RecipeService recipeService = mock(RecipeService.class);
+        Javalin exportApp = Javalin.create();
+        new RecipeBulkController(null, recipeService, null).configureRoutes(exportApp);
+        Chef author = new Chef(1, "JoeCool", "e", "p", false);
+        Random random = new Random(42);
+
+        // the export fails after enough rows, varied so compression cannot hide them, that
+        // the 200 and part of the body have been sent
+        doAnswer(invocation -> {
+            RecipeRowHandler handler = invocation.getArgument(1);
+            for (int i = 1; i <= 5000; i++) {
+                StringBuilder instructions = new StringBuilder();
+                for (int j = 0; j < 8; j++) {
+                    instructions.append(Long.toHexString(random.nextLong())).append(' ');
+                }
+                handler.handle(new Recipe(i, "soup " + i, instructions.toString(), author));
+            }
+            throw new IOException("Reading recipes failed after 5000 rows");
+        }).when(recipeService).exportRecipes(any(), any());
+        JavalinTest.test(exportApp, (server, client) -> {
+            var response = client.get("/recipes/export");
+            assertEquals(200, response.code());
+            assertThrows(IOException.class, () -> response.body().string(),
+                    "A truncated export should not end like a complete one");
+
+            // before anything was sent, the failure is answered with an error status
+            doThrow(new IOException("Reading recipes failed after 0 rows")).when(recipeService).exportRecipes(any(), any());
+            assertEquals(500, client.get("/recipes/export").code());
+        });
+    }
+}
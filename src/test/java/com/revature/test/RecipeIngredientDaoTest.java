@@ -0,0 +1,54 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.RecipeIngredientDAO;
+import com.revature.model.RecipeIngredient;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+
+public class RecipeIngredientDaoTest {
+
+    private RecipeIngredientDAO recipeIngredientDAO;
+
+    @BeforeEach
+    void setUp() {
+        DBUtil.RUN_SQL();
+        recipeIngredientDAO = new RecipeIngredientDAO(new ConnectionUtil());
+    }
+
+    @Test
+    public void loadsIngredientsForSeveralRecipesAtOnce() {
+        Map<Integer, List<RecipeIngredient>> byRecipe = recipeIngredientDAO.getIngredientsForRecipes(List.of(1, 4, 5));
+
+        assertEquals(3, byRecipe.size());
+        assertEquals("carrot", byRecipe.get(1).get(0).getName());
+        assertEquals(2, byRecipe.get(4).size());
+        assertEquals(1.0, byRecipe.get(4).get(0).getVolume());
+        assertTrue(byRecipe.get(5).isEmpty());
+    }
+
+    @Test
+    public void replacesIngredientListInOneTransaction() {
+        assertTrue(recipeIngredientDAO.replaceIngredients(5, List.of(
+                new RecipeIngredient(6, "stone", 1, "whole"),
+                new RecipeIngredient(2, "potato", 3, "cups"))));
+        List<RecipeIngredient> stoneSoup = recipeIngredientDAO.getIngredientsForRecipes(List.of(5)).get(5);
+        assertEquals(2, stoneSoup.size());
+        assertEquals("stone", stoneSoup.get(0).getName());
+
+        // a row that violates a constraint rolls back the whole replacement
+        assertFalse(recipeIngredientDAO.replaceIngredients(5, List.of(
+                new RecipeIngredient(1, "carrot", 1, "cups"),
+                new RecipeIngredient(99, "missing", 1, "cups"))));
+        assertEquals(2, recipeIngredientDAO.getIngredientsForRecipes(List.of(5)).get(5).size());
+    }
+}
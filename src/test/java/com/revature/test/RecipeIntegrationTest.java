@@ -1,6 +1,7 @@
 package com.revature.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
 import java.sql.SQLException;
@@ -13,14 +14,18 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.revature.controller.AuthenticationController;
 import com.revature.controller.IngredientController;
 import com.revature.controller.RecipeController;
 import com.revature.model.Chef;
 import com.revature.model.Recipe;
+import com.revature.model.RecipeSummary;
 import com.revature.dao.ChefDAO;
 import com.revature.dao.IngredientDAO;
 import com.revature.dao.RecipeDAO;
+import com.revature.dao.RecipeIngredientDAO;
 import com.revature.service.AuthenticationService;
 import com.revature.service.ChefService;
 import com.revature.service.IngredientService;
@@ -83,7 +88,7 @@ class RecipeIntegrationTest {
 
 		chefDao = new ChefDAO(new ConnectionUtil());
 		recipeDao = new RecipeDAO(chefDao, ingredientDao, new ConnectionUtil());
-		recipeService = new RecipeService(recipeDao);
+		recipeService = new RecipeService(recipeDao, new RecipeIngredientDAO(new ConnectionUtil()));
 		chefService = new ChefService(chefDao);
 		authService = new AuthenticationService(chefService);
 		recipeController = new RecipeController(recipeService, authService);
@@ -123,6 +128,64 @@ class RecipeIntegrationTest {
 				response.body().string(), "Single recipe should be returned a json");
 	}
 
+	@Test
+	void testGetRecipeConditionally() throws IOException {
+		Response first = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/1").get().build()).execute();
+		String etag = first.header("ETag");
+		assertEquals(200, first.code());
+		assertTrue(etag != null && !etag.isEmpty(), "An ETag should be returned");
+
+		Response cached = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/1")
+				.addHeader("If-None-Match", etag).get().build()).execute();
+		assertEquals(304, cached.code());
+
+		Recipe updatedRecipe = recipeList.get(0);
+		updatedRecipe.setInstructions("Don't add salt");
+		RequestBody recipeBody = RequestBody.create(new JavalinJackson().toJsonString(updatedRecipe, Recipe.class),
+				MediaType.get("application/json; charset=utf-8"));
+		client.newCall(new Request.Builder().url(BASE_URL + "/recipes/1").addHeader("Authorization", token)
+				.put(recipeBody).build()).execute();
+
+		Response changed = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/1")
+				.addHeader("If-None-Match", etag).get().build()).execute();
+		assertEquals(200, changed.code(), "An updated recipe should not match the old ETag");
+		assertEquals(new JavalinJackson().toJsonString(updatedRecipe, Recipe.class), changed.body().string());
+	}
+
+	@Test
+	void testGetRecipesWithIngredients() throws IOException {
+		Request request = new Request.Builder().url(BASE_URL + "/recipes?include=ingredients").get().build();
+		JsonNode recipes = new ObjectMapper().readTree(client.newCall(request).execute().body().string());
+		assertEquals(5, recipes.size());
+		JsonNode lemonRice = recipes.get(3).get("ingredients");
+		assertEquals(2, lemonRice.size());
+		assertEquals("lemon", lemonRice.get(0).get("name").asText());
+		assertEquals("Tbs", lemonRice.get(0).get("unit").asText());
+		assertEquals("rice", lemonRice.get(1).get("name").asText());
+		assertEquals(0, recipes.get(4).get("ingredients").size());
+
+		Request single = new Request.Builder().url(BASE_URL + "/recipes/1?include=ingredients").get().build();
+		JsonNode carrot = new ObjectMapper().readTree(client.newCall(single).execute().body().string());
+		assertEquals("carrot", carrot.get("ingredients").get(0).get("name").asText());
+	}
+
+	@Test
+	void testSearchRecipesByIngredients() throws IOException {
+		Request request = new Request.Builder().url(BASE_URL + "/recipes?ingredient=lemon&ingredient=rice").get().build();
+		JsonNode recipes = new ObjectMapper().readTree(client.newCall(request).execute().body().string());
+		assertEquals(1, recipes.size());
+		assertEquals("lemon rice soup", recipes.get(0).get("name").asText());
+
+		Request excluded = new Request.Builder().url(BASE_URL + "/recipes?ingredient=rice&excludeIngredient=lemon").get().build();
+		assertEquals(404, client.newCall(excluded).execute().code());
+
+		Request pantry = new Request.Builder().url(BASE_URL + "/recipes?pantry=carrot,potato,stone").get().build();
+		JsonNode cookable = new ObjectMapper().readTree(client.newCall(pantry).execute().body().string());
+		assertEquals(2, cookable.size());
+		assertEquals("carrot soup", cookable.get(0).get("name").asText());
+		assertEquals("potato soup", cookable.get(1).get("name").asText());
+	}
+
 	@Test
 	void testGetAllRecipes() throws IOException {
 		Request request = new Request.Builder().url(BASE_URL + "/recipes").addHeader("Authorization", token).get()
@@ -162,6 +225,50 @@ class RecipeIntegrationTest {
 		assertEquals(200, putResponse.code());
 	}
 
+	@Test
+	void testPutRecipeAnswersWithTheStoredRow() throws IOException {
+		Recipe original = recipeList.get(0);
+		Recipe updatedRecipe = new Recipe(1, "renamed in the body", "Don't add salt", original.getAuthor());
+		RequestBody recipeBody = RequestBody.create(new JavalinJackson().toJsonString(updatedRecipe, Recipe.class),
+				MediaType.get("application/json; charset=utf-8"));
+		Response putResponse = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/1")
+				.addHeader("Authorization", token).put(recipeBody).build()).execute();
+		assertEquals(200, putResponse.code());
+		JsonNode body = new ObjectMapper().readTree(putResponse.body().string());
+		assertEquals(original.getName(), body.get("name").asText(), "The name is not updated, so the stored one is returned");
+		assertEquals("Don't add salt", body.get("instructions").asText());
+	}
+
+	@Test
+	void testPutRecipeWithUnknownAuthor() throws IOException {
+		Recipe updatedRecipe = new Recipe(1, recipeList.get(0).getName(), "Don't add salt",
+				new Chef(999, "nobody", "nobody@null.com", "secret", false));
+		RequestBody recipeBody = RequestBody.create(new JavalinJackson().toJsonString(updatedRecipe, Recipe.class),
+				MediaType.get("application/json; charset=utf-8"));
+		Response putResponse = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/1")
+				.addHeader("Authorization", token).put(recipeBody).build()).execute();
+		assertEquals(409, putResponse.code(), () -> "An unknown author is not a missing recipe");
+	}
+
+	@Test
+	void testPutRecipeMissing() throws IOException {
+		Recipe updatedRecipe = new Recipe(999, "missing", "Don't add salt", recipeList.get(0).getAuthor());
+		RequestBody recipeBody = RequestBody.create(new JavalinJackson().toJsonString(updatedRecipe, Recipe.class),
+				MediaType.get("application/json; charset=utf-8"));
+		Response putResponse = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/999")
+				.addHeader("Authorization", token).put(recipeBody).build()).execute();
+		assertEquals(404, putResponse.code());
+	}
+
+	@Test
+	void testPutRecipeWithoutAuthor() throws IOException {
+		RequestBody recipeBody = RequestBody.create("{\"instructions\": \"Don't add salt\"}",
+				MediaType.get("application/json; charset=utf-8"));
+		Response putResponse = client.newCall(new Request.Builder().url(BASE_URL + "/recipes/1")
+				.addHeader("Authorization", token).put(recipeBody).build()).execute();
+		assertEquals(400, putResponse.code());
+	}
+
 	@Test
 	void testDeleteRecipe() throws IOException {
 
@@ -179,8 +286,10 @@ class RecipeIntegrationTest {
 	@Test
 	void testFilteredPageOfRecipes() throws IOException {
 
-		List<Recipe> filteredResult = List.of(recipeList.get(2));
-		Page<Recipe> filteredResultPage = new Page<Recipe>(2, 1, 2, 2, filteredResult);
+		Recipe recipe = recipeList.get(2);
+		List<RecipeSummary> filteredResult = List.of(
+				new RecipeSummary(recipe.getId(), recipe.getName(), recipe.getAuthor().getId(), recipe.getAuthor().getUsername()));
+		Page<RecipeSummary> filteredResultPage = new Page<RecipeSummary>(2, 1, 2, 2, filteredResult);
 		String filteredResultJSON = new JavalinJackson().toJsonString(filteredResultPage, Page.class);
 		Request request = new Request.Builder()
 				.url(BASE_URL + "/recipes?term=ato&page=2&pageSize=1&sortBy=name&sortDirection=asc").get()
@@ -188,7 +297,91 @@ class RecipeIntegrationTest {
 		Response response = client.newCall(request).execute();
 		assertEquals(filteredResultJSON,
 				response.body().string(),
-				"The single result should be returned");
+				"The single result should be returned as a summary");
+	}
+
+	@Test
+	void testFilteredPageOfFullRecipes() throws IOException {
+
+		Page<Recipe> filteredResultPage = new Page<Recipe>(2, 1, 2, 2, List.of(recipeList.get(2)));
+		String filteredResultJSON = new JavalinJackson().toJsonString(filteredResultPage, Page.class);
+		Request request = new Request.Builder()
+				.url(BASE_URL + "/recipes?term=ato&page=2&pageSize=1&sortBy=name&sortDirection=asc&view=full").get()
+				.addHeader("Authorization", token).build();
+		Response response = client.newCall(request).execute();
+		assertEquals(filteredResultJSON,
+				response.body().string(),
+				"view=full should return the whole recipe");
+	}
+
+	@Test
+	void testRecipeListsLeaveOutInstructions() throws IOException {
+		Request request = new Request.Builder().url(BASE_URL + "/recipes").get().build();
+		JsonNode recipes = new ObjectMapper().readTree(client.newCall(request).execute().body().string());
+		assertEquals(5, recipes.size());
+		assertEquals("carrot soup", recipes.get(0).get("name").asText());
+		assertEquals(chefList.get(0).getUsername(), recipes.get(0).get("author").get("username").asText());
+		for (JsonNode recipe : recipes) {
+			assertTrue(recipe.get("instructions") == null, "Summaries should not carry instructions");
+			assertTrue(recipe.get("author").get("password") == null, "Summaries should not carry the author's password");
+		}
+
+		Request full = new Request.Builder().url(BASE_URL + "/recipes?view=full").get().build();
+		JsonNode fullRecipes = new ObjectMapper().readTree(client.newCall(full).execute().body().string());
+		assertEquals(recipeList.get(0).getInstructions(), fullRecipes.get(0).get("instructions").asText());
+	}
+
+	@Test
+	void testPageSizeIsCapped() throws IOException {
+		Request pageRequest = new Request.Builder().url(BASE_URL + "/recipes?page=1&pageSize=10000000").get()
+				.addHeader("Authorization", token).build();
+		JsonNode page = new ObjectMapper().readTree(client.newCall(pageRequest).execute().body().string());
+		assertEquals(100, page.get("pageSize").asInt(), "A huge page size should be cut down to the maximum");
+		assertEquals(5, page.get("items").size());
+
+		Request scrollRequest = new Request.Builder().url(BASE_URL + "/recipes?after=&pageSize=10000000").get()
+				.addHeader("Authorization", token).build();
+		assertEquals(100, new ObjectMapper().readTree(client.newCall(scrollRequest).execute().body().string())
+				.get("pageSize").asInt());
+	}
+
+	@Test
+	void testScrollRecipesWithCursor() throws IOException {
+		Request firstRequest = new Request.Builder()
+				.url(BASE_URL + "/recipes?after=&pageSize=3&sortBy=name&sortDirection=asc").get()
+				.addHeader("Authorization", token).build();
+		Response firstResponse = client.newCall(firstRequest).execute();
+		assertEquals(200, firstResponse.code());
+		JsonNode first = new ObjectMapper().readTree(firstResponse.body().string());
+		assertEquals(3, first.get("items").size());
+		assertEquals("carrot soup", first.get("items").get(0).get("name").asText());
+		assertEquals("potato soup", first.get("items").get(2).get("name").asText());
+
+		Request secondRequest = new Request.Builder()
+				.url(BASE_URL + "/recipes?pageSize=3&after=" + first.get("nextCursor").asText()).get()
+				.addHeader("Authorization", token).build();
+		JsonNode second = new ObjectMapper().readTree(client.newCall(secondRequest).execute().body().string());
+		assertEquals(2, second.get("items").size());
+		assertEquals("stone soup", second.get("items").get(0).get("name").asText());
+		assertEquals("tomato soup", second.get("items").get(1).get("name").asText());
+		assertTrue(second.get("nextCursor").isNull(), "The last page should not return a cursor");
+	}
+
+	@Test
+	void testFullTextSearchRecipes() throws IOException {
+		Request request = new Request.Builder()
+				.url(BASE_URL + "/recipes?mode=fulltext&term=lemon%20ri").get()
+				.addHeader("Authorization", token).build();
+		Response response = client.newCall(request).execute();
+		assertEquals(200, response.code());
+		JsonNode results = new ObjectMapper().readTree(response.body().string());
+		assertEquals(1, results.size());
+		assertEquals("lemon rice soup", results.get(0).get("name").asText());
+
+		Request missing = new Request.Builder()
+				.url(BASE_URL + "/recipes?mode=fulltext&term=pumpkin").get()
+				.addHeader("Authorization", token).build();
+		assertEquals(404, client.newCall(missing).execute().code());
 	}
 
 }
@@ -0,0 +1,51 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Recipe;
+import com.revature.service.RecipeSearchIndex;
+
+public class RecipeSearchIndexTest {
+
+    private RecipeSearchIndex index;
+
+    @BeforeEach
+    void buildIndex() {
+        index = new RecipeSearchIndex();
+        index.ensureBuilt(() -> Arrays.asList(
+                new Recipe(1, "Tomato Soup", "Simmer tomatoes with basil.", null),
+                new Recipe(2, "Basil Pesto", "Blend basil, pine nuts and garlic. Serve with tomato pasta.", null),
+                new Recipe(3, "Garlic Bread", "Toast bread with garlic butter.", null)));
+    }
+
+    @Test
+    public void nameMatchesRankAboveInstructionMatches() {
+        assertEquals(List.of(1, 2), index.search("tomato", 10));
+        assertEquals(List.of(2, 1), index.search("basil", 10));
+    }
+
+    @Test
+    public void allTermsMustMatchAndLastTermIsAPrefix() {
+        assertEquals(List.of(3), index.search("garlic bu", 10));
+        assertEquals(List.of(2), index.search("PINE nu", 10));
+        assertTrue(index.search("tomato garlic bread", 10).isEmpty());
+    }
+
+    @Test
+    public void changesAreReflectedInResults() {
+        index.recipeSaved(new Recipe(4, "Garlic Knots", "Tie dough into knots.", null));
+        index.recipeDeleted(3);
+        index.recipeSaved(new Recipe(1, "Carrot Soup", "Simmer carrots.", null));
+
+        assertEquals(List.of(4, 2), index.search("garlic", 10));
+        assertEquals(List.of(2), index.search("tomato", 10));
+        assertEquals(3, index.size());
+    }
+}
@@ -1,9 +1,12 @@
 package com.revature.test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -16,9 +19,11 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 
+import com.revature.model.Chef;
 import com.revature.model.Ingredient;
 import com.revature.model.Recipe;
 import com.revature.dao.RecipeDAO;
+import com.revature.dao.WriteResult;
 import com.revature.service.RecipeService;
 import com.revature.util.Page;
 import com.revature.util.PageOptions;
@@ -81,12 +86,30 @@ public class RecipeServiceTest {
 
     @Test
     void deleteRecipe() {
-        when(recipeDao.getRecipeById(1)).thenReturn(MOCKS.get(0));
-        doNothing().when(recipeDao).deleteRecipe(any(Recipe.class));
-        ArgumentCaptor<Recipe> recipeCaptor = ArgumentCaptor.forClass(Recipe.class);
-        recipeService.deleteRecipe(1);
-        verify(recipeDao).deleteRecipe(recipeCaptor.capture());
-        verify(recipeDao).getRecipeById(1);
+        when(recipeDao.deleteRecipeById(1)).thenReturn(WriteResult.APPLIED);
+        assertTrue(recipeService.deleteRecipe(1));
+        verify(recipeDao).deleteRecipeById(1);
+        verify(recipeDao, never()).getRecipeById(anyInt());
+    }
+
+    @Test
+    void deleteMissingRecipe() {
+        when(recipeDao.deleteRecipeById(1)).thenReturn(WriteResult.NOT_FOUND);
+        assertFalse(recipeService.deleteRecipe(1));
+    }
+
+    @Test
+    void updateRecipeWithoutReadingIt() {
+        Recipe update = new Recipe(0, "Renamed", "New Instructions", new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false));
+        when(recipeDao.updateExistingRecipe(any(Recipe.class))).thenReturn(WriteResult.APPLIED);
+        assertEquals(WriteResult.APPLIED, recipeService.updateRecipe(42, update));
+        assertEquals(42, update.getId());
+        verify(recipeDao, never()).getRecipeById(anyInt());
+
+        when(recipeDao.updateExistingRecipe(any(Recipe.class))).thenReturn(WriteResult.NOT_FOUND);
+        assertEquals(WriteResult.NOT_FOUND, recipeService.updateRecipe(43, update), () -> "A missing recipe should be reported");
+        assertThrows(IllegalArgumentException.class,
+                () -> recipeService.updateRecipe(42, new Recipe(0, "Renamed", "New Instructions", null)));
     }
 
     @Test
@@ -138,4 +161,4 @@ public class RecipeServiceTest {
         verify(recipeDao).searchRecipesByTerm(termCaptor.capture(), optionsCaptor.capture());
         assertEquals(new Page<Recipe>(1, 5, 0, 0, Collections.emptyList()), recipes, () -> "Service shouldn't change the page returned from the dao");
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,238 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.dao.RecipeImportDAO;
+import com.revature.dao.RecipeIngredientDAO;
+import com.revature.dao.WriteResult;
+import com.revature.model.Chef;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.service.RecipeService;
+import com.revature.service.RecipeWriteCoalescer;
+import com.revature.util.AppContext;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DatabaseUnavailableException;
+import com.revature.util.DBUtil;
+import com.revature.util.MetricsRegistry;
+import com.revature.util.TransactionManager;
+
+import io.javalin.testtools.JavalinTest;
+
+public class RecipeWriteCoalescerTest {
+
+    private RecipeDAO recipeDAO;
+    private RecipeIngredientDAO recipeIngredientDAO;
+    private RecipeWriteCoalescer coalescer;
+    private Chef author;
+
+    @BeforeEach
+    void setUp() {
+        DBUtil.RUN_SQL();
+        ConnectionUtil connectionUtil = new ConnectionUtil();
+        recipeDAO = new RecipeDAO(new ChefDAO(connectionUtil), new IngredientDAO(connectionUtil), connectionUtil);
+        recipeIngredientDAO = new RecipeIngredientDAO(connectionUtil);
+        // a long delay, so every recipe submitted below lands in the same batch
+        coalescer = new RecipeWriteCoalescer(new RecipeImportDAO(connectionUtil), 64, TimeUnit.MILLISECONDS.toMicros(200));
+        author = recipeDAO.getRecipeById(1).getAuthor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coalescer.close();
+    }
+
+    @Test
+    public void writesConcurrentCreationsInOneBatch() {
+        List<CompletableFuture<Recipe>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Recipe recipe = new Recipe(0, "batched soup " + i, "Stir " + i + " times.", author);
+            recipe.setIngredients(List.of(new RecipeIngredient(1, "carrot", i + 1, "cups")));
+            futures.add(coalescer.submit(recipe));
+        }
+
+        Set<Integer> ids = new HashSet<>();
+        for (int i = 0; i < futures.size(); i++) {
+            Recipe written = futures.get(i).join();
+            assertTrue(written.getId() > 0);
+            ids.add(written.getId());
+            assertEquals("batched soup " + i, recipeDAO.getRecipeById(written.getId()).getName());
+            assertEquals(i + 1, recipeIngredientDAO.getIngredientsForRecipes(List.of(written.getId()))
+                    .get(written.getId()).get(0).getVolume());
+        }
+        assertEquals(10, ids.size());
+        assertEquals(1, coalescer.getBatchCount());
+        assertEquals(10, coalescer.getRowCount());
+        assertEquals(10, coalescer.getBatchSizes().getMax());
+    }
+
+    @Test
+    public void rejectedRecipeFailsOnlyItsOwnCaller() {
+        CompletableFuture<Recipe> before = coalescer.submit(new Recipe(0, "leek soup", "Sweat the leeks.", author));
+        CompletableFuture<Recipe> taken = coalescer.submit(new Recipe(0, "carrot soup", "Again.", author));
+        CompletableFuture<Recipe> after = coalescer.submit(new Recipe(0, "pea soup", "Blend the peas.", author));
+
+        CompletionException failure = assertThrows(CompletionException.class, taken::join);
+        assertInstanceOf(SQLException.class, failure.getCause());
+        assertTrue(before.join().getId() > 0);
+        assertTrue(after.join().getId() > 0);
+        assertEquals("pea soup", recipeDAO.getRecipeById(after.join().getId()).getName());
+        assertEquals(1, coalescer.getFailureCount());
+        assertEquals(2, coalescer.getRowCount());
+    }
+
+    @Test
+    public void serviceCreatesThroughTheCoalescer() {
+        RecipeService recipeService = new RecipeService(recipeDAO, recipeIngredientDAO, new TransactionManager(0, 1),
+                coalescer);
+
+        assertTrue(recipeService.searchRecipesFullText("caramelise", 10).isEmpty());
+        Recipe recipe = new Recipe(0, "onion soup", "Caramelise the onions.", author);
+        assertEquals(WriteResult.APPLIED, recipeService.createRecipe(recipe));
+        assertTrue(recipe.getId() > 0);
+        assertEquals(recipe.getId(), recipeService.searchRecipesFullText("caramelise", 10).get(0).getId(),
+                "The search index should hear about the new recipe");
+
+        Recipe duplicate = new Recipe(0, "onion soup", "Again.", author);
+        assertEquals(WriteResult.CONFLICT, recipeService.createRecipe(duplicate));
+        assertEquals(0, duplicate.getId());
+    }
+
+    @Test
+    public void recipeNotWrittenInTimeIsDropped() {
+        RecipeWriteCoalescer slow = new RecipeWriteCoalescer(new RecipeImportDAO(new ConnectionUtil()), 64,
+                TimeUnit.MILLISECONDS.toMicros(300), 50);
+        RecipeService recipeService = new RecipeService(recipeDAO, recipeIngredientDAO, new TransactionManager(0, 1), slow);
+        try {
+            Recipe recipe = new Recipe(0, "slow soup", "Wait for it.", author);
+            assertThrows(DatabaseUnavailableException.class, () -> recipeService.createRecipe(recipe));
+            assertEquals(0, recipe.getId());
+        } finally {
+            slow.close();
+        }
+        assertEquals(0, slow.getBatchCount(), "A recipe whose caller gave up should not be written");
+        assertTrue(recipeService.searchRecipesFullText("wait", 10).isEmpty());
+    }
+
+    @Test
+    public void recipeTakenIntoABatchOutlivesTheTimeout() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        RecipeImportDAO slowDAO = new RecipeImportDAO(new ConnectionUtil()) {
+            @Override
+            public List<SQLException> tryInsertRecipes(List<Recipe> recipes) {
+                writing.countDown();
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.tryInsertRecipes(recipes);
+            }
+        };
+        RecipeWriteCoalescer slow = new RecipeWriteCoalescer(slowDAO, 64, 0, 50);
+        try {
+            CompletableFuture<Recipe> written = slow.submit(new Recipe(0, "slow soup", "Wait for it.", author));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            Recipe recipe = written.join();
+            assertTrue(recipe.getId() > 0, "A recipe whose batch committed should not be reported as timed out");
+            assertEquals("slow soup", recipeDAO.getRecipeById(recipe.getId()).getName());
+        } finally {
+            slow.close();
+        }
+    }
+
+    @Test
+    public void fullQueueFailsSubmissionsAtOnce() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecipeImportDAO blockedDAO = new RecipeImportDAO(new ConnectionUtil()) {
+            @Override
+            public List<SQLException> tryInsertRecipes(List<Recipe> recipes) {
+                writing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.tryInsertRecipes(recipes);
+            }
+        };
+        RecipeWriteCoalescer small = new RecipeWriteCoalescer(blockedDAO, 1, 0, 5000, 1);
+        try {
+            CompletableFuture<Recipe> first = small.submit(new Recipe(0, "leek soup", "Sweat the leeks.", author));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            CompletableFuture<Recipe> queued = small.submit(new Recipe(0, "pea soup", "Blend the peas.", author));
+            CompletableFuture<Recipe> rejected = small.submit(new Recipe(0, "bean soup", "Soak the beans.", author));
+
+            CompletionException failure = assertThrows(CompletionException.class, rejected::join);
+            assertInstanceOf(SQLTransientConnectionException.class, failure.getCause());
+            release.countDown();
+            assertTrue(first.join().getId() > 0);
+            assertTrue(queued.join().getId() > 0);
+        } finally {
+            release.countDown();
+            small.close();
+        }
+    }
+
+    @Test
+    public void serverStopClosesTheCoalescer() {
+        System.setProperty("recipe.writes.coalesce.enabled", "true");
+        AppContext context;
+        try {
+            context = new AppContext();
+        } finally {
+            System.clearProperty("recipe.writes.coalesce.enabled");
+        }
+        JavalinTest.test(context.getJavalinAppUtil().getApp(), (server, client) -> {
+            assertTrue(context.getWriteCoalescer().submit(new Recipe(0, "leek soup", "Sweat the leeks.", author)).join()
+                    .getId() > 0);
+        });
+
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> context.getWriteCoalescer().submit(new Recipe(0, "pea soup", "Blend the peas.", author)).join());
+        assertInstanceOf(SQLTransientConnectionException.class, failure.getCause());
+    }
+
+    @Test
+    public void closeFailsLaterSubmissions() {
+        assertTrue(coalescer.submit(new Recipe(0, "leek soup", "Sweat the leeks.", author)).join().getId() > 0);
+        coalescer.close();
+
+        CompletionException failure = assertThrows(CompletionException.class,
+                () -> coalescer.submit(new Recipe(0, "pea soup", "Blend the peas.", author)).join());
+        assertInstanceOf(SQLException.class, failure.getCause());
+    }
+
+    @Test
+    public void reportsBatchFillInTheScrape() {
+        coalescer.submit(new Recipe(0, "leek soup", "Sweat the leeks.", author)).join();
+
+        String scrape = new MetricsRegistry(null, coalescer).scrape();
+        assertTrue(scrape.contains("recipe_write_coalescer_batches_total 1\n"), scrape);
+        assertTrue(scrape.contains("recipe_write_coalescer_recipes_total{outcome=\"written\"} 1\n"), scrape);
+        assertTrue(scrape.contains("recipe_write_coalescer_batch_size_count 1\n"), scrape);
+        assertTrue(scrape.contains("recipe_write_coalescer_batch_size_max 64\n"), scrape);
+    }
+}
@@ -0,0 +1,49 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import io.javalin.http.Context;
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Chef;
+import com.revature.service.AuthenticationService;
+import com.revature.util.SessionResolver;
+
+public class SessionResolverTest {
+
+    private final Chef chef = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", true);
+
+    @Test
+    public void resolvesChefFromHeaderAndCachesIt() {
+        AuthenticationService authService = mock(AuthenticationService.class);
+        when(authService.getChefFromSessionToken("abc")).thenReturn(chef);
+        Context ctx = mock(Context.class);
+        when(ctx.header("Authorization")).thenReturn("Bearer abc");
+
+        assertEquals(chef, SessionResolver.resolveChef(ctx, authService));
+        verify(ctx).attribute(SessionResolver.CHEF_ATTRIBUTE, Optional.of(chef));
+    }
+
+    @Test
+    public void reusesChefCachedOnContext() {
+        AuthenticationService authService = mock(AuthenticationService.class);
+        Context ctx = mock(Context.class);
+        when(ctx.attribute(SessionResolver.CHEF_ATTRIBUTE)).thenReturn(Optional.of(chef));
+
+        assertEquals(chef, SessionResolver.resolveChef(ctx, authService));
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    public void extractsTokenWithOrWithoutBearerScheme() {
+        assertEquals("abc", SessionResolver.extractToken("Bearer abc"));
+        assertEquals("abc", SessionResolver.extractToken("Bearerabc"));
+        assertEquals("abc", SessionResolver.extractToken(" abc "));
+        assertNull(SessionResolver.extractToken("Bearer "));
+        assertNull(SessionResolver.extractToken(null));
+    }
+}
@@ -0,0 +1,131 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.revature.model.Chef;
+import com.revature.service.InMemorySessionStore;
+
+class SessionStoreTest {
+
+	private final Chef chef = new Chef(1, "JoeCool", "snoopy@null.com", "redbarron", false);
+
+	@Test
+	void sessionsExpireAfterGoingUnused() {
+		AtomicLong now = new AtomicLong(0);
+		InMemorySessionStore store = new InMemorySessionStore(10_000, 10, 0, now::get);
+		store.put("a", chef);
+		store.put("b", chef);
+
+		now.set(9_000);
+		assertEquals(chef, store.get("a"));
+		now.set(15_000);
+		assertEquals(chef, store.get("a"), "access should extend the session");
+		assertNull(store.get("b"));
+
+		now.set(50_000);
+		assertEquals(1, store.purgeExpired());
+		assertEquals(0, store.size());
+	}
+
+	@Test
+	void fullStoreEvictsLeastRecentlyUsed() {
+		AtomicLong now = new AtomicLong(0);
+		InMemorySessionStore store = new InMemorySessionStore(60_000, 2, 0, now::get);
+		store.put("a", chef);
+		now.set(2_000);
+		store.put("b", chef);
+		now.set(4_000);
+		store.get("a");
+		store.put("c", chef);
+
+		assertEquals(2, store.size());
+		assertNull(store.get("b"));
+		assertEquals(chef, store.get("a"));
+		assertEquals(chef, store.get("c"));
+	}
+
+	@Test
+	void concurrentLoginsAtCapacityStayWithinIt() throws Exception {
+		int threads = 8;
+		int capacity = 100;
+		InMemorySessionStore store = new InMemorySessionStore(60_000, capacity, 0);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger largest = new AtomicInteger();
+		List<Future<?>> results = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < 5_000; i++) {
+					String token = UUID.randomUUID().toString();
+					store.put(token, chef);
+					store.get(token);
+					if (i % 3 == 0) {
+						store.remove(token);
+					}
+					largest.accumulateAndGet(store.size(), Math::max);
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> result : results) {
+			result.get();
+		}
+		pool.shutdown();
+
+		assertTrue(largest.get() <= capacity, () -> "The store held " + largest.get() + " sessions");
+		assertTrue(store.size() <= capacity);
+		store.close();
+	}
+
+	@Test
+	void concurrentLoginsAreNotLost() throws Exception {
+		int threads = 8;
+		int perThread = 2_000;
+		InMemorySessionStore store = new InMemorySessionStore(60_000, threads * perThread, 0);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<List<String>>> results = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			results.add(pool.submit(() -> {
+				List<String> tokens = new ArrayList<>();
+				start.await();
+				for (int i = 0; i < perThread; i++) {
+					String token = UUID.randomUUID().toString();
+					store.put(token, chef);
+					tokens.add(token);
+				}
+				return tokens;
+			}));
+		}
+		start.countDown();
+		List<String> all = new ArrayList<>();
+		for (Future<List<String>> result : results) {
+			all.addAll(result.get());
+		}
+		pool.shutdown();
+
+		assertEquals(threads * perThread, store.size());
+		for (String token : all) {
+			assertEquals(chef, store.get(token));
+		}
+		store.remove(all.get(0));
+		assertNull(store.get(all.get(0)));
+		store.close();
+	}
+}
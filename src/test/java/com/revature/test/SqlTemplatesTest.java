@@ -0,0 +1,38 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.SqlTemplates;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+
+public class SqlTemplatesTest {
+
+    @Test
+    public void everyTemplatePreparesAgainstTheSchema() throws SQLException {
+        DBUtil.RUN_SQL();
+        try (Connection conn = new ConnectionUtil().getConnection()) {
+            SqlTemplates.validate(conn);
+        }
+    }
+
+    @Test
+    public void sortedFamiliesHoldOneStatementPerWhitelistedOrder() {
+        assertEquals(SqlTemplates.all().get("recipe.page.name.desc"), SqlTemplates.RECIPE_PAGE.get("name", "DESC"));
+        assertTrue(SqlTemplates.RECIPE_PAGE.get("name", "DESC").contains("ORDER BY recipe.name DESC LIMIT ? OFFSET ?"));
+        assertTrue(SqlTemplates.chefSeek(true, true).get("username", "ASC")
+                .endsWith("WHERE LOWER(username) LIKE LOWER(?) AND (username > ? OR (username = ? AND id > ?))"
+                        + " ORDER BY username ASC, id ASC LIMIT ?"));
+        assertTrue(SqlTemplates.ingredientSeek(false, true).get("id", "DESC").endsWith("WHERE id < ? ORDER BY id DESC, id DESC LIMIT ?"));
+
+        assertThrows(IllegalArgumentException.class, () -> SqlTemplates.RECIPE_PAGE.get("instructions", "ASC"));
+        assertThrows(IllegalArgumentException.class, () -> SqlTemplates.RECIPE_PAGE.get("id", "asc; DROP TABLE recipe"));
+    }
+}
@@ -0,0 +1,251 @@
+package com.revature.test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.revature.dao.ChefDAO;
+import com.revature.dao.IngredientDAO;
+import com.revature.dao.RecipeDAO;
+import com.revature.dao.RecipeIngredientDAO;
+import com.revature.model.Recipe;
+import com.revature.model.RecipeIngredient;
+import com.revature.service.RecipeService;
+import com.revature.util.ConnectionPool;
+import com.revature.util.ConnectionUtil;
+import com.revature.util.DBUtil;
+import com.revature.util.TransactionManager;
+
+public class TransactionManagerTest {
+
+    private ConnectionUtil connectionUtil;
+    private RecipeDAO recipeDAO;
+    private RecipeIngredientDAO recipeIngredientDAO;
+    private TransactionManager transactions;
+
+    @BeforeEach
+    void setUp() {
+        DBUtil.RUN_SQL();
+        connectionUtil = new ConnectionUtil();
+        recipeDAO = new RecipeDAO(new ChefDAO(connectionUtil), new IngredientDAO(connectionUtil), connectionUtil);
+        recipeIngredientDAO = new RecipeIngredientDAO(connectionUtil);
+        transactions = new TransactionManager(5, 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        assertFalse(TransactionManager.isTransactionActive());
+    }
+
+    @Test
+    public void requestScopeBorrowsOneConnectionForEveryDaoCall() throws SQLException {
+        ConnectionPool pool = ConnectionUtil.getPool();
+        long borrowsBefore = pool.getAcquireLatency().getCount();
+
+        TransactionManager.beginRequest();
+        try {
+            Connection first = connectionUtil.getConnection();
+            first.close();
+            assertSame(first, connectionUtil.getConnection(), "Closing the bound connection should not release it");
+            assertEquals("carrot soup", recipeDAO.getRecipeById(1).getName());
+            assertEquals(5, recipeDAO.getAllRecipes().size());
+            assertEquals(2, recipeIngredientDAO.getIngredientsForRecipes(List.of(4)).get(4).size());
+        } finally {
+            TransactionManager.endRequest();
+        }
+
+        assertEquals(borrowsBefore + 1, pool.getAcquireLatency().getCount());
+        assertEquals(0, pool.getActiveCount(), "The connection should go back when the request ends");
+    }
+
+    @Test
+    public void commitsWorkAndJoinsNestedTransactions() throws SQLException {
+        int id = transactions.inTransaction(() -> {
+            int created = recipeDAO.createRecipe(new Recipe(0, "pumpkin soup", "Roast pumpkin.", recipeDAO.getRecipeById(1).getAuthor()));
+            // the DAO's own transaction joins this one
+            recipeIngredientDAO.replaceIngredients(created, List.of(new RecipeIngredient(1, "carrot", 2, "cups")));
+            return transactions.inTransaction(() -> created);
+        });
+
+        assertEquals("pumpkin soup", recipeDAO.getRecipeById(id).getName());
+        assertEquals(1, recipeIngredientDAO.getIngredientsForRecipes(List.of(id)).get(id).size());
+        assertEquals(1, transactions.getCommitCount());
+    }
+
+    @Test
+    public void failedStatementRollsBackEverything() {
+        Recipe carrotSoup = recipeDAO.getRecipeById(1);
+
+        // the DAO swallows the duplicate name error, but the transaction still sees it
+        SQLException failure = assertThrows(SQLException.class, () -> transactions.inTransaction(() -> {
+            recipeDAO.deleteRecipe(carrotSoup);
+            return recipeDAO.createRecipe(new Recipe(0, "potato soup", "Again.", carrotSoup.getAuthor()));
+        }));
+
+        assertTrue(failure.getMessage().toLowerCase().contains("unique"), failure.getMessage());
+        assertEquals("carrot soup", recipeDAO.getRecipeById(1).getName(), "The delete should have been rolled back");
+        assertEquals(1, recipeIngredientDAO.getIngredientsForRecipes(List.of(1)).get(1).size());
+        assertEquals(1, transactions.getRollbackCount());
+    }
+
+    @Test
+    public void runtimeExceptionRollsBackAndPropagates() {
+        assertThrows(IllegalStateException.class, () -> transactions.inTransaction(() -> {
+            recipeDAO.deleteRecipe(recipeDAO.getRecipeById(2));
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("potato soup", recipeDAO.getRecipeById(2).getName());
+    }
+
+    @Test
+    public void retriesAfterALockTimeout() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try (Connection conn = connectionUtil.getConnection(); Statement stmt = conn.createStatement()) {
+                conn.setAutoCommit(false);
+                stmt.executeUpdate("UPDATE recipe SET instructions = 'held' WHERE id = 3");
+                locked.countDown();
+                Thread.sleep(300);
+                conn.commit();
+                conn.setAutoCommit(true);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+        holder.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        AtomicInteger attempts = new AtomicInteger();
+        TransactionManager.beginRequest();
+        try {
+            try (Statement stmt = connectionUtil.getConnection().createStatement()) {
+                stmt.execute("SET LOCK_TIMEOUT 50");
+            }
+            transactions.inTransaction(() -> {
+                attempts.incrementAndGet();
+                Recipe recipe = recipeDAO.getRecipeById(3);
+                recipe.setInstructions("retried");
+                recipeDAO.updateRecipe(recipe);
+                return null;
+            });
+        } finally {
+            try (Statement stmt = connectionUtil.getConnection().createStatement()) {
+                stmt.execute("SET LOCK_TIMEOUT 1000");
+            }
+            TransactionManager.endRequest();
+        }
+        holder.join();
+
+        assertTrue(attempts.get() > 1, "The first attempt should have timed out on the lock");
+        assertEquals(attempts.get() - 1, transactions.getRetryCount());
+        assertEquals("retried", recipeDAO.getRecipeById(3).getInstructions());
+    }
+
+    @Test
+    public void givesUpAfterTheLastRetry() {
+        TransactionManager once = new TransactionManager(1, 1);
+        AtomicInteger attempts = new AtomicInteger();
+        SQLException timeout = new SQLException("Timeout trying to lock table", "HYT00", 50200);
+
+        assertSame(timeout, assertThrows(SQLException.class, () -> once.inTransaction(() -> {
+            attempts.incrementAndGet();
+            throw timeout;
+        })));
+        assertEquals(2, attempts.get());
+
+        attempts.set(0);
+        assertThrows(SQLException.class, () -> once.inTransaction(() -> {
+            attempts.incrementAndGet();
+            throw new SQLException("Syntax error", "42000");
+        }));
+        assertEquals(1, attempts.get(), "Other failures should not be retried");
+    }
+
+    @Test
+    public void serviceDeletesInOneStatement() {
+        RecipeService recipeService = new RecipeService(recipeDAO, recipeIngredientDAO, transactions);
+
+        assertTrue(recipeService.deleteRecipe(4));
+        assertFalse(recipeService.deleteRecipe(4));
+        assertNull(recipeDAO.getRecipeById(4));
+        assertTrue(recipeIngredientDAO.getIngredientsForRecipes(List.of(4)).get(4).isEmpty(),
+                "The ingredient rows should go with the recipe");
+        assertEquals(0, transactions.getCommitCount(), "A single statement needs no transaction");
+    }
+
+    @Test
+    public void retriedCreateStartsOverWithANewRecipe() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = new Thread(() -> {
+            try (Connection conn = connectionUtil.getConnection(); Statement stmt = conn.createStatement()) {
+                conn.setAutoCommit(false);
+                stmt.executeUpdate("UPDATE recipe SET instructions = 'held' WHERE id = 3");
+                locked.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                conn.rollback();
+                conn.setAutoCommit(true);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        });
+        holder.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        AtomicInteger attempts = new AtomicInteger();
+        RecipeIngredientDAO timingOutOnce = new RecipeIngredientDAO(connectionUtil) {
+            @Override
+            public boolean replaceIngredients(int recipeId, List<RecipeIngredient> ingredients) {
+                if (attempts.incrementAndGet() > 1) {
+                    return super.replaceIngredients(recipeId, ingredients);
+                }
+                // times out on the held lock, which fails the first attempt after the recipe row is written
+                try (Statement stmt = connectionUtil.getConnection().createStatement()) {
+                    stmt.execute("SET LOCK_TIMEOUT 50");
+                    try {
+                        stmt.executeUpdate("UPDATE recipe SET instructions = 'taken' WHERE id = 3");
+                    } catch (SQLException e) {
+                        // recorded by the transaction
+                    }
+                    stmt.execute("SET LOCK_TIMEOUT 1000");
+                } catch (SQLException e) {
+                    e.printStackTrace();
+                }
+                release.countDown();
+                return false;
+            }
+        };
+        RecipeService recipeService = new RecipeService(recipeDAO, timingOutOnce, transactions);
+        Recipe recipe = new Recipe(0, "retried soup", "Stir twice.", recipeDAO.getRecipeById(1).getAuthor());
+        recipe.setIngredients(List.of(new RecipeIngredient(1, "carrot", 2, "cups")));
+
+        TransactionManager.beginRequest();
+        try {
+            recipeService.createRecipe(recipe);
+        } finally {
+            TransactionManager.endRequest();
+        }
+        holder.join();
+
+        assertEquals(2, attempts.get());
+        assertEquals(1, transactions.getRetryCount());
+        assertTrue(recipe.getId() > 0, "The retry should create the recipe rather than update a rolled-back id");
+        assertEquals("retried soup", recipeDAO.getRecipeById(recipe.getId()).getName());
+        assertEquals(1, recipeIngredientDAO.getIngredientsForRecipes(List.of(recipe.getId())).get(recipe.getId()).size());
+    }
+}